@@ -0,0 +1,123 @@
+package com.example.reviews.api;
+
+import com.example.reviews.config.AdmissionProperties;
+import com.example.reviews.util.AdaptiveConcurrencyLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-endpoint admission control in front of {@link ReviewsController}
+ * ({@code reviews.admission.enabled=true}).
+ *
+ * Why: under a traffic spike, requests used to pile up on Tomcat threads and then on the
+ * Hikari pool until they all timed out, and {@link ErrorHandler} turned them into slow 500s.
+ * Now each endpoint has its own {@link AdaptiveConcurrencyLimiter}: a request gets a slot,
+ * or waits briefly in a bounded queue, or is rejected <i>immediately</i> with
+ * {@code 503 Service Unavailable} and {@code Retry-After}. Overload shows up as a share of fast
+ * rejections while admitted requests keep their normal latency.
+ *
+ * Endpoints are limited separately so a flood of list queries can’t lock out single-review
+ * reads. The SSE stream is not limited (a stream holds its request for its whole lifetime and
+ * polls on a scheduler, not on the request thread). Other paths pass through.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(prefix = "reviews.admission", name = "enabled", havingValue = "true")
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+    private final AdmissionProperties props;
+    private final ObjectMapper mapper;
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public AdmissionControlFilter(AdmissionProperties props, ObjectMapper mapper) {
+        this.props = props;
+        this.mapper = mapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return endpointOf(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String endpoint = endpointOf(request);
+        AdaptiveConcurrencyLimiter limiter = limiters.computeIfAbsent(endpoint, this::newLimiter);
+        AdmissionProperties.Limits limits = props.limitsFor(endpoint);
+
+        boolean admitted;
+        try {
+            admitted = limiter.tryAcquire(limits.getMaxWaitMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            reject(response, endpoint, limiter);
+            return;
+        }
+
+        long started = System.nanoTime();
+        boolean success = false;
+        try {
+            chain.doFilter(request, response);
+            success = response.getStatus() < 500;
+        } finally {
+            limiter.release(System.nanoTime() - started, success);
+        }
+    }
+
+    private AdaptiveConcurrencyLimiter newLimiter(String endpoint) {
+        AdmissionProperties.Limits l = props.limitsFor(endpoint);
+        return new AdaptiveConcurrencyLimiter(l.getInitialLimit(), l.getMinLimit(), l.getMaxLimit(), l.getQueueSize());
+    }
+
+    private void reject(HttpServletResponse response, String endpoint, AdaptiveConcurrencyLimiter limiter)
+            throws IOException {
+        log.debug("Shedding {} request (limit={}, inFlight={})", endpoint, limiter.limit(), limiter.inFlight());
+
+        // Same body and header as ErrorHandler's 503s
+        Map<String, Object> body = ErrorHandler.body("SERVICE_UNAVAILABLE",
+                "Server is busy; retry after " + props.getRetryAfterSeconds() + "s");
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, ErrorHandler.retryAfter(props));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        mapper.writeValue(response.getOutputStream(), body);
+    }
+
+    /** Limited endpoint this request belongs to, or null to let it through unlimited. */
+    static String endpointOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.length() > 1 && path.endsWith("/")) path = path.substring(0, path.length() - 1);
+        String method = request.getMethod();
+
+        if (path.equals("/reviews")) return "GET".equals(method) ? "list" : null;
+        if (path.equals("/reviews/changes")) return "GET".equals(method) ? "changes" : null;
+        if (path.startsWith("/reviews/") && path.indexOf('/', "/reviews/".length()) < 0) {
+            if ("GET".equals(method)) return "get";
+            if ("DELETE".equals(method)) return "delete";
+        }
+        return null;   // /reviews/changes/stream and anything else
+    }
+}
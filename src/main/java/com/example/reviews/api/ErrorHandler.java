@@ -1,11 +1,18 @@
 package com.example.reviews.api;
 
+import com.example.reviews.config.AdmissionProperties;
+import com.example.reviews.service.ChangeFeedService;
+import com.example.reviews.service.CoalescingReviewService;
 import com.example.reviews.service.ReviewService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -26,6 +33,12 @@ import java.util.Map;
 @RestControllerAdvice
 public class ErrorHandler {
 
+    private final AdmissionProperties admission;   // Retry-After for every 503
+
+    public ErrorHandler(AdmissionProperties admission) {
+        this.admission = admission;
+    }
+
     /**
      * Handle "review not found" errors from our service layer.
      * Maps to a 404 response.
@@ -35,6 +48,33 @@ public class ErrorHandler {
         return error("NOT_FOUND", ex.getMessage(), HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * A change feed cursor points behind pruned tombstones.
+     * Maps to a 410 response; the consumer has to start again without a cursor.
+     */
+    @ExceptionHandler(ChangeFeedService.CursorExpiredException.class)
+    public ResponseEntity<Map<String,Object>> gone(ChangeFeedService.CursorExpiredException ex) {
+        return error("GONE", ex.getMessage(), HttpStatus.GONE);
+    }
+
+    /**
+     * A request gave up waiting for an identical query already in flight.
+     * Maps to a 503 with Retry-After; the client can retry.
+     */
+    @ExceptionHandler(CoalescingReviewService.BusyException.class)
+    public ResponseEntity<Map<String,Object>> busy(CoalescingReviewService.BusyException ex) {
+        return unavailable(ex.getMessage());
+    }
+
+    /**
+     * No DB connection within Hikari’s timeout: the database is saturated, not broken.
+     * Maps to a 503 with Retry-After so clients back off instead of seeing a 500.
+     */
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<Map<String,Object>> dbBusy(Exception ex) {
+        return unavailable("Database is busy; retry shortly");
+    }
+
     /**
      * Handle validation errors (e.g. invalid request payloads).
      * Maps to a 400 response.
@@ -44,6 +84,15 @@ public class ErrorHandler {
         return error("BAD_REQUEST", ex.getBindingResult().toString(), HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handle request parameters of the wrong type (e.g. a malformed date or rating).
+     * Maps to a 400 response.
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<Map<String,Object>> badRequest(MethodArgumentTypeMismatchException ex) {
+        return error("BAD_REQUEST", "Invalid value for parameter '" + ex.getName() + "'", HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Handle bad input from client code.
      * Maps to a 400 response.
@@ -66,9 +115,29 @@ public class ErrorHandler {
      * Small helper to build a consistent JSON error response.
      */
     private ResponseEntity<Map<String,Object>> error(String code, String msg, HttpStatus status) {
+        return new ResponseEntity<>(body(code, msg), status);
+    }
+
+    /**
+     * 503 with the configured Retry-After, the same one {@link AdmissionControlFilter} sends
+     * when it sheds a request.
+     */
+    private ResponseEntity<Map<String,Object>> unavailable(String msg) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, retryAfter(admission))
+                .body(body("SERVICE_UNAVAILABLE", msg));
+    }
+
+    /** Error body: {@code error} code and {@code message}. */
+    static Map<String,Object> body(String code, String msg) {
         Map<String,Object> body = new HashMap<>();
         body.put("error", code);
         body.put("message", msg);
-        return new ResponseEntity<>(body, status);
+        return body;
+    }
+
+    /** Retry-After header value for 503 responses. */
+    static String retryAfter(AdmissionProperties admission) {
+        return String.valueOf(admission.getRetryAfterSeconds());
     }
 }
@@ -1,45 +1,84 @@
 package com.example.reviews.api;
 
+import com.example.reviews.model.dto.ChangeFeedDto;
+import com.example.reviews.model.dto.DeleteJobDto;
 import com.example.reviews.model.dto.PaginationDto;
 import com.example.reviews.model.dto.ReviewDto;
+import com.example.reviews.model.dto.ReviewQuery;
+import com.example.reviews.service.BulkDeleteService;
+import com.example.reviews.service.ChangeFeedService;
+import com.example.reviews.service.ChangeStreamService;
+import com.example.reviews.service.CoalescingReviewService;
 import com.example.reviews.service.ReviewService;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.net.URI;
+import java.time.LocalDate;
 
 /**
  * REST controller for accessing and managing reviews.
  *
- * Exposes three endpoints:
- * - GET /reviews        → search reviews with optional filters + pagination
+ * Exposes these endpoints:
+ * - GET /reviews        → search reviews with optional filters, sort + pagination
  * - GET /reviews/{id}   → fetch a single review by its ID
  * - DELETE /reviews/{id} → remove a review by its ID
+ * - DELETE /reviews?source=&tag=&before= → start a background delete-by-filter job
+ * - GET /reviews/jobs/{id}    → progress of that job; DELETE on it cancels
+ * - GET /reviews/changes        → inserts/updates/deletes since a cursor
+ * - GET /reviews/changes/stream → same, pushed as Server-Sent Events
  *
- * This controller is thin: all logic lives in ReviewService.
+ * This controller is thin: all logic lives in the services.
  */
 @RestController
 @RequestMapping("/reviews")
 public class ReviewsController {
 
     private final ReviewService reviewService;
+    private final CoalescingReviewService reads;     // identical concurrent reads share one query
+    private final ChangeFeedService changeFeedService;
+    private final ChangeStreamService changeStreamService;
+    private final BulkDeleteService bulkDeleteService;
 
-    public ReviewsController(ReviewService reviewService) {
+    public ReviewsController(ReviewService reviewService,
+                             CoalescingReviewService reads,
+                             ChangeFeedService changeFeedService,
+                             ChangeStreamService changeStreamService,
+                             BulkDeleteService bulkDeleteService) {
         this.reviewService = reviewService;
+        this.reads = reads;
+        this.bulkDeleteService = bulkDeleteService;
+        this.changeFeedService = changeFeedService;
+        this.changeStreamService = changeStreamService;
     }
 
     /**
      * List/search reviews with optional filters.
-     * Only "source" and "tag" are supported filters in this version.
+     * Filters: "source", "tag", rating range ("minRating"/"maxRating", 1–5, inclusive) and
+     * review date range ("from"/"to", ISO dates, inclusive days).
+     * Sort: "sort=createdAt|reviewDate|rating[,asc|desc]", default newest createdAt first.
+     * Combinations no index can serve are rejected with 400 (see ReviewQueryPlanner).
      * Clients send 1-based page numbers; we keep that consistent here.
      */
     @GetMapping
     public PaginationDto<ReviewDto> list(
             @RequestParam(required = false) String source,
             @RequestParam(required = false) String tag,
+            @RequestParam(required = false) Integer minRating,
+            @RequestParam(required = false) Integer maxRating,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String sort,
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int size
     ) {
-        Page<ReviewDto> p = reviewService.search(source, tag, page, size);
+        ReviewQuery query = ReviewQuery.of(source, tag, minRating, maxRating, from, to, sort);
+        Page<ReviewDto> p = reads.search(query, page, size);
 
         return new PaginationDto<>(
                 page,                       // 1-based page (matches client expectations)
@@ -56,7 +95,7 @@ public class ReviewsController {
      */
     @GetMapping("/{id}")
     public ReviewDto get(@PathVariable Long id) {
-        return reviewService.get(id);
+        return reads.get(id);
     }
 
     /**
@@ -68,4 +107,63 @@ public class ReviewsController {
     public void delete(@PathVariable Long id) {
         reviewService.delete(id);
     }
+
+    /**
+     * Delete every review matching the filters, as a background job.
+     * At least one filter is required; {@code before} matches review dates strictly before that day.
+     * Returns 202 Accepted with the job status and its URL in {@code Location}.
+     */
+    @DeleteMapping
+    public ResponseEntity<DeleteJobDto> deleteMatching(
+            @RequestParam(required = false) String source,
+            @RequestParam(required = false) String tag,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate before
+    ) {
+        DeleteJobDto job = bulkDeleteService.start(source, tag, before);
+        return ResponseEntity.accepted()
+                .location(URI.create("/reviews/jobs/" + job.id()))
+                .body(job);
+    }
+
+    /**
+     * Progress of a delete job (404 once it has aged out of the retained history).
+     */
+    @GetMapping("/jobs/{jobId}")
+    public DeleteJobDto job(@PathVariable String jobId) {
+        return bulkDeleteService.get(jobId);
+    }
+
+    /**
+     * Cancel a delete job; rows already deleted stay deleted.
+     */
+    @DeleteMapping("/jobs/{jobId}")
+    public DeleteJobDto cancelJob(@PathVariable String jobId) {
+        return bulkDeleteService.cancel(jobId);
+    }
+
+    /**
+     * Changes since an opaque cursor, oldest first, in bounded batches.
+     * Omit {@code since} to start from the beginning; keep calling with {@code nextCursor}
+     * while {@code hasMore} is true, then poll (or use the stream endpoint).
+     */
+    @GetMapping("/changes")
+    public ChangeFeedDto changes(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return changeFeedService.changes(since, limit);
+    }
+
+    /**
+     * Long-poll variant: an SSE stream of {@code changes} events until it times out.
+     * The event id is the cursor to resume from ({@code Last-Event-ID} also works).
+     */
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(required = false) String since,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return changeStreamService.stream((since != null) ? since : lastEventId, limit);
+    }
 }
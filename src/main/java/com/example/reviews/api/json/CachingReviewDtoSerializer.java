@@ -0,0 +1,85 @@
+package com.example.reviews.api.json;
+
+import com.example.reviews.model.dto.ReviewDto;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.json.UTF8JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Wraps Jackson’s regular bean serializer for {@link ReviewDto}.
+ *
+ * Hit: the cached UTF-8 bytes are written as a raw value (inside whatever envelope is being
+ * written, e.g. {@code PaginationDto.items}). Miss: the review is serialized once with the
+ * regular serializer into a private buffer, cached, and then written the same way.
+ * DTOs without an id or {@code updatedAt} can’t be versioned and bypass the cache.
+ *
+ * Only UTF-8 byte generators (what Spring MVC writes responses with) get the cached bytes:
+ * a char-based generator ({@code writeValueAsString}) writes some characters differently,
+ * e.g. emoji as themselves where the UTF-8 generator escapes the surrogate pair.
+ */
+final class CachingReviewDtoSerializer extends StdSerializer<ReviewDto>
+        implements ContextualSerializer, ResolvableSerializer {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private final JsonSerializer<Object> delegate;
+    private final ReviewJsonCache cache;
+
+    CachingReviewDtoSerializer(JsonSerializer<Object> delegate, ReviewJsonCache cache) {
+        super(ReviewDto.class);
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public void serialize(ReviewDto dto, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (dto.getId() == null || dto.getUpdatedAt() == null || !(gen instanceof UTF8JsonGenerator)) {
+            delegate.serialize(dto, gen, provider);
+            return;
+        }
+
+        byte[] json = cache.get(dto.getId(), dto.getUpdatedAt());
+        if (json == null) {
+            json = encode(dto, provider);
+            cache.put(dto.getId(), dto.getUpdatedAt(), json);
+        }
+        gen.writeRawValue(new PreEncodedJson(json));
+    }
+
+    private byte[] encode(ReviewDto dto, SerializerProvider provider) throws IOException {
+        try (ByteArrayBuilder buf = new ByteArrayBuilder(512)) {
+            try (JsonGenerator g = FACTORY.createGenerator(buf)) {
+                delegate.serialize(dto, g, provider);
+            }
+            return buf.toByteArray();
+        }
+    }
+
+    @Override
+    public void resolve(SerializerProvider provider) throws JsonMappingException {
+        if (delegate instanceof ResolvableSerializer) {
+            ((ResolvableSerializer) delegate).resolve(provider);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+            throws JsonMappingException {
+        if (delegate instanceof ContextualSerializer) {
+            JsonSerializer<?> ctx = ((ContextualSerializer) delegate).createContextual(provider, property);
+            if (ctx != delegate) return new CachingReviewDtoSerializer((JsonSerializer<Object>) ctx, cache);
+        }
+        return this;
+    }
+}
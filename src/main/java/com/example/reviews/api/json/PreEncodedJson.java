@@ -0,0 +1,101 @@
+package com.example.reviews.api.json;
+
+import com.fasterxml.jackson.core.SerializableString;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A JSON value that is already encoded as UTF-8 bytes.
+ *
+ * Handed to {@code JsonGenerator.writeRawValue(SerializableString)}: the UTF-8 generator
+ * Spring MVC writes responses with copies {@link #appendUnquotedUTF8} straight into its
+ * output buffer, so a cached review costs a memcpy instead of a full serialization.
+ * The char-based methods exist for completeness; {@link CachingReviewDtoSerializer} doesn't
+ * hand the bytes to char-based generators.
+ */
+final class PreEncodedJson implements SerializableString {
+
+    private final byte[] utf8;
+    private String value;       // decoded lazily, only if a char-based generator asks
+
+    PreEncodedJson(byte[] utf8) {
+        this.utf8 = utf8;
+    }
+
+    @Override
+    public String getValue() {
+        if (value == null) value = new String(utf8, StandardCharsets.UTF_8);
+        return value;
+    }
+
+    @Override
+    public int charLength() {
+        return getValue().length();
+    }
+
+    @Override
+    public char[] asQuotedChars() {
+        return getValue().toCharArray();
+    }
+
+    @Override
+    public byte[] asUnquotedUTF8() {
+        return utf8;
+    }
+
+    @Override
+    public byte[] asQuotedUTF8() {
+        return utf8;
+    }
+
+    @Override
+    public int appendQuotedUTF8(byte[] buffer, int offset) {
+        return appendUnquotedUTF8(buffer, offset);
+    }
+
+    @Override
+    public int appendQuoted(char[] buffer, int offset) {
+        return appendUnquoted(buffer, offset);
+    }
+
+    @Override
+    public int appendUnquotedUTF8(byte[] buffer, int offset) {
+        if (offset + utf8.length > buffer.length) return -1;   // generator falls back to asUnquotedUTF8()
+        System.arraycopy(utf8, 0, buffer, offset, utf8.length);
+        return utf8.length;
+    }
+
+    @Override
+    public int appendUnquoted(char[] buffer, int offset) {
+        String s = getValue();
+        if (offset + s.length() > buffer.length) return -1;
+        s.getChars(0, s.length(), buffer, offset);
+        return s.length();
+    }
+
+    @Override
+    public int writeQuotedUTF8(OutputStream out) throws IOException {
+        return writeUnquotedUTF8(out);
+    }
+
+    @Override
+    public int writeUnquotedUTF8(OutputStream out) throws IOException {
+        out.write(utf8);
+        return utf8.length;
+    }
+
+    @Override
+    public int putQuotedUTF8(ByteBuffer buffer) {
+        return putUnquotedUTF8(buffer);
+    }
+
+    @Override
+    public int putUnquotedUTF8(ByteBuffer buffer) {
+        if (buffer.remaining() < utf8.length) return -1;
+        buffer.put(utf8);
+        return utf8.length;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.reviews.api.json;
+
+import com.example.reviews.event.ReviewsDeletedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Review id → pre-encoded JSON bytes of its {@code ReviewDto}.
+ *
+ * Invalidation:
+ * - Every entry remembers the {@code updated_at} it was encoded from; a lookup with a
+ *   different {@code updated_at} is a miss, so an upsert that changed the row re-encodes it.
+ * - Deletes evict the id (after commit).
+ *
+ * Bounded by total payload bytes; when full, arbitrary entries are dropped until we are
+ * back under 90% of the budget. Cheap and good enough: hot reviews are re-encoded on their
+ * next read and stay.
+ */
+public class ReviewJsonCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewJsonCache.class);
+
+    private static final int ENTRY_OVERHEAD = 64;   // map node + entry + array header, roughly
+
+    private record Entry(long version, byte[] json) {}
+
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong bytes = new AtomicLong();
+    private final long maxBytes;
+
+    public ReviewJsonCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /** @return cached JSON for this exact version of the review, or null */
+    public byte[] get(long id, LocalDateTime updatedAt) {
+        Entry e = entries.get(id);
+        return (e != null && e.version == version(updatedAt)) ? e.json : null;
+    }
+
+    public void put(long id, LocalDateTime updatedAt, byte[] json) {
+        Entry previous = entries.put(id, new Entry(version(updatedAt), json));
+        long delta = json.length + ENTRY_OVERHEAD - ((previous == null) ? 0 : previous.json.length + ENTRY_OVERHEAD);
+        if (bytes.addAndGet(delta) > maxBytes) shrink();
+    }
+
+    public void evict(long id) {
+        Entry previous = entries.remove(id);
+        if (previous != null) bytes.addAndGet(-(previous.json.length + ENTRY_OVERHEAD));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDeleted(ReviewsDeletedEvent event) {
+        for (Long id : event.ids()) {
+            if (id != null) evict(id);
+        }
+    }
+
+    private void shrink() {
+        long target = maxBytes * 9 / 10;
+        Iterator<Long> it = entries.keySet().iterator();
+        while (bytes.get() > target && it.hasNext()) {
+            evict(it.next());
+        }
+        log.debug("JSON cache shrunk to {} bytes ({} entries)", bytes.get(), entries.size());
+    }
+
+    private static long version(LocalDateTime updatedAt) {
+        return updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + updatedAt.getNano();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.reviews.api.json;
+
+import com.example.reviews.config.ReadProperties;
+import com.example.reviews.model.dto.ReviewDto;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the pre-serialized review JSON cache ({@code reviews.read.json-cache.enabled=true}).
+ *
+ * Spring Boot registers every Jackson {@link Module} bean with the application ObjectMapper,
+ * so the controllers stay unchanged: list and get responses keep their shape, only the
+ * {@code ReviewDto} parts are written from cached bytes.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "reviews.read.json-cache", name = "enabled", havingValue = "true")
+public class ReviewJsonCacheConfig {
+
+    @Bean
+    public ReviewJsonCache reviewJsonCache(ReadProperties props) {
+        return new ReviewJsonCache(props.getJsonCache().getMaxBytes());
+    }
+
+    @Bean
+    public Module reviewJsonCacheModule(ReviewJsonCache cache) {
+        SimpleModule module = new SimpleModule("review-json-cache");
+        module.setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public JsonSerializer<?> modifySerializer(SerializationConfig config,
+                                                      BeanDescription desc,
+                                                      JsonSerializer<?> serializer) {
+                if (ReviewDto.class.equals(desc.getBeanClass())) {
+                    return new CachingReviewDtoSerializer((JsonSerializer<Object>) serializer, cache);
+                }
+                return serializer;
+            }
+        });
+        return module;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.reviews.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Admission control (load shedding) for the REST endpoints.
+ * Values are bound from application.yml/properties using prefix "reviews.admission".
+ * Example: reviews.admission.enabled, reviews.admission.endpoints.list.max-limit
+ *
+ * Endpoint names: list (GET /reviews), get (GET /reviews/{id}), delete (DELETE /reviews/{id}),
+ * changes (GET /reviews/changes). An endpoint without an entry uses {@link #defaults}.
+ */
+
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "reviews.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = false;
+
+    /** Value of the Retry-After header on 503 responses. */
+    private int retryAfterSeconds = 1;
+
+    private Limits defaults = new Limits();
+
+    /** Per-endpoint overrides (each entry is complete; unset fields take the Limits defaults). */
+    private Map<String, Limits> endpoints = new HashMap<>();
+
+    public Limits limitsFor(String endpoint) {
+        return endpoints.getOrDefault(endpoint, defaults);
+    }
+
+    /** Adaptive limit bounds and the wait queue in front of it. */
+    @Setter
+    @Getter
+    public static class Limits {
+        private int initialLimit = 20;
+        private int minLimit = 2;
+        private int maxLimit = 200;
+
+        /** Requests allowed to wait for a slot; anything beyond is rejected at once. */
+        private int queueSize = 50;
+
+        /** How long a queued request waits for a slot before it is rejected. */
+        private long maxWaitMs = 50;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.reviews.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Background delete-by-filter jobs (DELETE /reviews?source=&tag=&before=).
+ * Values are bound from application.yml/properties using prefix "reviews.bulk-delete".
+ * Example: reviews.bulk-delete.window-size, reviews.bulk-delete.pause-ms
+ */
+
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "reviews.bulk-delete")
+public class BulkDeleteProperties {
+    /** Ids per primary-key window; one short transaction each, bounds what is scanned and locked. */
+    private int windowSize = 5_000;
+
+    /** Pause after a window that deleted rows, so imports, reads and replication keep up. */
+    private long pauseMs = 100;
+
+    /** Finished jobs kept for status queries (in memory; oldest dropped first). */
+    private int retainJobs = 100;
+}
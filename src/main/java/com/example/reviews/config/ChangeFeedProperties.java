@@ -0,0 +1,35 @@
+package com.example.reviews.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Change feed (GET /reviews/changes) settings.
+ * Values are bound from application.yml/properties using prefix "reviews.changes".
+ * Example: reviews.changes.max-batch, reviews.changes.tombstone-retention-days
+ */
+
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "reviews.changes")
+public class ChangeFeedProperties {
+    private int defaultBatch = 100;
+    private int maxBatch = 1_000;
+
+    /** SSE mode: how often we look for new changes, and how long one stream stays open. */
+    private long pollIntervalMs = 1_000;
+    private long streamTimeoutMs = 30_000;
+
+    /**
+     * Tombstones older than this are pruned (0 = keep forever). A consumer whose cursor is older
+     * than the newest pruned tombstone gets 410 and has to resync from scratch.
+     */
+    private int tombstoneRetentionDays = 30;
+
+    /** Pruning runs this often, deleting prune-chunk-size tombstones per transaction. */
+    private long pruneIntervalMs = 60 * 60 * 1000L;
+    private int pruneChunkSize = 1_000;
+}
@@ -0,0 +1,51 @@
+package com.example.reviews.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tuning for the importer’s write path.
+ * Values are bound from application.yml/properties using prefix "reviews.import".
+ * Example: reviews.import.parallelism, reviews.import.max-connections, reviews.import.sweep.enabled
+ */
+
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "reviews.import")
+public class ImportProperties {
+    /**
+     * Number of writer lanes; rows are split by hash of (source, external_id), each lane
+     * writes on its own connection and transaction. 1 keeps the original single batch per page.
+     */
+    private int parallelism = 1;
+
+    /**
+     * Max DB connections held by import work at once (writer lanes + deletion sweep), so a
+     * running import leaves the rest of the pool to API reads. Lanes beyond this wait their turn.
+     */
+    private int maxConnections = 2;
+
+    private Sweep sweep = new Sweep();
+
+    /** Removal of reviews that disappeared upstream (generation mark-and-sweep). */
+    @Setter
+    @Getter
+    public static class Sweep {
+        private boolean enabled = false;
+
+        /**
+         * Abort the sweep for a source if it would delete more than this share of its rows.
+         * A sudden large drop usually means a truncated upstream response, not mass deletion.
+         */
+        private double maxDeleteRatio = 0.10;
+
+        /** Rows per delete statement/transaction; keeps lock time short. */
+        private int chunkSize = 1_000;
+
+        /** Pause between chunks so reads and replication can keep up. */
+        private long pauseMs = 50;
+    }
+}
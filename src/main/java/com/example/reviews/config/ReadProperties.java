@@ -0,0 +1,56 @@
+package com.example.reviews.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Options for the read path (GET /reviews, GET /reviews/{id}).
+ * Values are bound from application.yml/properties using prefix "reviews.read".
+ * Example: reviews.read.model.enabled, reviews.read.json-cache.max-bytes, reviews.read.coalescing.enabled
+ */
+
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "reviews.read")
+public class ReadProperties {
+
+    private Model model = new Model();
+    private JsonCache jsonCache = new JsonCache();
+    private Coalescing coalescing = new Coalescing();
+
+    /**
+     * What to do with a GET /reviews filter/sort combination that no index serves
+     * (see ReviewQueryPlanner): REJECT answers 400, WARN runs it and logs a warning.
+     */
+    private UnindexedQueries unindexedQueries = UnindexedQueries.REJECT;
+
+    public enum UnindexedQueries { REJECT, WARN }
+
+    /** In-memory columnar read model answering list/filter queries. */
+    @Setter
+    @Getter
+    public static class Model {
+        private boolean enabled = false;
+    }
+
+    /** Pre-serialized ReviewDto JSON, reused until the review’s updated_at changes. */
+    @Setter
+    @Getter
+    public static class JsonCache {
+        private boolean enabled = false;
+        private long maxBytes = 64L * 1024 * 1024;
+    }
+
+    /** Identical concurrent reads share one DB execution. */
+    @Setter
+    @Getter
+    public static class Coalescing {
+        private boolean enabled = false;
+
+        /** How long a request waits for a query someone else started before answering 503. */
+        private long timeoutMs = 5_000;
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.reviews.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to healthy replicas (round-robin) and everything else to the primary.
+ *
+ * Routing rules:
+ * - No transaction, or a read-write transaction (importer, deletes) → primary.
+ * - {@code @Transactional(readOnly = true)} → next healthy replica.
+ * - No healthy replica, or inside the read-your-writes window → primary.
+ *
+ * The decision is made when the physical connection is fetched, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}; otherwise the
+ * JPA transaction manager grabs a connection before the read-only flag is visible.
+ *
+ * Health: every replica is probed on a fixed interval with {@code Connection.isValid} and the
+ * optional lag query. Failing or lagging replicas leave the rotation until the next good probe.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final ReplicaProperties props;
+    private final ReadYourWritesTracker tracker;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthChecks;
+
+    public ReadWriteRoutingDataSource(HikariDataSource primary,
+                                      List<HikariDataSource> replicaPools,
+                                      ReplicaProperties props,
+                                      ReadYourWritesTracker tracker) {
+        this.primary = primary;
+        this.props = props;
+        this.tracker = tracker;
+
+        this.replicas = new ArrayList<>(replicaPools.size());
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (HikariDataSource ds : replicaPools) {
+            Replica r = new Replica(ds.getPoolName(), ds);
+            replicas.add(r);
+            targets.put(r.name, ds);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        this.healthChecks = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread t = new Thread(runnable, "replica-health");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(100, props.getHealthCheckIntervalMs());
+        healthChecks.scheduleWithFixedDelay(this::checkReplicas, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) return PRIMARY;
+        if (tracker.pinnedToPrimary()) return PRIMARY;
+
+        // Round-robin over the replicas that passed their last probe
+        int n = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(1, n));
+        for (int i = 0; i < n; i++) {
+            Replica r = replicas.get((start + i) % n);
+            if (r.healthy) return r.name;
+        }
+        return PRIMARY;
+    }
+
+    /** Probe every replica once; updates rotation and the worst observed lag. */
+    void checkReplicas() {
+        long worstLagMs = 0;
+        for (Replica r : replicas) {
+            boolean ok;
+            long lagMs = 0;
+            try (Connection c = r.pool.getConnection()) {
+                ok = c.isValid(2);
+                if (ok && props.getLagQuery() != null && !props.getLagQuery().isBlank()) {
+                    lagMs = queryLagMs(c);
+                    ok = lagMs <= TimeUnit.SECONDS.toMillis(props.getMaxLagSeconds());
+                }
+            } catch (Exception ex) {
+                ok = false;
+                log.debug("Replica {} probe failed: {}", r.name, ex.getMessage());
+            }
+            if (ok) worstLagMs = Math.max(worstLagMs, lagMs);
+            if (ok != r.healthy) {
+                log.warn("Replica {} is now {} (lagMs={})", r.name, ok ? "IN rotation" : "OUT of rotation", lagMs);
+            }
+            r.healthy = ok;
+        }
+        tracker.reportObservedLag(worstLagMs);
+    }
+
+    private long queryLagMs(Connection c) throws Exception {
+        try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery(props.getLagQuery())) {
+            if (!rs.next()) return 0;
+            double seconds = rs.getDouble(1);
+            return rs.wasNull() ? Long.MAX_VALUE : (long) (seconds * 1000);   // NULL lag = replication stopped
+        }
+    }
+
+    /** The pool all writes go to (e.g. for sizing decisions that concern write work). */
+    public HikariDataSource primary() {
+        return primary;
+    }
+
+    @Override
+    public void close() {
+        healthChecks.shutdownNow();
+        for (Replica r : replicas) r.pool.close();
+        primary.close();
+    }
+
+    private static final class Replica {
+        final String name;
+        final HikariDataSource pool;
+        volatile boolean healthy = false;   // stays out of rotation until the first probe passes
+
+        Replica(String name, HikariDataSource pool) {
+            this.name = name;
+            this.pool = pool;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.reviews.config;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Remembers when we last wrote to the primary so reads can stick to it for a moment.
+ *
+ * Why: a client that deletes a review and immediately lists reviews would otherwise hit a
+ * replica that hasn’t applied the delete yet and see the row again. While inside the
+ * window (configured window, stretched by the worst replica lag we have observed) the
+ * routing datasource sends read-only transactions to the primary too.
+ *
+ * Always present and cheap; it only has an effect when replica routing is enabled.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private final long windowMs;
+
+    private volatile long lastWriteAtMs;     // wall clock of the last committed write we know of
+    private volatile long observedLagMs;     // updated by the replica health checks
+
+    public ReadYourWritesTracker(ReplicaProperties props) {
+        this.windowMs = Math.max(0, props.getReadYourWritesWindowMs());
+    }
+
+    /**
+     * Record a write. If a transaction is active, the window starts when it commits
+     * (replication can’t start earlier); otherwise it starts now.
+     */
+    public void recordWrite() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    lastWriteAtMs = System.currentTimeMillis();
+                }
+            });
+        } else {
+            lastWriteAtMs = System.currentTimeMillis();
+        }
+    }
+
+    /** True while reads should stay on the primary. */
+    public boolean pinnedToPrimary() {
+        long window = Math.max(windowMs, observedLagMs);
+        return System.currentTimeMillis() - lastWriteAtMs < window;
+    }
+
+    void reportObservedLag(long lagMs) {
+        this.observedLagMs = Math.max(0, lagMs);
+    }
+}
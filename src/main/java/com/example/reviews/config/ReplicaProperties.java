@@ -0,0 +1,50 @@
+package com.example.reviews.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Optional read replicas for {@code @Transactional(readOnly = true)} work.
+ * Values are bound from application.yml/properties using prefix "reviews.replicas".
+ * Example: reviews.replicas.enabled, reviews.replicas.nodes[0].url, reviews.replicas.max-lag-seconds
+ *
+ * When disabled (the default) everything keeps using the single datasource from
+ * {@code SPRING_DATASOURCE_URL}, exactly as before.
+ */
+
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "reviews.replicas")
+public class ReplicaProperties {
+    private boolean enabled = false;
+    private List<Node> nodes = new ArrayList<>();
+
+    /** How often each replica is probed (connection validity + optional lag query). */
+    private long healthCheckIntervalMs = 5_000;
+
+    /**
+     * Optional query returning replica lag in seconds as a single number, e.g. a heartbeat table:
+     * {@code SELECT TIMESTAMPDIFF(SECOND, ts, UTC_TIMESTAMP()) FROM heartbeat}. Unset → lag treated as 0.
+     */
+    private String lagQuery;
+
+    /** Replicas lagging more than this are taken out of rotation until they catch up. */
+    private long maxLagSeconds = 10;
+
+    /** After a write (e.g. a delete), reads stay on the primary for at least this long. */
+    private long readYourWritesWindowMs = 2_000;
+
+    @Setter
+    @Getter
+    public static class Node {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.reviews.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wires the read/write routing datasource when {@code reviews.replicas.enabled=true}.
+ *
+ * - The primary pool is still built from the regular {@code spring.datasource.*} settings,
+ *   including the pool tuning under {@code spring.datasource.hikari.*} (size, timeouts, ...).
+ * - One Hikari pool per configured replica node.
+ * - Everything (JPA, JdbcTemplate, the importer) sees a single {@link DataSource}; routing
+ *   is decided per transaction, see {@link ReadWriteRoutingDataSource}.
+ *
+ * Replica nodes are plain JDBC URLs, so two embedded databases (e.g. {@code jdbc:h2:mem:primary}
+ * and {@code jdbc:h2:mem:replica}) are enough to exercise the routing locally.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "reviews.replicas", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    /** Same binding Boot's own Hikari auto-configuration applies to the single-datasource setup. */
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties primaryProps) {
+        HikariDataSource primary = primaryProps.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(HikariDataSource primary,
+                                                        ReplicaProperties replicaProps,
+                                                        ReadYourWritesTracker tracker) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        int i = 0;
+        for (ReplicaProperties.Node node : replicaProps.getNodes()) {
+            HikariDataSource ds = new HikariDataSource();
+            ds.setJdbcUrl(node.getUrl());
+            ds.setUsername(node.getUsername());
+            ds.setPassword(node.getPassword());
+            ds.setPoolName("replica-" + (i++));
+            ds.setReadOnly(true);
+            replicas.add(ds);
+        }
+        return new ReadWriteRoutingDataSource(primary, replicas, replicaProps, tracker);
+    }
+
+    /** Lazy proxy so the routing key is read after the transaction’s read-only flag is set. */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
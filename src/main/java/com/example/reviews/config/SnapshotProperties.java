@@ -0,0 +1,39 @@
+package com.example.reviews.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Local snapshot files for bootstrapping an environment without paging the whole upstream.
+ * Values are bound from application.yml/properties using prefix "reviews.snapshot".
+ * Example: reviews.snapshot.import-file=/data/reviews.ndjson.gz
+ */
+
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "reviews.snapshot")
+public class SnapshotProperties {
+    /**
+     * Snapshot to load at startup. NDJSON ({@code .ndjson}/{@code .jsonl}) or the upstream
+     * envelope ({@code {"reviews":[...]}}, any other name); gzip is detected from the content.
+     */
+    private String importFile;
+
+    /** Write all rows from the DB to this file at startup (NDJSON, gzip if it ends in {@code .gz}). */
+    private String exportFile;
+
+    /** Don’t page the upstream at startup (e.g. when the snapshot is recent enough). */
+    private boolean skipUpstream = false;
+
+    /** Stop the application once the snapshot import/export is done (one-shot command). */
+    private boolean exitAfter = false;
+
+    /** Rows handed to the writer at a time. */
+    private int batchSize = 2_000;
+
+    /** Size of each memory-mapped window while reading the file. */
+    private long mapWindowBytes = 64L * 1024 * 1024;
+}
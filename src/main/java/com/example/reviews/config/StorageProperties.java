@@ -0,0 +1,34 @@
+package com.example.reviews.config;
+
+import com.example.reviews.util.ContentCodec;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Physical storage options for the {@code reviews} table.
+ * Values are bound from application.yml/properties using prefix "reviews.storage".
+ * Example: reviews.storage.partition-by-source, reviews.storage.partitions, reviews.storage.compress-content
+ */
+
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "reviews.storage")
+public class StorageProperties {
+    /** Hash-partition {@code reviews} by {@code source} (MySQL {@code PARTITION BY KEY}). Off by default. */
+    private boolean partitionBySource = false;
+
+    /** Number of KEY partitions; only used when the table is partitioned for the first time. */
+    private int partitions = 8;
+
+    /**
+     * Store review content compressed in {@code content_z} (deflate) instead of {@code content} (TEXT).
+     * Rows move to the new mode when they are next upserted.
+     */
+    private boolean compressContent = false;
+
+    /** Content shorter than this (UTF-8 bytes) is stored uncompressed, even in compressed mode. */
+    private int compressMinBytes = ContentCodec.DEFAULT_MIN_BYTES;
+}
@@ -0,0 +1,44 @@
+package com.example.reviews.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hot/cold tiering: old reviews move out of MySQL into compressed segment files on local disk.
+ * Values are bound from application.yml/properties using prefix "reviews.tiering".
+ * Example: reviews.tiering.enabled, reviews.tiering.cold-after-days, reviews.tiering.directory
+ */
+
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "reviews.tiering")
+public class TieringProperties {
+    /** Run the tiering job and serve cold reviews from segment files. Requires the read model. */
+    private boolean enabled = false;
+
+    /** Where segment files (and their deletion files) live. */
+    private String directory = "data/cold";
+
+    /** Reviews whose review_date is older than this many days move to the cold tier. */
+    private int coldAfterDays = 365;
+
+    /** Reviews per segment file; bounds the job's memory (rows are buffered while a segment is written). */
+    private int segmentRows = 50_000;
+
+    /** Reviews per compressed block; a cold read inflates one block. */
+    private int blockRows = 64;
+
+    /** Moved rows deleted from the hot table per transaction. */
+    private int deleteChunkSize = 1_000;
+
+    /** Pause between delete chunks, so imports, reads and replication keep up. */
+    private long pauseMs = 100;
+
+    /** First run after startup, then every interval-ms (measured from the end of the previous run). */
+    private long initialDelayMs = 60_000;
+
+    private long intervalMs = 6 * 60 * 60 * 1000L;
+}
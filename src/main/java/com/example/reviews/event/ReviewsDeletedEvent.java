@@ -0,0 +1,9 @@
+package com.example.reviews.event;
+
+import java.util.List;
+
+/**
+ * Published whenever reviews are removed (API delete, deletion sweep, ...).
+ * Lets derived state such as the in-memory read model drop the rows.
+ */
+public record ReviewsDeletedEvent(List<Long> ids) {}
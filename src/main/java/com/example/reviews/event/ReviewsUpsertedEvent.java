@@ -0,0 +1,19 @@
+package com.example.reviews.event;
+
+import java.util.List;
+
+/**
+ * Published by the bulk writer after a batch of reviews was inserted/updated.
+ * Carries the natural keys only; listeners re-read what they need once the batch has committed.
+ * {@code promotedColdIds} are reviews the batch brought back from the cold tier (same ids, now in
+ * MySQL); their cold copies are retired after commit.
+ */
+public record ReviewsUpsertedEvent(List<Key> keys, List<Long> promotedColdIds) {
+
+    public ReviewsUpsertedEvent(List<Key> keys) {
+        this(keys, List.of());
+    }
+
+    /** Natural key of a review: {@code (source, external_id)}. */
+    public record Key(String source, String externalId) {}
+}
@@ -0,0 +1,19 @@
+package com.example.reviews.model.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the change feed.
+ * UPSERT carries the current review; DELETE carries only the identity of the removed one.
+ */
+
+public record ChangeDto(
+        Type type,                 // UPSERT or DELETE
+        Long id,                   // our review id
+        String source,             // upstream identity (source, externalId)
+        String externalId,
+        LocalDateTime changedAt,   // updated_at for upserts, deleted_at for deletes
+        ReviewDto review           // null for deletes
+) {
+    public enum Type { UPSERT, DELETE }
+}
@@ -0,0 +1,14 @@
+package com.example.reviews.model.dto;
+
+import java.util.List;
+
+/**
+ * One batch of the change feed.
+ * Pass {@code nextCursor} as {@code since} on the next call; it never goes backwards.
+ */
+
+public record ChangeFeedDto(
+        List<ChangeDto> changes,   // oldest first
+        String nextCursor,         // opaque; resume point after this batch
+        boolean hasMore            // true → call again right away, false → caught up
+) {}
@@ -0,0 +1,22 @@
+package com.example.reviews.model.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Status of a delete-by-filter job, as returned by DELETE /reviews and GET /reviews/jobs/{id}.
+ */
+
+public record DeleteJobDto(
+        String id,
+        String status,              // QUEUED, RUNNING, COMPLETED, CANCELLED, FAILED
+        String source,              // filters as given (null = not filtered)
+        String tag,
+        LocalDate before,           // review_date strictly before this day
+        long deleted,               // rows deleted so far
+        double progress,            // 0..1, share of the cold rows and id range already processed
+        LocalDateTime createdAt,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        String error                // failure message, FAILED only
+) {}
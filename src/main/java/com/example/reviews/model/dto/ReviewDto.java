@@ -1,5 +1,6 @@
 package com.example.reviews.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Value;
 import lombok.Builder;
 import java.time.LocalDateTime;
@@ -18,4 +19,8 @@ public class ReviewDto {
     String content;
     LocalDateTime reviewDate;
     String tag;
+
+    // Not part of the API payload; versions the pre-serialized JSON cache.
+    @JsonIgnore
+    LocalDateTime updatedAt;
 }
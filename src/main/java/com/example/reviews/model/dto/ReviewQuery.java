@@ -0,0 +1,133 @@
+package com.example.reviews.model.dto;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Filters and sort of one {@code GET /reviews} request, validated and normalized.
+ *
+ * - Blank strings mean "no filter"; values are trimmed.
+ * - Ratings are inclusive bounds (1–5). A rating or date bound excludes rows without that value.
+ * - Dates are whole days: {@code reviewedFrom} is the first included instant, {@code reviewedBefore}
+ *   the first excluded one (the day after the requested {@code to}).
+ * - Sorting always ends with {@code id} in the same direction, so pages are stable.
+ *
+ * Being a record, it is also the identity of the request (see request coalescing).
+ */
+public record ReviewQuery(
+        String source,
+        String tag,
+        Integer minRating,
+        Integer maxRating,
+        LocalDateTime reviewedFrom,
+        LocalDateTime reviewedBefore,
+        SortField sort,
+        Sort.Direction direction
+) {
+
+    /** Default: newest imports first (the original fixed order). */
+    public static final SortField DEFAULT_SORT = SortField.CREATED_AT;
+
+    /** Sortable fields: API name (= entity property) and column. */
+    public enum SortField {
+        CREATED_AT("createdAt", "created_at"),
+        REVIEW_DATE("reviewDate", "review_date"),
+        RATING("rating", "rating");
+
+        private final String property;
+        private final String column;
+
+        SortField(String property, String column) {
+            this.property = property;
+            this.column = column;
+        }
+
+        public String property() {
+            return property;
+        }
+
+        public String column() {
+            return column;
+        }
+
+        static SortField parse(String name) {
+            for (SortField f : values()) {
+                if (f.property.equalsIgnoreCase(name)) return f;
+            }
+            throw new IllegalArgumentException("Unsupported sort field '" + name
+                    + "' (use createdAt, reviewDate or rating)");
+        }
+    }
+
+    /** Only source/tag, default sort. */
+    public static ReviewQuery of(String source, String tag) {
+        return of(source, tag, null, null, null, null, null);
+    }
+
+    /**
+     * Validate raw request parameters.
+     *
+     * @param sort {@code field} or {@code field,asc|desc}; default {@code createdAt,desc}
+     * @throws IllegalArgumentException on out-of-range or inconsistent values (→ 400)
+     */
+    public static ReviewQuery of(String source, String tag,
+                                 Integer minRating, Integer maxRating,
+                                 LocalDate from, LocalDate to,
+                                 String sort) {
+        checkRating("minRating", minRating);
+        checkRating("maxRating", maxRating);
+        if (minRating != null && maxRating != null && minRating > maxRating) {
+            throw new IllegalArgumentException("minRating must not be greater than maxRating");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+
+        SortField field = DEFAULT_SORT;
+        Sort.Direction direction = Sort.Direction.DESC;
+        if (StringUtils.hasText(sort)) {
+            String[] parts = sort.trim().split(",", -1);
+            if (parts.length > 2) throw new IllegalArgumentException("sort must be 'field' or 'field,asc|desc'");
+            field = SortField.parse(parts[0].trim());
+            if (parts.length == 2) {
+                String dir = parts[1].trim().toUpperCase(Locale.ROOT);
+                if (!dir.equals("ASC") && !dir.equals("DESC")) {
+                    throw new IllegalArgumentException("sort direction must be asc or desc");
+                }
+                direction = Sort.Direction.valueOf(dir);
+            }
+        }
+
+        return new ReviewQuery(
+                trimToNull(source),
+                trimToNull(tag),
+                minRating,
+                maxRating,
+                (from != null) ? from.atStartOfDay() : null,
+                (to != null) ? to.plusDays(1).atStartOfDay() : null,
+                field,
+                direction);
+    }
+
+    public boolean hasRatingRange() {
+        return minRating != null || maxRating != null;
+    }
+
+    public boolean hasDateRange() {
+        return reviewedFrom != null || reviewedBefore != null;
+    }
+
+    private static void checkRating(String name, Integer value) {
+        if (value != null && (value < 1 || value > 5)) {
+            throw new IllegalArgumentException(name + " must be between 1 and 5");
+        }
+    }
+
+    private static String trimToNull(String value) {
+        return StringUtils.hasText(value) ? value.trim() : null;
+    }
+}
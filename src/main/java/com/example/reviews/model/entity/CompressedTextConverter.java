@@ -0,0 +1,27 @@
+package com.example.reviews.model.entity;
+
+import com.example.reviews.util.ContentCodec;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * Maps review text to the {@code content_z} column (see {@link ContentCodec} for the format).
+ *
+ * Reads are the important direction: JPA loads (search, get, change feed) decode here.
+ * Imports write through JDBC in {@code BulkReviewRepository}, which encodes with the configured
+ * threshold; JPA writes use the default threshold.
+ */
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(String text) {
+        return ContentCodec.encode(text, ContentCodec.DEFAULT_MIN_BYTES);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] stored) {
+        return ContentCodec.decode(stored);
+    }
+}
@@ -29,13 +29,44 @@ import java.time.LocalDateTime;
  *
  * - Text fields:
  *   • `content` uses `TEXT` so we don’t need to guess the max review size.
+ *   • With `reviews.storage.compress-content` the body goes to `content_z` instead (header byte +
+ *     deflate, short text raw) and `content` stays NULL; each row uses one of the two columns.
  *   • `tag`, `author`, etc. are capped with reasonable lengths to protect storage and indexing.
+ *
+ * - `import_generation` is stamped by every import run that sees the row upstream.
+ *   • After a complete run, rows of that source with an older generation were deleted upstream
+ *     and are swept (see ReviewSweepService). Indexed with `source` so the sweep is a range scan.
+ *
+ * - `(change_seq, id)` is indexed for the change feed (GET /reviews/changes).
+ *   • `change_seq` is a commit-ordered number taken at the end of the writing transaction
+ *     (see ChangeSequence); timestamps can't order the feed because they are taken before commit.
+ *   • The importer only moves `updated_at`/`change_seq` when a row’s data actually changed, so the
+ *     feed carries real changes only. Deletions are recorded in `review_tombstones`.
+ *
+ * - List/search indexes follow one shape: equality filters (source, tag) first, then the column
+ *   that is sorted on or range-filtered (created_at, review_date, rating), then id as tie-breaker.
+ *   • The query planner reads these annotations to decide whether a filter/sort combination is
+ *     served by an index; a new API filter needs a matching index here first.
+ *   • Only the default sort (created_at) gets an ordered index per equality filter. Sorting a
+ *     source/tag by review_date or rating narrows by that filter and sorts the matches instead:
+ *     review_date, rating and tag change on re-imports, and every index holding them is rewritten
+ *     by those upserts, so an index must be needed to avoid a scan, not just to skip a sort.
  */
 @Setter
 @Getter
 @Entity
 @Table(name = "reviews", uniqueConstraints = {
         @UniqueConstraint(name="uk_source_external", columnNames = {"source", "external_id"})
+}, indexes = {
+        @Index(name = "idx_source_generation", columnList = "source, import_generation"),
+        @Index(name = "idx_change_seq_id", columnList = "change_seq, id"),
+        // GET /reviews: equality filters first, then the sort (or range) column; see ReviewQueryPlanner
+        @Index(name = "idx_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_review_date_id", columnList = "review_date, id"),
+        @Index(name = "idx_rating_id", columnList = "rating, id"),
+        @Index(name = "idx_source_created_id", columnList = "source, created_at, id"),
+        @Index(name = "idx_tag_created_id", columnList = "tag, created_at, id"),
+        @Index(name = "idx_source_tag_created_id", columnList = "source, tag, created_at, id")
 })
 public class Review {
 
@@ -56,7 +87,11 @@ public class Review {
     private Integer rating; // optional star rating, validated between 1–5
 
     @Column(name = "content", columnDefinition = "TEXT")
-    private String content; // main review body
+    private String content; // main review body (plain storage mode)
+
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(name = "content_z", columnDefinition = "MEDIUMBLOB")
+    private String contentCompressed; // main review body (compressed storage mode), decoded by the converter
 
     @Column(name = "tag", length = 64)
     private String tag; // optional categorization/tag
@@ -70,5 +105,16 @@ public class Review {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt; // importer’s timestamp for last update
 
+    @Column(name = "change_seq", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long changeSeq; // change feed position (0 = written before the feed was commit-ordered)
+
+    @Column(name = "import_generation")
+    private Long importGeneration; // import run that last saw this row upstream (null = before sweeping existed)
+
     public Review() {}
+
+    /** Review body from whichever column this row uses (a row is written in one mode at a time). */
+    public String getContent() {
+        return (content != null) ? content : contentCompressed;
+    }
 }
@@ -0,0 +1,33 @@
+package com.example.reviews.model.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.*;
+
+/**
+ * Single-row counter behind the change feed's order (see {@code ChangeSequence}).
+ *
+ * - `seq` is the last `change_seq` handed out. Every writing transaction bumps it just before
+ *   committing and stamps its rows/tombstones with the new value. The bump locks this row until
+ *   commit, so transactions commit in `change_seq` order.
+ * - `pruned_tombstone_seq` is the highest `change_seq` of a tombstone removed by retention; a feed
+ *   cursor behind it may have missed deletes.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "review_change_seq")
+public class ReviewChangeCounter {
+
+    @Id
+    private Integer id; // always 1
+
+    @Column(name = "seq", nullable = false)
+    private Long seq;
+
+    @Column(name = "pruned_tombstone_seq", nullable = false)
+    private Long prunedTombstoneSeq;
+
+    public ReviewChangeCounter() {}
+}
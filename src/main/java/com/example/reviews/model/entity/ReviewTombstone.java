@@ -0,0 +1,62 @@
+package com.example.reviews.model.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Record of a deleted review, so the change feed can tell consumers to drop it.
+ *
+ * - One row per deleted review, written in the same transaction as the delete.
+ * - `(change_seq, id)` is indexed: the feed reads tombstones in that order, just like
+ *   it reads reviews. `(deleted_at, id)` serves retention (old tombstones are pruned).
+ *   The feed index is named apart from the reviews one: H2 (tests) keeps index names per schema.
+ * - We keep source + external id so consumers that key on the upstream identity can
+ *   apply the delete without knowing our internal id.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "review_tombstones", indexes = {
+        @Index(name = "idx_tomb_change_seq_id", columnList = "change_seq, id"),
+        @Index(name = "idx_deleted_id", columnList = "deleted_at, id")
+})
+public class ReviewTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id; // feed position within the same change_seq
+
+    @Column(name = "review_id", nullable = false)
+    private Long reviewId; // id the review had in `reviews`
+
+    @Column(name = "source", nullable = false, length = 32)
+    private String source;
+
+    @Column(name = "external_id", nullable = false, length = 64)
+    private String externalId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    @Column(name = "change_seq", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long changeSeq; // commit-ordered feed position, see ChangeSequence
+
+    public ReviewTombstone() {}
+
+    public static ReviewTombstone of(Review r, LocalDateTime deletedAt, long changeSeq) {
+        return of(r.getId(), r.getSource(), r.getExternalId(), deletedAt, changeSeq);
+    }
+
+    public static ReviewTombstone of(Long reviewId, String source, String externalId, LocalDateTime deletedAt, long changeSeq) {
+        ReviewTombstone t = new ReviewTombstone();
+        t.setReviewId(reviewId);
+        t.setSource(source);
+        t.setExternalId(externalId);
+        t.setDeletedAt(deletedAt);
+        t.setChangeSeq(changeSeq);
+        return t;
+    }
+}
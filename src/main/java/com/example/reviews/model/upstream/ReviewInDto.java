@@ -8,7 +8,7 @@ import javax.validation.constraints.NotBlank;
 import java.time.LocalDateTime;
 
 /**
- * Single review record coming from the upstream API.
+ * Single review record coming from the upstream API (or from one of our snapshot files).
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public record ReviewInDto(
@@ -17,7 +17,9 @@ public record ReviewInDto(
         String author,                   // reviewer’s name (optional)
         @Min(1) @Max(5) Integer rating,  // rating must be between 1–5 if present
         String content,                  // review text
-        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss[.SSS][.SS][.S]['Z'][XXX][X]")
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss[.SSSSSS][.SSS][.SS][.S]['Z'][XXX][X]")
         LocalDateTime reviewDate,        // date/time the review was created
-        String tags                      // optional tag/category
+        String tags,                     // optional tag/category
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss[.SSSSSS][.SSS][.SS][.S]")
+        LocalDateTime createdAt          // only in our snapshots: keeps created_at (and the createdAt sort) on bootstrap
 ) {}
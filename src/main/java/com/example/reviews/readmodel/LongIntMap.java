@@ -0,0 +1,114 @@
+package com.example.reviews.readmodel;
+
+import java.util.Arrays;
+
+/**
+ * Minimal open-addressing {@code long → int} map (review id → slot).
+ *
+ * A {@code HashMap<Long,Integer>} costs ~50+ bytes per entry in boxes and nodes;
+ * this one costs 12 bytes per bucket (two parallel arrays, load factor ≤ 0.5).
+ * Linear probing with backward-shift deletion, so no tombstones accumulate.
+ * Not thread-safe; callers hold the read model lock.
+ */
+final class LongIntMap {
+
+    private static final long FREE = Long.MIN_VALUE;   // never a valid review id
+
+    private long[] keys;
+    private int[] vals;
+    private int mask;
+    private int size;
+
+    LongIntMap() {
+        this(16);
+    }
+
+    LongIntMap(int expected) {
+        int cap = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        keys = new long[cap];
+        vals = new int[cap];
+        Arrays.fill(keys, FREE);
+        mask = cap - 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** @return the value, or -1 if absent */
+    int get(long key) {
+        int i = index(key);
+        while (true) {
+            long k = keys[i];
+            if (k == FREE) return -1;
+            if (k == key) return vals[i];
+            i = (i + 1) & mask;
+        }
+    }
+
+    void put(long key, int value) {
+        if ((size + 1) * 2 > keys.length) grow();
+        int i = index(key);
+        while (keys[i] != FREE && keys[i] != key) i = (i + 1) & mask;
+        if (keys[i] == FREE) size++;
+        keys[i] = key;
+        vals[i] = value;
+    }
+
+    /** @return the removed value, or -1 if absent */
+    int remove(long key) {
+        int i = index(key);
+        while (keys[i] != key) {
+            if (keys[i] == FREE) return -1;
+            i = (i + 1) & mask;
+        }
+        int removed = vals[i];
+
+        // Backward-shift: pull later entries of the same probe run into the gap
+        int gap = i;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            long k = keys[j];
+            if (k == FREE) break;
+            int home = index(k);
+            boolean movable = (j > gap) ? (home <= gap || home > j) : (home <= gap && home > j);
+            if (movable) {
+                keys[gap] = k;
+                vals[gap] = vals[j];
+                gap = j;
+            }
+        }
+        keys[gap] = FREE;
+        size--;
+        return removed;
+    }
+
+    void clear() {
+        Arrays.fill(keys, FREE);
+        size = 0;
+    }
+
+    /** Approximate heap footprint in bytes (for the memory budget log line). */
+    long footprintBytes() {
+        return (long) keys.length * (Long.BYTES + Integer.BYTES);
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldVals = vals;
+        keys = new long[oldKeys.length * 2];
+        vals = new int[oldVals.length * 2];
+        Arrays.fill(keys, FREE);
+        mask = keys.length - 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) put(oldKeys[i], oldVals[i]);
+        }
+    }
+
+    private int index(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;   // Fibonacci hashing spreads sequential ids
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
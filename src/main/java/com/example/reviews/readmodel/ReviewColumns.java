@@ -0,0 +1,518 @@
+package com.example.reviews.readmodel;
+
+import com.example.reviews.model.dto.ReviewQuery;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Column store for the filterable/sortable part of every review.
+ *
+ * Layout (one slot per review, parallel primitive arrays):
+ * <pre>
+ *   ids          long[]   8 B
+ *   sourceCodes  short[]  2 B   dictionary-encoded, -1 = null
+ *   tagCodes     short[]  2 B   dictionary-encoded, -1 = null
+ *   ratings      byte[]   1 B   0 = null
+ *   reviewDates  long[]   8 B   epoch millis (UTC), NULL_DATE = null
+ *   createdAts   long[]   8 B   epoch millis (UTC)
+ *   orders       int[]    4 B   live slots sorted by createdAt DESC, id DESC
+ *                                (+4 B for each other sort field once it has been requested)
+ *   id → slot    ~24 B         open addressing, load factor ≤ 0.5
+ *   bitmaps      (1 + #sources + #tags) bits
+ * </pre>
+ * ≈ 57 B per review plus a few bits, up to ~1.5× while arrays have growth slack
+ * (see {@link #BYTES_PER_REVIEW_BUDGET}). Author, external id and content are not
+ * kept here; the owner loads them for the requested page only.
+ *
+ * Queries: source/tag filters are bitmap ANDs (one {@link BitSet} per source/tag value);
+ * rating and review-date ranges are checked per slot against the primitive columns. Without
+ * ranges the count is a cardinality, with ranges one pass over the candidates. A page is a
+ * walk over the pre-sorted order of the requested sort field (backwards for ascending) that
+ * stops after {@code offset + limit} hits.
+ *
+ * Updates: upserts overwrite a slot in place (or append), deletes clear the slot's bits.
+ * Sort orders are rebuilt lazily on the next query after a change (only the ones in use),
+ * and dead slots are compacted away once they make up a quarter of the arrays.
+ *
+ * Thread-safety: one read/write lock; queries share it, updates are exclusive.
+ *
+ * Upserts vs deletes: the owner re-reads upserted rows from the database and applies them later,
+ * while a delete of the same row may be applied in between. {@link #beginRead()} marks when such a
+ * re-read started; {@link #upsertAll(List, long)} then drops rows deleted after that point, so a
+ * delete is never undone by an older read. Deleted ids are remembered only while a read that
+ * started before them is still open.
+ */
+public final class ReviewColumns {
+
+    /** Documented steady-state budget; logged against the actual footprint after loading. */
+    public static final int BYTES_PER_REVIEW_BUDGET = 72;
+
+    public static final long NULL_DATE = Long.MIN_VALUE;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private int size;       // slots in use (live + dead)
+    private int dead;       // slots freed by deletes, reclaimed by compact()
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private short[] sourceCodes = new short[INITIAL_CAPACITY];
+    private short[] tagCodes = new short[INITIAL_CAPACITY];
+    private byte[] ratings = new byte[INITIAL_CAPACITY];
+    private long[] reviewDates = new long[INITIAL_CAPACITY];
+    private long[] createdAts = new long[INITIAL_CAPACITY];
+
+    private final BitSet live = new BitSet();
+    private final LongIntMap slotById = new LongIntMap();
+    private final Dictionary sources = new Dictionary();
+    private final Dictionary tags = new Dictionary();
+
+    // One lazily built order per sort field (DESC, id DESC); null = never requested
+    private final int[][] orders = new int[ReviewQuery.SortField.values().length][];
+    private final boolean[] orderDirty = new boolean[orders.length];
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Delete ordering for re-read upserts (see the class comment)
+    private long deleteVersion;                                    // bumped by every deleteAll
+    private final Map<Long, Long> deletedAt = new HashMap<>();     // id → deleteVersion that removed it
+    private final TreeMap<Long, Integer> openReads = new TreeMap<>();   // read start version → count
+
+    /** One review's indexed fields. */
+    public record Row(long id,
+                      String source,
+                      String tag,
+                      Integer rating,
+                      LocalDateTime reviewDate,
+                      LocalDateTime createdAt) {}
+
+    /** Ids of one page (in sort order) plus the total number of matches. */
+    public record Result(long total, long[] ids) {}
+
+    /** Insert or replace a row, keyed by id. */
+    public void upsert(Row r) {
+        lock.writeLock().lock();
+        try {
+            upsertLocked(r);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Insert or replace many rows under one lock acquisition. */
+    public void upsertAll(List<Row> rows) {
+        lock.writeLock().lock();
+        try {
+            for (Row r : rows) upsertLocked(r);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Start re-reading rows that will be applied with {@link #upsertAll(List, long)};
+     * must be paired with {@link #endRead(long)}.
+     *
+     * @return the read's start version
+     */
+    public long beginRead() {
+        lock.writeLock().lock();
+        try {
+            openReads.merge(deleteVersion, 1, Integer::sum);
+            return deleteVersion;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Insert or replace rows read since {@code readStartedAt}, skipping those deleted after
+     * that point: the read saw them, but the delete is newer.
+     */
+    public void upsertAll(List<Row> rows, long readStartedAt) {
+        lock.writeLock().lock();
+        try {
+            for (Row r : rows) {
+                Long deletedIn = deletedAt.get(r.id());
+                if (deletedIn != null && deletedIn > readStartedAt) continue;
+                upsertLocked(r);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Close a read from {@link #beginRead()}; forgets deletes no open read can race with anymore. */
+    public void endRead(long readStartedAt) {
+        lock.writeLock().lock();
+        try {
+            openReads.computeIfPresent(readStartedAt, (v, n) -> (n == 1) ? null : n - 1);
+            if (openReads.isEmpty()) {
+                deletedAt.clear();
+            } else {
+                long oldest = openReads.firstKey();
+                deletedAt.values().removeIf(v -> v <= oldest);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Remove rows by id; unknown ids are ignored (but still remembered for open reads). */
+    public void deleteAll(List<Long> idsToDelete) {
+        lock.writeLock().lock();
+        try {
+            deleteVersion++;
+            for (Long id : idsToDelete) {
+                if (id == null) continue;
+                // An open read may hold this row (or be about to insert it for the first time)
+                if (!openReads.isEmpty()) deletedAt.put(id, deleteVersion);
+                int slot = slotById.remove(id);
+                if (slot < 0) continue;
+                clearBits(slot);
+                live.clear(slot);
+                dead++;
+                markOrdersDirty();
+            }
+            if (dead > 1024 && dead * 4 > size) compact();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Drop everything (used before a full reload). */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            size = 0;
+            dead = 0;
+            live.clear();
+            slotById.clear();
+            sources.clearRows();
+            tags.clearRows();
+            markOrdersDirty();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int liveCount() {
+        lock.readLock().lock();
+        try {
+            return size - dead;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Filtered, sorted page; same semantics as the JPA search (see {@link ReviewQuery}).
+     *
+     * @param q      filters (source/tag case-insensitive) and sort
+     * @param offset rows to skip
+     * @param limit  max rows to return
+     */
+    public Result query(ReviewQuery q, int offset, int limit) {
+        int key = q.sort().ordinal();
+        while (true) {
+            lock.readLock().lock();
+            try {
+                if (orders[key] != null && !orderDirty[key]) return queryLocked(q, offset, limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+            rebuildOrder(q.sort());
+        }
+    }
+
+    /** Approximate heap footprint in bytes. */
+    public long footprintBytes() {
+        lock.readLock().lock();
+        try {
+            long arrays = (long) ids.length * (8 + 2 + 2 + 1 + 8 + 8);
+            for (int[] order : orders) arrays += (order == null) ? 0 : (long) order.length * 4;
+            long bitmaps = (long) (1 + sources.values.size() + tags.values.size()) * (size / 8 + 8);
+            return arrays + bitmaps + slotById.footprintBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- internals (caller holds the lock) ---
+
+    private Result queryLocked(ReviewQuery q, int offset, int limit) {
+        BitSet candidates = null;
+        if (q.source() != null) candidates = sources.match(q.source());
+        if (q.tag() != null) {
+            BitSet t = tags.match(q.tag());
+            if (candidates == null) candidates = t;
+            else candidates.and(t);
+        }
+
+        RangeFilter range = RangeFilter.of(q);
+        long total;
+        if (range == null) {
+            total = (candidates == null) ? (size - dead) : candidates.cardinality();
+        } else {
+            BitSet scan = (candidates == null) ? live : candidates;
+            total = 0;
+            for (int slot = scan.nextSetBit(0); slot >= 0 && slot < size; slot = scan.nextSetBit(slot + 1)) {
+                if (range.matches(this, slot)) total++;
+            }
+        }
+        if (offset >= total || limit <= 0) return new Result(total, new long[0]);
+
+        int[] order = orders[q.sort().ordinal()];
+        boolean ascending = q.direction().isAscending();
+        long[] out = new long[(int) Math.min(limit, total - offset)];
+        int n = 0;
+        int skip = offset;
+        for (int i = 0; i < order.length; i++) {
+            int slot = ascending ? order[order.length - 1 - i] : order[i];
+            if (candidates != null && !candidates.get(slot)) continue;
+            if (range != null && !range.matches(this, slot)) continue;
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            out[n++] = ids[slot];
+            if (n == out.length) break;
+        }
+        return new Result(total, (n == out.length) ? out : Arrays.copyOf(out, n));
+    }
+
+    private void upsertLocked(Row r) {
+        int slot = slotById.get(r.id());
+        if (slot < 0) {
+            slot = size++;
+            ensureCapacity(size);
+            ids[slot] = r.id();
+            slotById.put(r.id(), slot);
+            live.set(slot);
+        } else {
+            clearBits(slot);
+        }
+
+        short s = sources.encode(r.source());
+        short t = tags.encode(r.tag());
+        sourceCodes[slot] = s;
+        tagCodes[slot] = t;
+        ratings[slot] = (r.rating() == null) ? 0 : r.rating().byteValue();
+        reviewDates[slot] = toMillis(r.reviewDate());
+        createdAts[slot] = toMillis(r.createdAt());
+        if (s >= 0) sources.rows(s).set(slot);
+        if (t >= 0) tags.rows(t).set(slot);
+        markOrdersDirty();
+    }
+
+    private void clearBits(int slot) {
+        if (sourceCodes[slot] >= 0) sources.rows(sourceCodes[slot]).clear(slot);
+        if (tagCodes[slot] >= 0) tags.rows(tagCodes[slot]).clear(slot);
+    }
+
+    private void markOrdersDirty() {
+        Arrays.fill(orderDirty, true);
+    }
+
+    private void rebuildOrder(ReviewQuery.SortField field) {
+        lock.writeLock().lock();
+        try {
+            int key = field.ordinal();
+            if (orders[key] != null && !orderDirty[key]) return;
+            int[] slots = new int[size - dead];
+            int n = 0;
+            for (int slot = live.nextSetBit(0); slot >= 0 && slot < size; slot = live.nextSetBit(slot + 1)) {
+                slots[n++] = slot;
+            }
+            // DESC with id DESC as tie-breaker; ascending queries walk it backwards.
+            // Nulls (NULL_DATE, rating 0) are the smallest values, as in MySQL.
+            SlotComparator byField = switch (field) {
+                case CREATED_AT -> (a, b) -> Long.compare(createdAts[b], createdAts[a]);
+                case REVIEW_DATE -> (a, b) -> Long.compare(reviewDates[b], reviewDates[a]);
+                case RATING -> (a, b) -> Byte.compare(ratings[b], ratings[a]);
+            };
+            sort(slots, (a, b) -> {
+                int c = byField.compare(a, b);
+                return (c != 0) ? c : Long.compare(ids[b], ids[a]);
+            });
+            orders[key] = slots;
+            orderDirty[key] = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Rating/review-date bounds as primitives; null when the query has none. */
+    private record RangeFilter(boolean byRating, int minRating, int maxRating,
+                               boolean byDate, long fromMillis, long beforeMillis) {
+
+        static RangeFilter of(ReviewQuery q) {
+            if (!q.hasRatingRange() && !q.hasDateRange()) return null;
+            return new RangeFilter(
+                    q.hasRatingRange(),
+                    (q.minRating() != null) ? q.minRating() : 1,
+                    (q.maxRating() != null) ? q.maxRating() : 5,
+                    q.hasDateRange(),
+                    (q.reviewedFrom() != null) ? toMillis(q.reviewedFrom()) : Long.MIN_VALUE,
+                    (q.reviewedBefore() != null) ? toMillis(q.reviewedBefore()) : Long.MAX_VALUE);
+        }
+
+        // Like SQL: a bound never matches a missing value (rating 0 / NULL_DATE)
+        boolean matches(ReviewColumns c, int slot) {
+            if (byRating) {
+                byte r = c.ratings[slot];
+                if (r == 0 || r < minRating || r > maxRating) return false;
+            }
+            if (byDate) {
+                long d = c.reviewDates[slot];
+                if (d == NULL_DATE || d < fromMillis || d >= beforeMillis) return false;
+            }
+            return true;
+        }
+    }
+
+    /** Squeeze out dead slots; rebuilds bitmaps, the id map and the order. */
+    private void compact() {
+        int liveCount = size - dead;
+        long[] nIds = new long[Math.max(INITIAL_CAPACITY, liveCount)];
+        short[] nSources = new short[nIds.length];
+        short[] nTags = new short[nIds.length];
+        byte[] nRatings = new byte[nIds.length];
+        long[] nReviewDates = new long[nIds.length];
+        long[] nCreatedAts = new long[nIds.length];
+
+        sources.clearRows();
+        tags.clearRows();
+        slotById.clear();
+
+        int to = 0;
+        for (int from = live.nextSetBit(0); from >= 0 && from < size; from = live.nextSetBit(from + 1)) {
+            nIds[to] = ids[from];
+            nSources[to] = sourceCodes[from];
+            nTags[to] = tagCodes[from];
+            nRatings[to] = ratings[from];
+            nReviewDates[to] = reviewDates[from];
+            nCreatedAts[to] = createdAts[from];
+            if (nSources[to] >= 0) sources.rows(nSources[to]).set(to);
+            if (nTags[to] >= 0) tags.rows(nTags[to]).set(to);
+            slotById.put(nIds[to], to);
+            to++;
+        }
+
+        ids = nIds;
+        sourceCodes = nSources;
+        tagCodes = nTags;
+        ratings = nRatings;
+        reviewDates = nReviewDates;
+        createdAts = nCreatedAts;
+        live.clear();
+        live.set(0, to);
+        size = to;
+        dead = 0;
+        markOrdersDirty();
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= ids.length) return;
+        int cap = Math.max(needed, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, cap);
+        sourceCodes = Arrays.copyOf(sourceCodes, cap);
+        tagCodes = Arrays.copyOf(tagCodes, cap);
+        ratings = Arrays.copyOf(ratings, cap);
+        reviewDates = Arrays.copyOf(reviewDates, cap);
+        createdAts = Arrays.copyOf(createdAts, cap);
+    }
+
+    static long toMillis(LocalDateTime t) {
+        return (t == null) ? NULL_DATE : t.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    // --- primitive sort (avoids boxing millions of Integers) ---
+
+    @FunctionalInterface
+    private interface SlotComparator {
+        int compare(int a, int b);
+    }
+
+    private static void sort(int[] a, SlotComparator cmp) {
+        mergeSort(a, new int[a.length], 0, a.length, cmp);
+    }
+
+    private static void mergeSort(int[] a, int[] tmp, int lo, int hi, SlotComparator cmp) {
+        if (hi - lo < 32) {
+            for (int i = lo + 1; i < hi; i++) {
+                int v = a[i];
+                int j = i - 1;
+                while (j >= lo && cmp.compare(a[j], v) > 0) {
+                    a[j + 1] = a[j];
+                    j--;
+                }
+                a[j + 1] = v;
+            }
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        mergeSort(a, tmp, lo, mid, cmp);
+        mergeSort(a, tmp, mid, hi, cmp);
+        if (cmp.compare(a[mid - 1], a[mid]) <= 0) return;   // already in order
+
+        System.arraycopy(a, lo, tmp, lo, hi - lo);
+        int i = lo, j = mid, k = lo;
+        while (i < mid && j < hi) a[k++] = (cmp.compare(tmp[i], tmp[j]) <= 0) ? tmp[i++] : tmp[j++];
+        while (i < mid) a[k++] = tmp[i++];
+        while (j < hi) a[k++] = tmp[j++];
+    }
+
+    /**
+     * String ↔ short code dictionary with one row bitmap per code.
+     * Filters are case-insensitive, so codes are also grouped by their lower-cased value.
+     */
+    private static final class Dictionary {
+        private final Map<String, Short> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private final List<BitSet> rows = new ArrayList<>();
+        private final Map<String, List<Short>> byLower = new HashMap<>();
+
+        short encode(String value) {
+            if (value == null) return -1;
+            Short code = codes.get(value);
+            if (code != null) return code;
+            if (values.size() >= Short.MAX_VALUE) {
+                throw new IllegalStateException("Too many distinct values for a short dictionary: " + value);
+            }
+            short c = (short) values.size();
+            codes.put(value, c);
+            values.add(value);
+            rows.add(new BitSet());
+            byLower.computeIfAbsent(value.toLowerCase(Locale.ROOT), k -> new ArrayList<>()).add(c);
+            return c;
+        }
+
+        BitSet rows(short code) {
+            return rows.get(code);
+        }
+
+        /** New bitmap of all rows whose value equals {@code filter}, ignoring case. */
+        BitSet match(String filter) {
+            BitSet out = new BitSet();
+            List<Short> matching = byLower.get(filter.trim().toLowerCase(Locale.ROOT));
+            if (matching != null) {
+                for (short c : matching) out.or(rows.get(c));
+            }
+            return out;
+        }
+
+        void clearRows() {
+            for (BitSet b : rows) b.clear();
+        }
+    }
+}
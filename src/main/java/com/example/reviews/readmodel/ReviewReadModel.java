@@ -0,0 +1,236 @@
+package com.example.reviews.readmodel;
+
+import com.example.reviews.event.ReviewsDeletedEvent;
+import com.example.reviews.event.ReviewsUpsertedEvent;
+import com.example.reviews.model.dto.ReviewDto;
+import com.example.reviews.model.dto.ReviewQuery;
+import com.example.reviews.tiering.ColdStore;
+import com.example.reviews.util.ContentCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Optional in-memory read model for {@code GET /reviews} ({@code reviews.read.model.enabled=true}).
+ *
+ * Why: the data is read-mostly and only changes when an import (or a delete) runs, yet every
+ * list request went through JPA to MySQL for both the page and the count. Here, filtering,
+ * sorting, counting and paging are answered from {@link ReviewColumns} in microseconds; MySQL
+ * only serves a primary-key lookup for the (at most page-size) rows being returned, which is
+ * where author, external id and the large {@code content} come from ("lazily loaded").
+ *
+ * Lifecycle:
+ * - Built once at startup, after schema changes and before the startup import.
+ * - Kept current by {@link ReviewsUpsertedEvent} / {@link ReviewsDeletedEvent}, applied after
+ *   the writing transaction commits, so uncommitted rows never become visible.
+ *
+ * With the cold tier enabled ({@link ColdStore}), the model also holds the reviews moved out of
+ * MySQL, so search results and counts span both tiers; their rows are hydrated from the segments.
+ *
+ * Memory: see {@link ReviewColumns#BYTES_PER_REVIEW_BUDGET}; the actual footprint is logged after loading.
+ */
+@Component
+@Order(10)
+@ConditionalOnProperty(prefix = "reviews.read.model", name = "enabled", havingValue = "true")
+public class ReviewReadModel implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewReadModel.class);
+
+    private static final String INDEX_COLUMNS = "id, source, tag, rating, review_date, created_at";
+
+    private final JdbcTemplate jdbc;
+    private final JdbcTemplate streamingJdbc;     // full scan at startup without buffering the result set
+    private final ObjectProvider<ColdStore> coldStore;   // optional cold tier
+    private final ReviewColumns columns = new ReviewColumns();
+    private volatile boolean ready = false;
+    private volatile boolean loadStarted = false;   // upserts before that are picked up by the load itself
+
+    public ReviewReadModel(JdbcTemplate jdbc, DataSource dataSource, ObjectProvider<ColdStore> coldStore) {
+        this.jdbc = jdbc;
+        this.coldStore = coldStore;
+        this.streamingJdbc = new JdbcTemplate(dataSource);
+        this.streamingJdbc.setFetchSize(Integer.MIN_VALUE);   // MySQL Connector/J: stream row by row
+    }
+
+    @Override
+    public void run(String... args) {
+        load();
+    }
+
+    /** (Re)build the model from the table (and the cold tier, if enabled). */
+    public void load() {
+        long started = System.nanoTime();
+        loadStarted = true;
+        columns.clear();
+
+        // The scan is a long read too: deletes applied while it runs must not be undone by it
+        long readStartedAt = columns.beginRead();
+        try {
+            List<ReviewColumns.Row> chunk = new ArrayList<>(10_000);
+            // Cold first: an id caught mid-move is in both, and the MySQL row must win
+            ColdStore cold = coldStore.getIfAvailable();
+            if (cold != null) {
+                cold.forEachLiveRow(row -> {
+                    chunk.add(row);
+                    if (chunk.size() == 10_000) {
+                        columns.upsertAll(chunk, readStartedAt);
+                        chunk.clear();
+                    }
+                });
+            }
+            streamingJdbc.query("SELECT " + INDEX_COLUMNS + " FROM reviews", rs -> {
+                chunk.add(toRow(rs));
+                if (chunk.size() == 10_000) {
+                    columns.upsertAll(chunk, readStartedAt);
+                    chunk.clear();
+                }
+            });
+            columns.upsertAll(chunk, readStartedAt);
+        } finally {
+            columns.endRead(readStartedAt);
+        }
+        ready = true;
+
+        int n = columns.liveCount();
+        long bytes = columns.footprintBytes();
+        log.info("Read model loaded: {} reviews in {} ms, ~{} KiB (~{} B/review, budget {} B/review)",
+                n, (System.nanoTime() - started) / 1_000_000, bytes / 1024,
+                (n == 0) ? 0 : bytes / n, ReviewColumns.BYTES_PER_REVIEW_BUDGET);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Same contract as the JPA search: case-insensitive source/tag, rating/review-date ranges,
+     * sorted by the requested field with id as tie-breaker.
+     */
+    public Page<ReviewDto> search(ReviewQuery query, Pageable pageable) {
+        ReviewColumns.Result r = columns.query(
+                query,
+                (int) Math.min(Integer.MAX_VALUE, pageable.getOffset()),
+                pageable.getPageSize());
+        return new PageImpl<>(hydrate(r.ids()), pageable, r.total());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUpserted(ReviewsUpsertedEvent event) {
+        // Before load() starts (e.g. a snapshot bootstrap runs first) the scan will read these rows
+        // anyway; re-reading every batch would only double the work
+        if (event.keys().isEmpty() || !loadStarted) return;
+
+        // Re-read the written rows by natural key (we don’t know the ids of fresh inserts)
+        Map<String, List<String>> bySource = new HashMap<>();
+        for (ReviewsUpsertedEvent.Key k : event.keys()) {
+            bySource.computeIfAbsent(k.source(), s -> new ArrayList<>()).add(k.externalId());
+        }
+        // A delete of one of these rows may commit after our SELECT and be applied before we are;
+        // rows deleted since the read started are skipped (see ReviewColumns#beginRead)
+        long readStartedAt = columns.beginRead();
+        try {
+            List<ReviewColumns.Row> rows = new ArrayList<>(event.keys().size());
+            for (Map.Entry<String, List<String>> e : bySource.entrySet()) {
+                List<Object> args = new ArrayList<>(e.getValue().size() + 1);
+                args.add(e.getKey());
+                args.addAll(e.getValue());
+                rows.addAll(jdbc.query(
+                        "SELECT " + INDEX_COLUMNS + " FROM reviews WHERE source = ? AND external_id IN (" +
+                                placeholders(e.getValue().size()) + ")",
+                        (rs, i) -> toRow(rs), args.toArray()));
+            }
+            columns.upsertAll(rows, readStartedAt);
+        } finally {
+            columns.endRead(readStartedAt);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDeleted(ReviewsDeletedEvent event) {
+        columns.deleteAll(event.ids());
+    }
+
+    /** Load the display fields for one page, keeping the model’s order. */
+    private List<ReviewDto> hydrate(long[] ids) {
+        if (ids.length == 0) return Collections.emptyList();
+
+        Object[] args = new Object[ids.length];
+        for (int i = 0; i < ids.length; i++) args[i] = ids[i];
+
+        Map<Long, ReviewDto> byId = new LinkedHashMap<>();
+        jdbc.query("SELECT id, source, external_id, author, rating, content, content_z, review_date, tag, updated_at " +
+                        "FROM reviews WHERE id IN (" + placeholders(ids.length) + ")",
+                rs -> {
+                    ReviewDto dto = ReviewDto.builder()
+                            .id(rs.getLong("id"))
+                            .source(rs.getString("source"))
+                            .externalId(rs.getString("external_id"))
+                            .author(rs.getString("author"))
+                            .rating(rs.getObject("rating", Integer.class))
+                            .content(ContentCodec.fromColumns(rs.getString("content"), rs.getBytes("content_z")))
+                            .reviewDate(toLocal(rs.getTimestamp("review_date")))
+                            .tag(rs.getString("tag"))
+                            .updatedAt(toLocal(rs.getTimestamp("updated_at")))
+                            .build();
+                    byId.put(dto.getId(), dto);
+                }, args);
+
+        // Not in MySQL: moved to the cold tier
+        ColdStore cold = coldStore.getIfAvailable();
+        if (cold != null && byId.size() < ids.length) {
+            List<Long> missing = new ArrayList<>(ids.length - byId.size());
+            for (long id : ids) {
+                if (!byId.containsKey(id)) missing.add(id);
+            }
+            byId.putAll(cold.load(missing));
+        }
+
+        // A row deleted between query and load is simply left out of this page
+        List<ReviewDto> out = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            ReviewDto dto = byId.get(id);
+            if (dto != null) out.add(dto);
+        }
+        return out;
+    }
+
+    private static ReviewColumns.Row toRow(ResultSet rs) throws SQLException {
+        return new ReviewColumns.Row(
+                rs.getLong("id"),
+                rs.getString("source"),
+                rs.getString("tag"),
+                rs.getObject("rating", Integer.class),
+                toLocal(rs.getTimestamp("review_date")),
+                toLocal(rs.getTimestamp("created_at")));
+    }
+
+    private static LocalDateTime toLocal(Timestamp ts) {
+        return (ts == null) ? null : ts.toLocalDateTime();
+    }
+
+    private static String placeholders(int n) {
+        return String.join(",", Collections.nCopies(n, "?"));
+    }
+}
@@ -1,20 +1,36 @@
 package com.example.reviews.repository;
 
+import com.example.reviews.config.StorageProperties;
+import com.example.reviews.event.ReviewsDeletedEvent;
+import com.example.reviews.event.ReviewsUpsertedEvent;
 import com.example.reviews.model.upstream.ReviewInDto;
+import com.example.reviews.tiering.ColdRecord;
+import com.example.reviews.tiering.ColdStore;
+import com.example.reviews.util.ContentCodec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.sql.Types;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * BulkReviewWriter
@@ -33,6 +49,8 @@ import java.util.List;
  * - This means one roundtrip per batch instead of one per row.
  * - We reuse a single timestamp for `created_at` and `updated_at`
  *   so everything in a batch has consistent timing.
+ * - Rows the batch really changed get the transaction's change feed number
+ *   (`change_seq`, see ChangeSequence) as its last step.
  *
  * Why raw SQL (and not JPA)?
  * --------------------------
@@ -64,35 +82,101 @@ public class BulkReviewRepository {
 
     private static final Logger log = LoggerFactory.getLogger(BulkReviewRepository.class);
 
+    // Upsert: the incoming values equal the stored ones. BINARY makes case-only edits count
+    // despite the case-insensitive collation.
+    private static final String UNCHANGED =
+            "BINARY author <=> BINARY VALUES(author) " +
+                    "AND rating <=> VALUES(rating) " +
+                    "AND BINARY content <=> BINARY VALUES(content) " +
+                    "AND content_z <=> VALUES(content_z) " +
+                    "AND review_date <=> VALUES(review_date) " +
+                    "AND BINARY tag <=> BINARY VALUES(tag)";
+
     private final JdbcTemplate jdbc;
+    private final ApplicationEventPublisher events;   // lets derived state (read model, caches) follow writes
+    private final boolean compressContent;            // content → content_z (deflate) instead of TEXT
+    private final int compressMinBytes;
+    private final ObjectProvider<ColdStore> coldStore; // optional cold tier (reviews.tiering.enabled)
+    private final ChangeSequence changeSequence;       // commit-ordered change feed position
+    private final ReviewColumnCollation collation;     // how source/tag filters compare case-insensitively
 
-    public BulkReviewRepository(JdbcTemplate jdbc) {
+    public BulkReviewRepository(JdbcTemplate jdbc,
+                                ApplicationEventPublisher events,
+                                StorageProperties storage,
+                                ObjectProvider<ColdStore> coldStore,
+                                ChangeSequence changeSequence,
+                                ReviewColumnCollation collation) {
         this.jdbc = jdbc;
+        this.events = events;
+        this.compressContent = storage.isCompressContent();
+        this.compressMinBytes = storage.getCompressMinBytes();
+        this.coldStore = coldStore;
+        this.changeSequence = changeSequence;
+        this.collation = collation;
     }
 
     /**
      * Upserts the provided rows in a single JDBC batch.
      * Transaction boundary: one transaction per page.
      *
-     * @param rows items to write; ignored if null/empty
+     * With the cold tier enabled, rows whose review lives in a cold segment are checked first:
+     * unchanged ones are skipped (history stays cold), changed ones are inserted under their old
+     * id and created_at, and {@link ColdStore} retires the cold copy once this commits. That first
+     * check can be overtaken by a move; {@link #settlePromotions} repeats it after the write.
+     * Skipped rows still count as seen by this run: the cold copy records the generation, and a hot
+     * copy left by a move in progress gets it too ({@link #markSeen}), so the sweep keeps both.
+     *
+     * @param rows       items to write; ignored if null/empty
+     * @param generation import run stamp; every written row (new or existing) gets it
      * @return best-effort affected count for logs (normalized)
      */
     @Transactional
-    public int upsertBatch(List<ReviewInDto> rows) {
+    public int upsertBatch(List<ReviewInDto> rows, long generation) {
         if (rows == null || rows.isEmpty()) return 0;
 
+        List<ReviewInDto> toWrite = rows;
+        List<ColdStore.Hit> coldHits = null;   // parallel to toWrite; null entry = not in the cold tier
+        ColdStore cold = coldStore.getIfAvailable();
+        if (cold != null && !cold.isEmpty()) {
+            toWrite = new ArrayList<>(rows.size());
+            coldHits = new ArrayList<>(rows.size());
+            List<ReviewInDto> seen = new ArrayList<>();
+            for (ReviewInDto r : rows) {
+                ColdStore.Hit hit = cold.findLive(r.source(), r.id());
+                if (hit != null && hit.dataHash() ==
+                        ColdRecord.dataHash(r.author(), r.rating(), r.content(), r.reviewDate(), r.tags())) {
+                    cold.markSeen(hit, generation);   // unchanged cold review: nothing to write
+                    seen.add(r);
+                    continue;
+                }
+                toWrite.add(r);
+                coldHits.add(hit);
+            }
+            if (!seen.isEmpty()) markSeen(seen, generation);
+            if (toWrite.isEmpty()) return 0;
+        }
+        final List<ReviewInDto> batch = toWrite;
+        final List<ColdStore.Hit> hits = coldHits;
+
         // MySQL UPSERT. If a row with the same (source, external_id) exists, selected columns are updated.
+        // id is NULL (auto-increment) except for reviews coming back from the cold tier.
         final String sql =
                 "INSERT INTO reviews " +
-                        "  (source, external_id, author, rating, content, review_date, tag, created_at, updated_at) " +
-                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+                        "  (id, source, external_id, author, rating, content, content_z, review_date, tag, created_at, updated_at, import_generation, change_seq) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, " + ChangeSequence.PENDING + ") " +
                         "ON DUPLICATE KEY UPDATE " +
+                        // change_seq and updated_at first: MySQL applies assignments left to right, so the
+                        // comparison still sees the old values. Unchanged rows keep both, which keeps
+                        // the change feed and the JSON cache free of no-op "changes".
+                        "  change_seq=IF(" + UNCHANGED + ", change_seq, " + ChangeSequence.PENDING + "), " +
+                        "  updated_at=IF(" + UNCHANGED + ", updated_at, VALUES(updated_at)), " +
                         "  author=VALUES(author), " +
                         "  rating=VALUES(rating), " +
                         "  content=VALUES(content), " +
+                        "  content_z=VALUES(content_z), " +
                         "  review_date=VALUES(review_date), " +
                         "  tag=VALUES(tag), " +
-                        "  updated_at=VALUES(updated_at)";
+                        "  import_generation=VALUES(import_generation)";
 
         // One timestamp reused across all rows in this batch for consistency
         final Timestamp nowTs = Timestamp.valueOf(LocalDateTime.now());
@@ -100,37 +184,405 @@ public class BulkReviewRepository {
         int[] counts = jdbc.batchUpdate(sql, new BatchPreparedStatementSetter() {
             @Override
             public void setValues(PreparedStatement ps, int i) throws SQLException {
-                ReviewInDto r = rows.get(i);
+                ReviewInDto r = batch.get(i);
+                ColdStore.Hit hit = (hits != null) ? hits.get(i) : null;
 
                 // NOTE: all values are bound via PreparedStatement placeholders (safe from SQL injection)
-                ps.setString(1, r.source());
-                ps.setString(2, r.id());                 // external_id
-                ps.setString(3, r.author());
+                if (hit == null) ps.setNull(1, Types.BIGINT);
+                else ps.setLong(1, hit.id());            // keep the id it had in the cold tier
+                ps.setString(2, r.source());
+                ps.setString(3, r.id());                 // external_id
+                ps.setString(4, r.author());
 
-                if (r.rating() == null) ps.setNull(4, Types.INTEGER);
-                else ps.setInt(4, r.rating());
+                if (r.rating() == null) ps.setNull(5, Types.INTEGER);
+                else ps.setInt(5, r.rating());
 
-                ps.setString(5, r.content());
+                // Exactly one of the two content columns is set, depending on the storage mode
+                if (compressContent) {
+                    ps.setNull(6, Types.VARCHAR);
+                    ps.setBytes(7, ContentCodec.encode(r.content(), compressMinBytes));
+                } else {
+                    ps.setString(6, r.content());
+                    ps.setNull(7, Types.VARBINARY);
+                }
 
-                if (r.reviewDate() == null) ps.setNull(6, Types.TIMESTAMP);
-                else ps.setTimestamp(6, Timestamp.valueOf(r.reviewDate()));
+                if (r.reviewDate() == null) ps.setNull(8, Types.TIMESTAMP);
+                else ps.setTimestamp(8, Timestamp.valueOf(r.reviewDate()));
 
-                ps.setString(7, r.tags());
-                ps.setTimestamp(8, nowTs);               // created_at
-                ps.setTimestamp(9, nowTs);               // updated_at
+                ps.setString(9, r.tags());
+                ps.setTimestamp(10, createdAt(hit, r, nowTs));   // created_at (only used by inserts)
+                ps.setTimestamp(11, nowTs);              // updated_at
+                ps.setLong(12, generation);              // import_generation (mark phase)
             }
 
             @Override
             public int getBatchSize() {
-                return rows.size();
+                return batch.size();
             }
         });
 
+        List<Long> promoted = (cold != null) ? settlePromotions(batch, cold) : List.of();
+        stampChanged(batch);
+
+        // Listeners run after commit, so they only ever see what is really in the table
+        List<ReviewsUpsertedEvent.Key> keys = new ArrayList<>(batch.size());
+        for (ReviewInDto r : batch) keys.add(new ReviewsUpsertedEvent.Key(r.source(), r.id()));
+        events.publishEvent(new ReviewsUpsertedEvent(keys, promoted));
+
         // Turn driver-specific batch result codes into a friendly total for logs/metrics
         int normalized = getNormalized(counts);
         return normalized;
     }
 
+    /**
+     * created_at for a new row: the cold copy's when the review comes back from the cold tier, the
+     * snapshot's when bootstrapping from one of our exports, otherwise the batch time.
+     */
+    private static Timestamp createdAt(ColdStore.Hit hit, ReviewInDto r, Timestamp now) {
+        if (hit != null) return Timestamp.valueOf(hit.createdAt());
+        if (r.createdAt() != null) return Timestamp.valueOf(r.createdAt());
+        return now;
+    }
+
+    /**
+     * Match the rows this batch inserted or changed against the cold tier, under the row locks the
+     * upsert now holds (before {@link #stampChanged}, while they are still PENDING).
+     *
+     * The {@link ColdStore#findLive} check before the INSERT can be stale: the tiering job may
+     * publish a segment with one of these reviews and delete its hot row in between, and the INSERT
+     * then creates the review again under a fresh auto-increment id. The segment is published
+     * before the hot row is deleted, so it is visible by now; such a row is moved back to its old
+     * id and created_at, as if the first check had seen it.
+     *
+     * Rows the batch left unchanged are not promoted: if a move is deleting them, the review stays cold.
+     *
+     * @return cold ids whose review is now in MySQL (retired by {@link ColdStore} after commit)
+     */
+    List<Long> settlePromotions(List<ReviewInDto> batch, ColdStore cold) {
+        if (cold.isEmpty()) return List.of();
+
+        List<Long> promoted = new ArrayList<>();
+        List<Object[]> renumber = new ArrayList<>();
+        for (Map.Entry<String, List<String>> e : bySource(batch).entrySet()) {
+            String source = e.getKey();
+            List<Object> args = new ArrayList<>(e.getValue().size() + 2);
+            args.add(source);
+            args.addAll(e.getValue());
+            args.add(ChangeSequence.PENDING);
+            jdbc.query("SELECT id, external_id FROM reviews WHERE source = ? AND external_id IN (" +
+                            String.join(",", Collections.nCopies(e.getValue().size(), "?")) + ") AND change_seq = ?",
+                    rs -> {
+                        ColdStore.Hit hit = cold.findLive(source, rs.getString(2));
+                        if (hit == null) return;
+                        long id = rs.getLong(1);
+                        if (id != hit.id()) {
+                            renumber.add(new Object[]{hit.id(), Timestamp.valueOf(hit.createdAt()), id});
+                        }
+                        promoted.add(hit.id());
+                    },
+                    args.toArray());
+        }
+        if (!renumber.isEmpty()) {
+            log.info("{} review(s) were moved to the cold tier while being re-imported; keeping their ids", renumber.size());
+            jdbc.batchUpdate("UPDATE reviews SET id = ?, created_at = ? WHERE id = ?", renumber);
+        }
+        return promoted;
+    }
+
+    /**
+     * Stamp the generation on hot rows of keys the batch skipped as unchanged in the cold tier.
+     * Normally there are none; a move that copied the row but hasn't deleted it yet (or was
+     * interrupted) leaves one, and the sweep would otherwise delete it as unseen.
+     */
+    private void markSeen(List<ReviewInDto> skipped, long generation) {
+        for (Map.Entry<String, List<String>> e : bySource(skipped).entrySet()) {
+            List<Object> args = new ArrayList<>(e.getValue().size() + 3);
+            args.add(generation);
+            args.add(e.getKey());
+            args.addAll(e.getValue());
+            args.add(generation);
+            jdbc.update("UPDATE reviews SET import_generation = ? WHERE source = ? AND external_id IN (" +
+                            String.join(",", Collections.nCopies(e.getValue().size(), "?")) + ") " +
+                            "AND (import_generation IS NULL OR import_generation < ?)",
+                    args.toArray());
+        }
+    }
+
+    /**
+     * Give the rows this batch inserted or changed (marked {@link ChangeSequence#PENDING}) the
+     * transaction's change feed number. Runs last, after the upsert holds its row locks; looks the
+     * rows up by natural key so it never touches (or waits for) another writer's pending rows.
+     */
+    private void stampChanged(List<ReviewInDto> batch) {
+        long seq = changeSequence.next();
+        for (Map.Entry<String, List<String>> e : bySource(batch).entrySet()) {
+            List<Object> args = new ArrayList<>(e.getValue().size() + 3);
+            args.add(seq);
+            args.add(e.getKey());
+            args.addAll(e.getValue());
+            args.add(ChangeSequence.PENDING);
+            jdbc.update("UPDATE reviews SET change_seq = ? WHERE source = ? AND external_id IN (" +
+                            String.join(",", Collections.nCopies(e.getValue().size(), "?")) + ") AND change_seq = ?",
+                    args.toArray());
+        }
+    }
+
+    // External ids grouped by source, in batch order
+    private static Map<String, List<String>> bySource(List<ReviewInDto> batch) {
+        Map<String, List<String>> bySource = new LinkedHashMap<>();
+        for (ReviewInDto r : batch) bySource.computeIfAbsent(r.source(), k -> new ArrayList<>()).add(r.id());
+        return bySource;
+    }
+
+    /** Rows currently stored for a source (sweep safety check). */
+    public long countBySource(String source) {
+        Long n = jdbc.queryForObject("SELECT COUNT(*) FROM reviews WHERE source = ?", Long.class, source);
+        return n == null ? 0 : n;
+    }
+
+    /** Rows of a source not stamped by the given (or a newer) generation. */
+    public long countStale(String source, long generation) {
+        Long n = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM reviews WHERE source = ? " +
+                        "AND (import_generation IS NULL OR import_generation < ?)",
+                Long.class, source, generation);
+        return n == null ? 0 : n;
+    }
+
+    /** Up to {@code limit} ids of stale rows for a source; served by idx_source_generation. */
+    public List<Long> findStaleIds(String source, long generation, int limit) {
+        return jdbc.queryForList(
+                "SELECT id FROM reviews WHERE source = ? " +
+                        "AND (import_generation IS NULL OR import_generation < ?) LIMIT ?",
+                Long.class, source, generation, limit);
+    }
+
+    /**
+     * Delete one chunk of stale rows in its own short transaction.
+     * The generation check is repeated so a row re-imported in the meantime survives.
+     *
+     * @return ids actually deleted
+     */
+    @Transactional
+    public List<Long> deleteStaleChunk(String source, long generation, List<Long> ids) {
+        if (ids == null || ids.isEmpty()) return Collections.emptyList();
+
+        String in = String.join(",", Collections.nCopies(ids.size(), "?"));
+        List<Object> args = new ArrayList<>(ids.size() + 2);
+        args.add(source);
+        args.add(generation);
+        args.addAll(ids);
+
+        // Lock and collect first, then delete exactly those rows
+        List<Long> doomed = jdbc.queryForList(
+                "SELECT id FROM reviews WHERE source = ? " +
+                        "AND (import_generation IS NULL OR import_generation < ?) " +
+                        "AND id IN (" + in + ") FOR UPDATE",
+                Long.class, args.toArray());
+        if (doomed.isEmpty()) return doomed;
+
+        tombstoneAndDelete(source, doomed);
+        return doomed;
+    }
+
+    /** Smallest id at or above {@code fromId}, or null past the end (lets a window walk skip id gaps). */
+    public Long firstIdFrom(long fromId) {
+        return jdbc.queryForObject("SELECT MIN(id) FROM reviews WHERE id >= ?", Long.class, fromId);
+    }
+
+    /** Current largest id, or null for an empty table. */
+    public Long maxId() {
+        return jdbc.queryForObject("SELECT MAX(id) FROM reviews", Long.class);
+    }
+
+    /**
+     * Delete the rows matching the filters within one primary-key window {@code [fromId, toId)},
+     * in its own short transaction. The window bounds what is scanned and locked, whatever the
+     * filters match; null filters are ignored. Source and tag compare case-insensitively, like the
+     * search and the cold pass ({@link ColdStore#matching}).
+     *
+     * @param before rows with {@code review_date} strictly before this (null = no date filter)
+     * @return ids actually deleted
+     */
+    @Transactional
+    public List<Long> deleteMatchingInWindow(String source, String tag, LocalDateTime before, long fromId, long toId) {
+        StringBuilder where = new StringBuilder("id >= ? AND id < ?");
+        List<Object> args = new ArrayList<>(5);
+        args.add(fromId);
+        args.add(toId);
+        boolean ci = collation.caseInsensitive();
+        if (source != null) {
+            where.append(" AND ").append(equalsIgnoreCase("source", ci));
+            args.add(ci ? source : source.toLowerCase(Locale.ROOT));
+        }
+        if (tag != null) {
+            where.append(" AND ").append(equalsIgnoreCase("tag", ci));
+            args.add(ci ? tag : tag.toLowerCase(Locale.ROOT));
+        }
+        if (before != null) {
+            where.append(" AND review_date < ?");
+            args.add(Timestamp.valueOf(before));
+        }
+
+        List<Long> doomed = jdbc.queryForList(
+                "SELECT id FROM reviews WHERE " + where + " FOR UPDATE", Long.class, args.toArray());
+        if (doomed.isEmpty()) return doomed;
+
+        tombstoneAndDelete(null, doomed);   // locked by id above; the filter need not match again
+        return doomed;
+    }
+
+    // Same comparison as ReviewSpecifications: the bare column under a _ci collation (index and
+    // partition pruning still work), else LOWER(column) against a lower-cased value
+    private static String equalsIgnoreCase(String column, boolean ciCollation) {
+        return ciCollation ? column + " = ?" : "LOWER(" + column + ") = ?";
+    }
+
+    /**
+     * Up to {@code limit} rows with {@code review_date} before the cutoff and id above {@code afterId},
+     * in id order: the next segment's worth for the tiering job. Walks the primary key, so
+     * consecutive calls cover the table once.
+     */
+    public List<ColdRecord> findTieringCandidates(long afterId, LocalDateTime cutoff, int limit) {
+        return jdbc.query(
+                "SELECT id, source, external_id, author, rating, content, content_z, review_date, tag, " +
+                        "created_at, updated_at, import_generation FROM reviews " +
+                        "WHERE id > ? AND review_date < ? ORDER BY id LIMIT ?",
+                (rs, i) -> toColdRecord(rs), afterId, Timestamp.valueOf(cutoff), limit);
+    }
+
+    /**
+     * Remove rows that now live in the cold tier, in one short transaction. Only rows still at the
+     * {@code updated_at} that was copied are deleted; a row changed in the meantime stays hot.
+     * No tombstones and no events: the review still exists, it just moved.
+     *
+     * @param copiedUpdatedAt id → updated_at of the copy written to the segment
+     * @return ids actually deleted
+     */
+    @Transactional
+    public List<Long> deleteMovedChunk(Map<Long, LocalDateTime> copiedUpdatedAt) {
+        if (copiedUpdatedAt.isEmpty()) return Collections.emptyList();
+
+        List<Long> moved = new ArrayList<>(copiedUpdatedAt.size());
+        jdbc.query("SELECT id, updated_at FROM reviews WHERE id IN (" +
+                        String.join(",", Collections.nCopies(copiedUpdatedAt.size(), "?")) + ") FOR UPDATE",
+                rs -> {
+                    long id = rs.getLong(1);
+                    if (rs.getTimestamp(2).toLocalDateTime().equals(copiedUpdatedAt.get(id))) moved.add(id);
+                },
+                copiedUpdatedAt.keySet().toArray());
+        if (moved.isEmpty()) return moved;
+
+        jdbc.update("DELETE FROM reviews WHERE id IN (" + String.join(",", Collections.nCopies(moved.size(), "?")) + ")",
+                moved.toArray());
+        return moved;
+    }
+
+    /**
+     * Write tombstones for reviews deleted from the cold tier (they are no longer in {@code reviews},
+     * so {@link #tombstoneAndDelete} can't copy them from there). The published delete event makes
+     * {@link ColdStore} retire them after commit, and keeps the read model and caches in step.
+     * A review that is back in MySQL by now (promoted by an import) is left alone: it isn't cold any more.
+     *
+     * @return reviews tombstoned
+     */
+    @Transactional
+    public int tombstoneColdRows(List<ColdRecord> records) {
+        if (records.isEmpty()) return 0;
+        Object[] coldIds = records.stream().map(ColdRecord::id).toArray();
+        Set<Long> hot = new HashSet<>(jdbc.queryForList("SELECT id FROM reviews WHERE id IN (" +
+                String.join(",", Collections.nCopies(coldIds.length, "?")) + ") FOR UPDATE", Long.class, coldIds));
+        if (!hot.isEmpty()) {
+            records = records.stream().filter(r -> !hot.contains(r.id())).toList();
+            if (records.isEmpty()) return 0;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long seq = changeSequence.next();
+        jdbc.batchUpdate("INSERT INTO review_tombstones (review_id, source, external_id, deleted_at, change_seq) VALUES (?, ?, ?, ?, ?)",
+                records, records.size(), (ps, r) -> {
+                    ps.setLong(1, r.id());
+                    ps.setString(2, r.source());
+                    ps.setString(3, r.externalId());
+                    ps.setTimestamp(4, now);
+                    ps.setLong(5, seq);
+                });
+        List<Long> ids = new ArrayList<>(records.size());
+        for (ColdRecord r : records) ids.add(r.id());
+        events.publishEvent(new ReviewsDeletedEvent(ids));
+        return records.size();
+    }
+
+    /**
+     * Delete up to {@code limit} tombstones older than {@code before}, oldest first, in one short
+     * transaction, and remember the highest {@code change_seq} removed so the change feed can tell
+     * a cursor that is older than that (it may have missed deletes).
+     *
+     * @return tombstones deleted
+     */
+    @Transactional
+    public int pruneTombstones(LocalDateTime before, int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        long[] maxSeq = {0};
+        jdbc.query("SELECT id, change_seq FROM review_tombstones WHERE deleted_at < ? ORDER BY deleted_at, id LIMIT ?",
+                rs -> {
+                    ids.add(rs.getLong(1));
+                    maxSeq[0] = Math.max(maxSeq[0], rs.getLong(2));
+                },
+                Timestamp.valueOf(before), limit);
+        if (ids.isEmpty()) return 0;
+
+        jdbc.update("DELETE FROM review_tombstones WHERE id IN (" + String.join(",", Collections.nCopies(ids.size(), "?")) + ")",
+                ids.toArray());
+        changeSequence.recordPrunedTombstones(maxSeq[0]);
+        return ids.size();
+    }
+
+    private static ColdRecord toColdRecord(ResultSet rs) throws SQLException {
+        return new ColdRecord(
+                rs.getLong("id"),
+                rs.getString("source"),
+                rs.getString("external_id"),
+                rs.getString("author"),
+                rs.getObject("rating", Integer.class),
+                ContentCodec.fromColumns(rs.getString("content"), rs.getBytes("content_z")),
+                toLocal(rs.getTimestamp("review_date")),
+                rs.getString("tag"),
+                toLocal(rs.getTimestamp("created_at")),
+                toLocal(rs.getTimestamp("updated_at")),
+                rs.getObject("import_generation", Long.class));
+    }
+
+    private static LocalDateTime toLocal(Timestamp ts) {
+        return (ts == null) ? null : ts.toLocalDateTime();
+    }
+
+    /**
+     * Record tombstones for the change feed, then delete the rows, in the caller’s transaction.
+     * Callers have locked the rows already ({@code FOR UPDATE}), so the change feed number is taken
+     * after every row lock, as {@link ChangeSequence} requires.
+     * Publishing the delete event keeps derived state (read model, JSON cache, coalescing) in step.
+     *
+     * @param source if known, added to the WHERE so MySQL prunes to one partition; null otherwise
+     */
+    private void tombstoneAndDelete(String source, List<Long> ids) {
+        String in = String.join(",", Collections.nCopies(ids.size(), "?"));
+        String where = (source != null) ? "source = ? AND id IN (" + in + ")" : "id IN (" + in + ")";
+        List<Object> args = new ArrayList<>(ids.size() + 2);
+        if (source != null) args.add(source);
+        args.addAll(ids);
+
+        List<Object> tombArgs = new ArrayList<>(args.size() + 2);
+        tombArgs.add(Timestamp.valueOf(LocalDateTime.now()));
+        tombArgs.add(changeSequence.next());
+        tombArgs.addAll(args);
+        jdbc.update("INSERT INTO review_tombstones (review_id, source, external_id, deleted_at, change_seq) " +
+                "SELECT id, source, external_id, ?, ? FROM reviews WHERE " + where,
+                tombArgs.toArray());
+
+        jdbc.update("DELETE FROM reviews WHERE " + where, args.toArray());
+        events.publishEvent(new ReviewsDeletedEvent(ids));
+    }
+
     /**
      * Normalize JDBC batch results into a human-friendly "affected rows" count.
      *
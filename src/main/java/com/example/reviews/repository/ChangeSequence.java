@@ -0,0 +1,67 @@
+package com.example.reviews.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Commit-ordered sequence for the change feed ({@code change_seq} on reviews and tombstones).
+ *
+ * A timestamp taken while a transaction runs says nothing about when it commits: a slow writer
+ * can commit a row stamped "10:00:00" after a consumer already read past 10:00:05. Here every
+ * writing transaction takes its number from one counter row at the very end, after its own row
+ * locks. The counter row stays locked until that transaction commits or rolls back, so the next
+ * writer only gets {@code n + 1} once {@code n} is visible. Committed numbers therefore always form
+ * a prefix, and a consumer that has read up to {@code n} can never see a smaller one appear later.
+ *
+ * The price is that the last step of concurrent writers (stamp + commit) is serialized; the heavy
+ * part of each batch (the upsert itself) still runs in parallel.
+ *
+ * Rows from before this existed carry {@code change_seq = 0}, rows written by an open transaction
+ * carry {@link #PENDING} until it stamps them.
+ */
+@Component
+public class ChangeSequence {
+
+    /** Marker for rows written but not stamped yet; never visible outside the writing transaction. */
+    public static final long PENDING = -1;
+
+    private final JdbcTemplate jdbc;
+
+    public ChangeSequence(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Take the next number in the caller's transaction. Call it last, once the transaction holds
+     * its row locks: the counter stays locked until commit.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long next() {
+        while (true) {
+            if (jdbc.update("UPDATE review_change_seq SET seq = seq + 1 WHERE id = 1") == 1) {
+                Long seq = jdbc.queryForObject("SELECT seq FROM review_change_seq WHERE id = 1", Long.class);
+                return (seq == null) ? 0 : seq;
+            }
+            try {
+                jdbc.update("INSERT INTO review_change_seq (id, seq, pruned_tombstone_seq) VALUES (1, 0, 0)");
+            } catch (DuplicateKeyException raced) {
+                // Another writer created it first; take the next number from it
+            }
+        }
+    }
+
+    /** Highest {@code change_seq} of a tombstone removed by retention (0 = none yet). */
+    public long prunedTombstoneSeq() {
+        Long v = jdbc.query("SELECT pruned_tombstone_seq FROM review_change_seq WHERE id = 1",
+                rs -> rs.next() ? rs.getLong(1) : 0L);
+        return (v == null) ? 0 : v;
+    }
+
+    /** Record that tombstones up to {@code seq} are gone; never moves backwards. */
+    public void recordPrunedTombstones(long seq) {
+        jdbc.update("UPDATE review_change_seq SET pruned_tombstone_seq = GREATEST(pruned_tombstone_seq, ?) WHERE id = 1", seq);
+    }
+}
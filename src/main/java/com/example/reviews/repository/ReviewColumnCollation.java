@@ -0,0 +1,60 @@
+package com.example.reviews.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Tells whether {@code reviews.source} and {@code reviews.tag} really compare case-insensitively.
+ *
+ * The source/tag filters compare the bare column so MySQL can use the indexes and prune partitions;
+ * that is only correct under a {@code _ci} collation (the MySQL default, {@code utf8mb4_0900_ai_ci}
+ * or {@code utf8mb4_unicode_ci}). Nothing in the schema pins it, so we look it up once in
+ * {@code information_schema}. Anything else (a {@code _bin}/{@code _cs} collation, H2, a failed
+ * lookup) keeps the old {@code LOWER(column) = LOWER(?)} comparison: correct, but without the index.
+ */
+@Component
+public class ReviewColumnCollation {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewColumnCollation.class);
+
+    private final JdbcTemplate jdbc;
+    private volatile Boolean caseInsensitive;   // looked up on first use, once the table exists
+
+    public ReviewColumnCollation(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public boolean caseInsensitive() {
+        Boolean ci = caseInsensitive;
+        if (ci == null) {
+            ci = lookup();
+            caseInsensitive = ci;
+        }
+        return ci;
+    }
+
+    private boolean lookup() {
+        try {
+            List<String> collations = jdbc.queryForList(
+                    "SELECT COLLATION_NAME FROM information_schema.COLUMNS " +
+                            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'reviews' " +
+                            "AND COLUMN_NAME IN ('source', 'tag')",
+                    String.class);
+            boolean ci = collations.size() == 2 && collations.stream()
+                    .allMatch(c -> c != null && c.toLowerCase(Locale.ROOT).endsWith("_ci"));
+            if (!ci) {
+                log.warn("reviews.source/tag collations are {} (not case-insensitive); source/tag filters use LOWER() " +
+                        "and can't use their indexes", collations);
+            }
+            return ci;
+        } catch (RuntimeException ex) {
+            log.warn("Could not read the reviews.source/tag collation ({}); source/tag filters use LOWER()", ex.getMessage());
+            return false;
+        }
+    }
+}
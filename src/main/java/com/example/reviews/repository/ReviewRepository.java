@@ -1,10 +1,21 @@
 package com.example.reviews.repository;
 import com.example.reviews.model.entity.Review;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
 import java.util.Optional;
 
 public interface ReviewRepository
         extends JpaRepository<Review, Long>, JpaSpecificationExecutor<Review> {
 
     Optional<Review> findBySourceAndExternalId(String source, String externalId);
+
+    /** Reviews changed after the cursor position {@code (seq, id)}; served by idx_change_seq_id. */
+    @Query("select r from Review r " +
+            "where r.changeSeq > :seq or (r.changeSeq = :seq and r.id > :id) " +
+            "order by r.changeSeq asc, r.id asc")
+    List<Review> findChangedAfter(@Param("seq") long seq,
+                                  @Param("id") long id,
+                                  Pageable pageable);
 }
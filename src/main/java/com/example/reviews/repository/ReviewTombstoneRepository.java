@@ -0,0 +1,17 @@
+package com.example.reviews.repository;
+import com.example.reviews.model.entity.ReviewTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
+
+public interface ReviewTombstoneRepository extends JpaRepository<ReviewTombstone, Long> {
+
+    /** Tombstones after the cursor position {@code (seq, id)}; served by idx_tomb_change_seq_id. */
+    @Query("select t from ReviewTombstone t " +
+            "where t.changeSeq > :seq or (t.changeSeq = :seq and t.id > :id) " +
+            "order by t.changeSeq asc, t.id asc")
+    List<ReviewTombstone> findAfter(@Param("seq") long seq,
+                                    @Param("id") long id,
+                                    Pageable pageable);
+}
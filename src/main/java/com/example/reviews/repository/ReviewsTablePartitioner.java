@@ -0,0 +1,66 @@
+package com.example.reviews.repository;
+
+import com.example.reviews.config.StorageProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-time switch of the {@code reviews} table to source partitioning.
+ *
+ * Why KEY(source) and not LIST(source)?
+ * - LIST needs every source spelled out up front, and MySQL has no DEFAULT partition,
+ *   so a new provider would make inserts fail. KEY hashes any value into a fixed set of partitions.
+ * - Equality filters on {@code source} still prune to a single partition, which is exactly
+ *   what {@code ReviewSpecifications.source} produces under a case-insensitive collation
+ *   (see {@code ReviewColumnCollation}).
+ *
+ * MySQL rule: every unique key must contain the partitioning column. `uk_source_external`
+ * already does; the primary key is widened from {@code (id)} to {@code (id, source)}.
+ * `id` stays AUTO_INCREMENT and unique in practice, so JPA keeps treating it as the identifier.
+ *
+ * Runs before the startup import (Hibernate has created/updated the table by then) and is a
+ * no-op once the table is partitioned. Re-partitioning to a different count is an offline job;
+ * we only log a hint here.
+ */
+@Component
+@Order(0)
+public class ReviewsTablePartitioner implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewsTablePartitioner.class);
+
+    private final JdbcTemplate jdbc;
+    private final StorageProperties props;
+
+    public ReviewsTablePartitioner(JdbcTemplate jdbc, StorageProperties props) {
+        this.jdbc = jdbc;
+        this.props = props;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (!props.isPartitionBySource()) return;
+
+        Integer existing = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.PARTITIONS " +
+                        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'reviews' AND PARTITION_NAME IS NOT NULL",
+                Integer.class);
+
+        if (existing != null && existing > 0) {
+            if (existing != props.getPartitions()) {
+                log.info("reviews is already partitioned into {} partitions (configured {}); leaving as is.",
+                        existing, props.getPartitions());
+            }
+            return;
+        }
+
+        int partitions = Math.max(1, props.getPartitions());
+        log.info("Partitioning reviews by KEY(source) into {} partitions ...", partitions);
+        jdbc.execute("ALTER TABLE reviews DROP PRIMARY KEY, ADD PRIMARY KEY (id, source)");
+        jdbc.execute("ALTER TABLE reviews PARTITION BY KEY(source) PARTITIONS " + partitions);
+        log.info("reviews partitioned by source.");
+    }
+}
@@ -4,25 +4,63 @@ import com.example.reviews.model.entity.Review;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.StringUtils;
 
+import java.time.LocalDateTime;
+import java.util.Locale;
+
 /**
  * JPA Specifications for filtering Review entities.
  * Keeps filter logic reusable and composable.
+ *
+ * Every filter compares the bare column (no functions around it) so MySQL can use the
+ * composite indexes declared on {@link Review}; see {@code ReviewQueryPlanner}. The one
+ * exception is source/tag on a database whose collation isn't case-insensitive
+ * (see {@code ReviewColumnCollation}), where correctness wins over the index.
  */
 public final class ReviewSpecifications {
 
     private ReviewSpecifications() {} // utility class
 
-    /** Case-insensitive filter by source */
-    public static Specification<Review> source(String source) {
-        if (!StringUtils.hasText(source)) return null;
-        String s = source.trim().toLowerCase();
-        return (root, cq, cb) -> cb.equal(cb.lower(root.get("source")), s);
+    /**
+     * Case-insensitive filter by source.
+     * With a case-insensitive column collation the bare column is compared (no LOWER()), so MySQL
+     * can use the index and prune partitions; otherwise both sides are lower-cased.
+     *
+     * @param ciCollation whether the column's collation already ignores case
+     */
+    public static Specification<Review> source(String source, boolean ciCollation) {
+        return equalsIgnoreCase("source", source, ciCollation);
+    }
+
+    /** Case-insensitive filter by tag; same rules as {@link #source}. */
+    public static Specification<Review> tag(String tag, boolean ciCollation) {
+        return equalsIgnoreCase("tag", tag, ciCollation);
+    }
+
+    private static Specification<Review> equalsIgnoreCase(String attribute, String value, boolean ciCollation) {
+        if (!StringUtils.hasText(value)) return null;
+        String v = value.trim();
+        if (ciCollation) return (root, cq, cb) -> cb.equal(root.get(attribute), v);
+        String lower = v.toLowerCase(Locale.ROOT);
+        return (root, cq, cb) -> cb.equal(cb.lower(root.get(attribute)), lower);
+    }
+
+    /** Inclusive rating bounds; either may be null. Rows without a rating never match. */
+    public static Specification<Review> ratingBetween(Integer min, Integer max) {
+        if (min == null && max == null) return null;
+        if (max == null) return (root, cq, cb) -> cb.greaterThanOrEqualTo(root.get("rating"), min);
+        if (min == null) return (root, cq, cb) -> cb.lessThanOrEqualTo(root.get("rating"), max);
+        return (root, cq, cb) -> cb.between(root.get("rating"), min, max);
     }
 
-    /** Case-insensitive filter by tag */
-    public static Specification<Review> tag(String tag) {
-        if (!StringUtils.hasText(tag)) return null;
-        String t = tag.trim().toLowerCase();
-        return (root, cq, cb) -> cb.equal(cb.lower(root.get("tag")), t);
+    /** Review date in {@code [from, before)}; either may be null. Rows without a date never match. */
+    public static Specification<Review> reviewDateBetween(LocalDateTime from, LocalDateTime before) {
+        if (from == null && before == null) return null;
+        return (root, cq, cb) -> {
+            if (before == null) return cb.greaterThanOrEqualTo(root.get("reviewDate"), from);
+            if (from == null) return cb.lessThan(root.get("reviewDate"), before);
+            return cb.and(
+                    cb.greaterThanOrEqualTo(root.get("reviewDate"), from),
+                    cb.lessThan(root.get("reviewDate"), before));
+        };
     }
 }
@@ -0,0 +1,279 @@
+package com.example.reviews.service;
+
+import com.example.reviews.config.BulkDeleteProperties;
+import com.example.reviews.config.ReadYourWritesTracker;
+import com.example.reviews.model.dto.DeleteJobDto;
+import com.example.reviews.repository.BulkReviewRepository;
+import com.example.reviews.tiering.ColdStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Deletes all reviews matching a filter (source, tag, review date before) as a background job.
+ *
+ * Why not one {@code DELETE ... WHERE source = ?}: that statement would lock millions of rows
+ * for its whole duration and stall imports and reads. Instead the job walks the primary key in
+ * windows of {@code window-size} ids:
+ * <ol>
+ *   <li>One short transaction per window: lock the matching rows in the window, write tombstones,
+ *       delete them (see {@link BulkReviewRepository#deleteMatchingInWindow}). The window bounds what
+ *       is scanned and locked regardless of how many rows match.</li>
+ *   <li>The delete event published per window keeps the read model, JSON cache and coalescing
+ *       in step, and the tombstones put every delete into the change feed, exactly like single deletes.</li>
+ *   <li>Pause {@code pause-ms} after each window that deleted something; empty id ranges are skipped.</li>
+ *   <li>Each window takes an import connection permit ({@link ImportConnectionLimiter}), so a
+ *       delete job can’t starve API reads either.</li>
+ * </ol>
+ * The id range is fixed when the job starts, so rows imported afterwards are left alone.
+ * Progress is the share of that range already walked.
+ *
+ * With the cold tier enabled, matching cold reviews are deleted first, {@code window-size} at a
+ * time: tombstones in one transaction ({@link BulkReviewRepository#tombstoneColdRows}), then the
+ * delete event retires them from the segments. Progress then counts the segment rows scanned
+ * plus the ids walked, out of both together.
+ *
+ * Jobs run one at a time, in order; cancelling stops a running job after its current window.
+ * Job state is kept in memory only: after a restart, re-issue the delete (it is idempotent).
+ */
+@Service
+public class BulkDeleteService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkDeleteService.class);
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, CANCELLED, FAILED }
+
+    private final BulkReviewRepository repo;
+    private final BulkDeleteProperties props;
+    private final ImportConnectionLimiter connections;
+    private final ReadYourWritesTracker readYourWrites;
+    private final ObjectProvider<ColdStore> coldStore;  // optional cold tier
+    private final ExecutorService executor;          // single background thread: one job at a time
+    private final Map<String, Job> jobs = new LinkedHashMap<>();   // guarded by itself, oldest first
+
+    public BulkDeleteService(BulkReviewRepository repo,
+                             BulkDeleteProperties props,
+                             ImportConnectionLimiter connections,
+                             ReadYourWritesTracker readYourWrites,
+                             ObjectProvider<ColdStore> coldStore) {
+        this.repo = repo;
+        this.props = props;
+        this.connections = connections;
+        this.readYourWrites = readYourWrites;
+        this.coldStore = coldStore;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "review-bulk-delete");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Queue a delete job.
+     *
+     * @throws IllegalArgumentException if no filter is given (→ 400); "delete everything" is not an API call
+     */
+    public DeleteJobDto start(String source, String tag, LocalDate before) {
+        String s = StringUtils.hasText(source) ? source.trim() : null;
+        String t = StringUtils.hasText(tag) ? tag.trim() : null;
+        if (s == null && t == null && before == null) {
+            throw new IllegalArgumentException("At least one of source, tag or before is required");
+        }
+
+        Job job = new Job(UUID.randomUUID().toString(), s, t, before);
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+            evictFinished();
+        }
+        executor.submit(() -> run(job));
+        log.info("Delete job {} queued (source={}, tag={}, before={})", job.id, s, t, before);
+        return job.toDto();
+    }
+
+    /** Current state of a job. */
+    public DeleteJobDto get(String id) {
+        return find(id).toDto();
+    }
+
+    /** Request cancellation; a queued job never starts, a running one stops after its current window. */
+    public DeleteJobDto cancel(String id) {
+        Job job = find(id);
+        job.cancelRequested = true;
+        synchronized (job) {
+            if (job.status == Status.QUEUED) finish(job, Status.CANCELLED, null);
+        }
+        return job.toDto();
+    }
+
+    private Job find(String id) {
+        Job job;
+        synchronized (jobs) {
+            job = jobs.get(id);
+        }
+        if (job == null) throw new ReviewService.NotFoundException("Delete job " + id + " not found");
+        return job;
+    }
+
+    private void run(Job job) {
+        synchronized (job) {
+            if (job.status != Status.QUEUED) return;   // cancelled while queued
+            job.status = Status.RUNNING;
+            job.startedAt = LocalDateTime.now();
+        }
+        try {
+            LocalDateTime before = (job.before != null) ? job.before.atStartOfDay() : null;
+            int window = Math.max(1, props.getWindowSize());
+
+            // Both ranges up front, so progress covers the cold pass as well
+            Long first = repo.firstIdFrom(0);
+            Long last = repo.maxId();
+            if (first != null && last != null) {
+                job.firstId = first;
+                job.lastId = last;
+            }
+            ColdStore cold = coldStore.getIfAvailable();
+            if (cold != null) {
+                job.coldRows = cold.rowCount();
+                if (!deleteCold(job, cold, before, window)) return;
+            }
+
+            if (first == null || last == null) {
+                finish(job, Status.COMPLETED, null);
+                return;
+            }
+
+            long from = first;
+            while (from <= last) {
+                if (job.cancelRequested) {
+                    finish(job, Status.CANCELLED, null);
+                    return;
+                }
+                long to = Math.min(from + window, last + 1);
+                long windowFrom = from;
+                List<Long> deleted = connections.call(
+                        () -> repo.deleteMatchingInWindow(job.source, job.tag, before, windowFrom, to));
+                job.deleted += deleted.size();
+                job.doneUpTo = to;
+
+                if (!deleted.isEmpty() && props.getPauseMs() > 0) Thread.sleep(props.getPauseMs());
+
+                Long next = (to <= last) ? repo.firstIdFrom(to) : null;   // jump over id gaps
+                if (next == null) break;
+                from = next;
+            }
+            job.doneUpTo = last + 1;
+            finish(job, Status.COMPLETED, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finish(job, Status.CANCELLED, "Interrupted");
+        } catch (Exception e) {
+            log.error("Delete job {} failed after {} row(s).", job.id, job.deleted, e);
+            finish(job, Status.FAILED, e.getMessage());
+        }
+    }
+
+    /** Cold pass; false if the job was cancelled meanwhile (and is finished). */
+    private boolean deleteCold(Job job, ColdStore cold, LocalDateTime before, int window) throws InterruptedException {
+        long position = 0;
+        while (position >= 0) {
+            if (job.cancelRequested) {
+                finish(job, Status.CANCELLED, null);
+                return false;
+            }
+            ColdStore.Batch batch = cold.matching(job.source, job.tag, before, position, window);
+            if (!batch.records().isEmpty()) {
+                job.deleted += connections.call(() -> repo.tombstoneColdRows(batch.records()));
+                if (props.getPauseMs() > 0) Thread.sleep(props.getPauseMs());
+            }
+            job.coldScanned += batch.scanned();
+            position = batch.next();
+        }
+        return true;
+    }
+
+    private void finish(Job job, Status status, String error) {
+        synchronized (job) {
+            job.status = status;
+            job.error = error;
+            job.finishedAt = LocalDateTime.now();
+        }
+        // Once, not per window: the pin is process-wide and would route every read to the primary
+        // (and turn coalescing off) for the whole job. A client that polls the job and then reads
+        // sees its deletes; during the job nobody is waiting on them.
+        if (job.deleted > 0) readYourWrites.recordWrite();
+        log.info("Delete job {} {}: {} row(s) deleted", job.id, status, job.deleted);
+    }
+
+    // Bound memory: drop the oldest finished jobs beyond retain-jobs (caller holds the jobs lock)
+    private void evictFinished() {
+        int excess = jobs.size() - Math.max(1, props.getRetainJobs());
+        for (Iterator<Job> it = jobs.values().iterator(); it.hasNext() && excess > 0; ) {
+            Job j = it.next();
+            if (j.finishedAt != null) {
+                it.remove();
+                excess--;
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Mutable job state; counters are written by the job thread only. */
+    private static final class Job {
+        final String id;
+        final String source;
+        final String tag;
+        final LocalDate before;
+        final LocalDateTime createdAt = LocalDateTime.now();
+
+        volatile Status status = Status.QUEUED;
+        volatile boolean cancelRequested;
+        volatile long deleted;
+        volatile long firstId;
+        volatile long lastId;      // 0: no hot rows when the job started
+        volatile long doneUpTo;
+        volatile long coldRows;    // segment rows when the job started
+        volatile long coldScanned;
+        volatile LocalDateTime startedAt;
+        volatile LocalDateTime finishedAt;
+        volatile String error;
+
+        Job(String id, String source, String tag, LocalDate before) {
+            this.id = id;
+            this.source = source;
+            this.tag = tag;
+            this.before = before;
+        }
+
+        double progress() {
+            if (status == Status.COMPLETED) return 1.0;
+            long span = (lastId == 0) ? 0 : lastId - firstId + 1;
+            long total = coldRows + span;
+            if (startedAt == null || total <= 0) return 0.0;
+            // Segments written during the job are scanned too: don't let the cold pass overshoot
+            long done = Math.min(coldScanned, coldRows) + ((doneUpTo == 0) ? 0 : doneUpTo - firstId);
+            return Math.min(1.0, (double) done / total);
+        }
+
+        DeleteJobDto toDto() {
+            return new DeleteJobDto(id, status.name(), source, tag, before, deleted, progress(),
+                    createdAt, startedAt, finishedAt, error);
+        }
+    }
+}
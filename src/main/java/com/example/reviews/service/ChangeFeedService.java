@@ -0,0 +1,222 @@
+package com.example.reviews.service;
+
+import com.example.reviews.config.ChangeFeedProperties;
+import com.example.reviews.mapper.ReviewMapper;
+import com.example.reviews.model.dto.ChangeDto;
+import com.example.reviews.model.dto.ChangeFeedDto;
+import com.example.reviews.model.entity.Review;
+import com.example.reviews.model.entity.ReviewTombstone;
+import com.example.reviews.repository.ChangeSequence;
+import com.example.reviews.repository.ReviewRepository;
+import com.example.reviews.repository.ReviewTombstoneRepository;
+import com.example.reviews.tiering.ColdRecord;
+import com.example.reviews.tiering.ColdStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Incremental change feed: everything inserted, updated or deleted since a cursor.
+ *
+ * How it works:
+ * <ul>
+ *   <li>Two ordered streams, each read through its own index: reviews and tombstones, both by
+ *       {@code (change_seq, id)}.</li>
+ *   <li>{@code change_seq} is taken at the end of each writing transaction from a counter whose
+ *       lock is held until commit ({@link ChangeSequence}), so numbers become visible strictly in
+ *       order: once a cursor has passed {@code n}, nothing at or below {@code n} can still appear.
+ *       No time-based margin is needed, however long a writer takes to commit.</li>
+ *   <li>The cursor holds one position per stream. A batch reads up to {@code limit + 1} entries
+ *       after each position, merges them by sequence, keeps the first {@code limit}, and advances
+ *       each position past what it actually returned.</li>
+ *   <li>Tombstones are pruned after {@code tombstone-retention-days}. A cursor older than the
+ *       newest pruned tombstone may have missed deletes and is refused with
+ *       {@link CursorExpiredException}; the consumer starts again from scratch.</li>
+ *   <li>With the cold tier enabled, moving a review out of MySQL is not a change, so it is not in
+ *       either stream. A consumer that starts from scratch gets the cold reviews as upserts once it
+ *       has caught up with both streams: the cursor then walks the segments ({@link ColdStore#matching})
+ *       before following the streams again. Reviews moved while it caught up are in a segment by
+ *       then; ones promoted or deleted during the walk come later through the streams.</li>
+ * </ul>
+ * A consumer polling an idle table costs two empty index range reads, no matter how big the table is.
+ * A review updated several times between polls is returned once, in its latest state.
+ */
+@Service
+public class ChangeFeedService {
+
+    private final ReviewRepository reviewRepository;
+    private final ReviewTombstoneRepository tombstoneRepository;
+    private final ReviewMapper reviewMapper;
+    private final ChangeFeedProperties props;
+    private final ChangeSequence changeSequence;
+    private final ObjectProvider<ColdStore> coldStore;   // optional cold tier
+
+    public ChangeFeedService(ReviewRepository reviewRepository,
+                             ReviewTombstoneRepository tombstoneRepository,
+                             ReviewMapper reviewMapper,
+                             ChangeFeedProperties props,
+                             ChangeSequence changeSequence,
+                             ObjectProvider<ColdStore> coldStore) {
+        this.reviewRepository = reviewRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.reviewMapper = reviewMapper;
+        this.props = props;
+        this.changeSequence = changeSequence;
+        this.coldStore = coldStore;
+    }
+
+    /**
+     * @param since cursor from a previous batch; null/blank starts from the beginning
+     * @param limit max changes to return (clamped to 1..max-batch; null → default)
+     * @throws CursorExpiredException if tombstones after the cursor have been pruned
+     */
+    @Transactional(readOnly = true)
+    public ChangeFeedDto changes(String since, Integer limit) {
+        int n = Math.min(Math.max((limit == null) ? props.getDefaultBatch() : limit, 1), props.getMaxBatch());
+        Cursor cursor = Cursor.decode(since);
+
+        // Everything below the cursor's furthest position has been delivered (batches are merged
+        // prefixes of both streams), so only deletes from there on must still be on record
+        long position = Math.max(cursor.reviewSeq, cursor.deleteSeq);
+        long pruned = changeSequence.prunedTombstoneSeq();
+        if (position > 0 && position < pruned) {
+            throw new CursorExpiredException("Change feed cursor is older than the tombstone retention ("
+                    + props.getTombstoneRetentionDays() + " days); start again without 'since'");
+        }
+
+        // Walking the cold tier after the initial catch-up
+        if (cursor.coldPosition >= 0) {
+            ChangeFeedDto cold = coldBatch(cursor, n);
+            if (cold != null) return cold;
+            cursor = cursor.withCold(Cursor.COLD_DONE);
+        }
+
+        PageRequest firstN = PageRequest.of(0, n + 1);
+        List<Review> upserts = reviewRepository.findChangedAfter(cursor.reviewSeq, cursor.reviewId, firstN);
+        List<ReviewTombstone> deletes = tombstoneRepository.findAfter(cursor.deleteSeq, cursor.deleteId, firstN);
+
+        // Merge both streams by sequence; ties: upserts first (a later delete then wins on the consumer side)
+        List<ChangeDto> out = new ArrayList<>(n);
+        int i = 0, j = 0;
+        long rSeq = cursor.reviewSeq, dSeq = cursor.deleteSeq;
+        long rId = cursor.reviewId, dId = cursor.deleteId;
+        while (out.size() < n && (i < upserts.size() || j < deletes.size())) {
+            boolean takeUpsert = j >= deletes.size()
+                    || (i < upserts.size() && upserts.get(i).getChangeSeq() <= deletes.get(j).getChangeSeq());
+            if (takeUpsert) {
+                Review r = upserts.get(i++);
+                out.add(new ChangeDto(ChangeDto.Type.UPSERT, r.getId(), r.getSource(), r.getExternalId(),
+                        r.getUpdatedAt(), reviewMapper.toDto(r)));
+                rSeq = r.getChangeSeq();
+                rId = r.getId();
+            } else {
+                ReviewTombstone t = deletes.get(j++);
+                out.add(new ChangeDto(ChangeDto.Type.DELETE, t.getReviewId(), t.getSource(), t.getExternalId(),
+                        t.getDeletedAt(), null));
+                dSeq = t.getChangeSeq();
+                dId = t.getId();
+            }
+        }
+
+        boolean hasMore = i < upserts.size() || j < deletes.size();
+        Cursor next = new Cursor(rSeq, rId, dSeq, dId, cursor.coldPosition);
+
+        // Caught up for the first time: the cold reviews are next
+        if (!hasMore && cursor.coldPosition == Cursor.COLD_PENDING) {
+            ColdStore cold = coldStore.getIfAvailable();
+            next = next.withCold((cold != null && !cold.isEmpty()) ? 0 : Cursor.COLD_DONE);
+            if (next.coldPosition == 0) {
+                if (out.isEmpty()) {
+                    ChangeFeedDto first = coldBatch(next, n);
+                    if (first != null) return first;
+                    next = next.withCold(Cursor.COLD_DONE);
+                } else {
+                    hasMore = true;
+                }
+            }
+        }
+        return new ChangeFeedDto(out, next.encode(), hasMore);
+    }
+
+    /**
+     * Next live cold reviews from the cursor's segment position, or null once none are left.
+     * Always reports more: the streams may have grown meanwhile.
+     */
+    private ChangeFeedDto coldBatch(Cursor cursor, int n) {
+        ColdStore cold = coldStore.getIfAvailable();
+        if (cold == null) return null;
+        ColdStore.Batch batch = cold.matching(null, null, null, cursor.coldPosition, n);
+        if (batch.records().isEmpty()) return null;
+
+        List<ChangeDto> out = new ArrayList<>(batch.records().size());
+        for (ColdRecord r : batch.records()) {
+            out.add(new ChangeDto(ChangeDto.Type.UPSERT, r.id(), r.source(), r.externalId(), r.updatedAt(), r.toDto()));
+        }
+        long next = (batch.next() < 0) ? Cursor.COLD_DONE : batch.next();
+        return new ChangeFeedDto(out, cursor.withCold(next).encode(), true);
+    }
+
+    /** The cursor points behind pruned tombstones; maps to 410 Gone. */
+    public static class CursorExpiredException extends RuntimeException {
+        public CursorExpiredException(String m) { super(m); }
+    }
+
+    /**
+     * Position in both streams, plus where the initial walk over the cold tier stands. Encoded as
+     * base64url text so clients treat it as opaque.
+     * v1 cursors (timestamp positions, before the feed was commit-ordered) restart from the
+     * beginning: replaying is safe, skipping is not. v2 cursors (before the cold walk) keep their
+     * positions and skip the walk; their consumers can start again without a cursor to get it.
+     */
+    private record Cursor(long reviewSeq, long reviewId, long deleteSeq, long deleteId, long coldPosition) {
+
+        private static final String VERSION = "v3";
+        private static final String V2 = "v2";
+        private static final String LEGACY_VERSION = "v1";
+
+        /** coldPosition: not caught up yet, the cold walk is still ahead. */
+        static final long COLD_PENDING = -2;
+        /** coldPosition: cold walk done (or no cold tier); values >= 0 are a {@link ColdStore#matching} position. */
+        static final long COLD_DONE = -1;
+
+        private static final Cursor BEGINNING = new Cursor(0, 0, 0, 0, COLD_PENDING);
+
+        Cursor withCold(long position) {
+            return new Cursor(reviewSeq, reviewId, deleteSeq, deleteId, position);
+        }
+
+        String encode() {
+            String raw = String.join("|", VERSION,
+                    Long.toString(reviewSeq), Long.toString(reviewId),
+                    Long.toString(deleteSeq), Long.toString(deleteId), Long.toString(coldPosition));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            if (!StringUtils.hasText(cursor)) return BEGINNING;
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+                String[] p = raw.split("\\|");
+                if (p.length == 5 && LEGACY_VERSION.equals(p[0])) return BEGINNING;
+                if (p.length == 5 && V2.equals(p[0])) {
+                    return new Cursor(Long.parseLong(p[1]), Long.parseLong(p[2]),
+                            Long.parseLong(p[3]), Long.parseLong(p[4]), COLD_DONE);
+                }
+                if (p.length != 6 || !VERSION.equals(p[0])) throw new IllegalArgumentException("bad layout");
+                long cold = Long.parseLong(p[5]);
+                if (cold < COLD_PENDING) throw new IllegalArgumentException("bad cold position");
+                return new Cursor(Long.parseLong(p[1]), Long.parseLong(p[2]),
+                        Long.parseLong(p[3]), Long.parseLong(p[4]), cold);
+            } catch (RuntimeException ex) {
+                throw new IllegalArgumentException("Invalid change feed cursor: " + cursor);
+            }
+        }
+    }
+}
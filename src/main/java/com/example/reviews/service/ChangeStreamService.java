@@ -0,0 +1,86 @@
+package com.example.reviews.service;
+
+import com.example.reviews.config.ChangeFeedProperties;
+import com.example.reviews.model.dto.ChangeFeedDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Server-Sent Events mode of the change feed (long-poll).
+ *
+ * The stream polls {@link ChangeFeedService} on a small shared scheduler and pushes every
+ * non-empty batch as a {@code changes} event whose SSE id is the next cursor. When the stream
+ * times out the client reconnects with the last cursor (EventSource does this on its own via
+ * {@code Last-Event-ID}), so nothing is lost between streams. No request thread is held.
+ */
+@Service
+public class ChangeStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeStreamService.class);
+
+    private final ChangeFeedService feed;
+    private final ChangeFeedProperties props;
+    private final ScheduledExecutorService scheduler;
+
+    public ChangeStreamService(ChangeFeedService feed, ChangeFeedProperties props) {
+        this.feed = feed;
+        this.props = props;
+        this.scheduler = Executors.newScheduledThreadPool(2, r -> {
+            Thread t = new Thread(r, "change-stream");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public SseEmitter stream(String since, Integer limit) {
+        SseEmitter emitter = new SseEmitter(props.getStreamTimeoutMs());
+        AtomicReference<String> cursor = new AtomicReference<>(since);
+        AtomicReference<ScheduledFuture<?>> task = new AtomicReference<>();
+
+        Runnable poll = () -> {
+            try {
+                // Drain everything available, then wait for the next tick
+                ChangeFeedDto batch;
+                do {
+                    batch = feed.changes(cursor.get(), limit);
+                    if (batch.changes().isEmpty()) break;
+                    emitter.send(SseEmitter.event().name("changes").id(batch.nextCursor()).data(batch));
+                    cursor.set(batch.nextCursor());
+                } while (batch.hasMore());
+            } catch (Exception ex) {
+                log.debug("Change stream closed: {}", ex.getMessage());
+                cancel(task);
+                emitter.completeWithError(ex);
+            }
+        };
+
+        emitter.onCompletion(() -> cancel(task));
+        emitter.onTimeout(() -> {
+            cancel(task);
+            emitter.complete();
+        });
+        emitter.onError(ex -> cancel(task));
+
+        task.set(scheduler.scheduleWithFixedDelay(poll, 0, props.getPollIntervalMs(), TimeUnit.MILLISECONDS));
+        return emitter;
+    }
+
+    private static void cancel(AtomicReference<ScheduledFuture<?>> task) {
+        ScheduledFuture<?> f = task.get();
+        if (f != null) f.cancel(false);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.reviews.service;
+
+import com.example.reviews.config.ReadProperties;
+import com.example.reviews.config.ReadYourWritesTracker;
+import com.example.reviews.event.ReviewsDeletedEvent;
+import com.example.reviews.event.ReviewsUpsertedEvent;
+import com.example.reviews.model.dto.ReviewDto;
+import com.example.reviews.model.dto.ReviewQuery;
+import com.example.reviews.util.SingleFlight;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Request coalescing in front of {@link ReviewService#search} and {@link ReviewService#get}
+ * ({@code reviews.read.coalescing.enabled=true}).
+ *
+ * Why: when a product page goes viral, hundreds of identical {@code GET /reviews?source=X&page=1}
+ * or {@code GET /reviews/{id}} requests arrive at once and each ran its own page + count query.
+ * Now the first one runs and the rest wait for its result ({@link SingleFlight}), so MySQL sees
+ * one query per distinct request no matter how many clients ask, with or without caching.
+ *
+ * Details:
+ * - This sits outside {@link ReviewService}’s transactions: waiters don’t hold a DB connection.
+ * - Results are shared only between requests that overlap in time; nothing is kept afterwards.
+ * - Every committed write bumps a write epoch that is part of the key, so a request that starts
+ *   after a write never joins a query that started before it (no stale reads after a delete).
+ *   Requests inside the read-your-writes window skip coalescing altogether.
+ * - A waiter that runs out of {@code timeout-ms} gets {@link BusyException} (503); an error in the
+ *   shared execution (e.g. 404) is rethrown to every waiter.
+ */
+@Service
+public class CoalescingReviewService {
+
+    private final ReviewService reviewService;
+    private final ReadYourWritesTracker readYourWrites;
+    private final boolean enabled;
+    private final long timeoutMs;
+
+    private final SingleFlight<SearchKey, Page<ReviewDto>> searches = new SingleFlight<>();
+    private final SingleFlight<GetKey, ReviewDto> gets = new SingleFlight<>();
+    private final AtomicLong writeEpoch = new AtomicLong();
+
+    public CoalescingReviewService(ReviewService reviewService,
+                                   ReadYourWritesTracker readYourWrites,
+                                   ReadProperties props) {
+        this.reviewService = reviewService;
+        this.readYourWrites = readYourWrites;
+        this.enabled = props.getCoalescing().isEnabled();
+        this.timeoutMs = props.getCoalescing().getTimeoutMs();
+    }
+
+    /** Same contract as {@link ReviewService#search}. */
+    public Page<ReviewDto> search(ReviewQuery query, int page, int size) {
+        if (!coalesce()) return reviewService.search(query, page, size);
+        SearchKey key = new SearchKey(query, page, size, writeEpoch.get());
+        return run(searches, key, () -> reviewService.search(query, page, size));
+    }
+
+    /** Same contract as {@link ReviewService#get}. */
+    public ReviewDto get(Long id) {
+        if (!coalesce()) return reviewService.get(id);
+        return run(gets, new GetKey(id, writeEpoch.get()), () -> reviewService.get(id));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUpserted(ReviewsUpsertedEvent event) {
+        writeEpoch.incrementAndGet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDeleted(ReviewsDeletedEvent event) {
+        writeEpoch.incrementAndGet();
+    }
+
+    private boolean coalesce() {
+        return enabled && !readYourWrites.pinnedToPrimary();
+    }
+
+    private <K, V> V run(SingleFlight<K, V> flights, K key, Callable<V> loader) {
+        try {
+            return flights.execute(key, loader, timeoutMs);
+        } catch (TimeoutException e) {
+            throw new BusyException("Timed out after " + timeoutMs + " ms waiting for an identical in-flight query");
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // ReviewQuery is already normalized (trimmed, blanks → null), so equal requests give equal keys
+    private record SearchKey(ReviewQuery query, int page, int size, long epoch) {}
+
+    private record GetKey(Long id, long epoch) {}
+
+    // Thrown when a request gave up waiting on a shared query
+    public static class BusyException extends RuntimeException {
+        public BusyException(String m) { super(m); }
+    }
+}
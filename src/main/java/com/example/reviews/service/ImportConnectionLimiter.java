@@ -0,0 +1,76 @@
+package com.example.reviews.service;
+
+import com.example.reviews.config.ImportProperties;
+import com.example.reviews.config.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Caps how many DB connections import-side work (writer lanes, deletion sweep) holds at once.
+ *
+ * Why: the importer and the API share one Hikari pool. With several writer lanes plus a sweep,
+ * a running import could hold most connections for whole batches and leave API reads waiting
+ * for the pool until they time out. With {@code reviews.import.max-connections=N} import work
+ * queues here (in the importer, not in the pool) and at least {@code poolSize - N} connections
+ * stay available to reads.
+ */
+@Component
+public class ImportConnectionLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportConnectionLimiter.class);
+
+    private final Semaphore permits;
+    private final int max;
+    private final Integer poolSize;   // primary pool, null if unknown
+
+    public ImportConnectionLimiter(ImportProperties props, DataSource dataSource) {
+        this.max = Math.max(1, props.getMaxConnections());
+        this.permits = new Semaphore(max, true);   // fair: lanes take turns
+
+        this.poolSize = poolSize(dataSource);
+        if (poolSize != null && max >= poolSize) {
+            log.warn("reviews.import.max-connections={} is not below the pool size ({}); a running import can still starve reads.",
+                    max, poolSize);
+        }
+    }
+
+    /** Run one unit of DB work (one batch/transaction) once a connection permit is free. */
+    public <T> T call(Supplier<T> work) throws InterruptedException {
+        permits.acquire();
+        try {
+            return work.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int maxConnections() {
+        return max;
+    }
+
+    Integer poolSize() {
+        return poolSize;
+    }
+
+    private static Integer poolSize(DataSource dataSource) {
+        try {
+            // With read replicas, unwrapping the routing datasource to Hikari would depend on the
+            // current routing key; import work always writes, so the primary pool is the one to compare
+            if (dataSource.isWrapperFor(ReadWriteRoutingDataSource.class)) {
+                return dataSource.unwrap(ReadWriteRoutingDataSource.class).primary().getMaximumPoolSize();
+            }
+            return dataSource.isWrapperFor(HikariDataSource.class)
+                    ? dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize()
+                    : null;
+        } catch (SQLException | RuntimeException e) {
+            return null;   // unknown pool: nothing to compare against
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.reviews.service;
+
+import com.example.reviews.config.ImportProperties;
+import com.example.reviews.config.StorageProperties;
+import com.example.reviews.model.upstream.ReviewInDto;
+import com.example.reviews.repository.BulkReviewRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DeadlockLoserDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Parallel write stage of the import pipeline.
+ *
+ * How it works:
+ * <ul>
+ *   <li>{@code reviews.import.parallelism} writer lanes, each a single thread with its own
+ *       connection and transaction per batch (via {@link BulkReviewRepository#upsertBatch}).</li>
+ *   <li>A row goes to lane {@code hash(lower(source), lower(external_id)) mod N}. The unique key
+ *       compares case-insensitively, so the hash does too: no two lanes ever touch the same unique
+ *       key, and a key always lands on the same lane, so updates of one review stay in page order.</li>
+ *   <li>With {@code reviews.storage.partition-by-source} the lane is {@code hash(lower(source)) mod N}
+ *       instead, so each lane writes into one partition and lanes never contend on a partition's
+ *       indexes. The trade-off: a page from a single source is written by one lane. Without
+ *       partitioning, rows of one source spread over all lanes.</li>
+ *   <li>Each lane’s rows are sorted by key before writing, so locks are taken in the same order.
+ *       InnoDB can still pick a deadlock victim over neighbouring gap locks; the upsert is
+ *       idempotent, so such a batch is simply retried.</li>
+ *   <li>At most {@code reviews.import.max-connections} lanes write at the same time
+ *       ({@link ImportConnectionLimiter}); the rest of the pool stays free for API reads.</li>
+ * </ul>
+ *
+ * <b>Checkpointing:</b> {@link #write} returns only when every lane has finished its share of the
+ * page. A page therefore counts as done only after all its rows committed; if any lane fails,
+ * the whole page is reported as failed (lanes that did commit are harmless to re-run).
+ *
+ * With parallelism 1 this is exactly the old behaviour: one batch, one transaction, caller’s thread.
+ */
+@Component
+public class ParallelReviewWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelReviewWriter.class);
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    // Index order of uk_source_external (case-insensitive collation), so locks are taken in that order
+    private static final Comparator<ReviewInDto> BY_KEY =
+            Comparator.comparing(ReviewInDto::source, String.CASE_INSENSITIVE_ORDER)
+                    .thenComparing(ReviewInDto::id, String.CASE_INSENSITIVE_ORDER);
+
+    private final BulkReviewRepository bulkWriter;
+    private final ImportConnectionLimiter connections;   // caps import connections across lanes
+    private final boolean laneBySource;                  // one partition per lane (partition-by-source)
+    private final List<ExecutorService> lanes = new ArrayList<>();
+    private final List<WriterStats> stats = new ArrayList<>();
+
+    public ParallelReviewWriter(BulkReviewRepository bulkWriter,
+                                ImportProperties props,
+                                StorageProperties storage,
+                                ImportConnectionLimiter connections) {
+        this.bulkWriter = bulkWriter;
+        this.connections = connections;
+        this.laneBySource = storage.isPartitionBySource();
+        int n = Math.max(1, props.getParallelism());
+        for (int i = 0; i < n; i++) {
+            stats.add(new WriterStats(i));
+            if (n > 1) {
+                String name = "import-writer-" + i;
+                lanes.add(Executors.newSingleThreadExecutor(r -> {
+                    Thread t = new Thread(r, name);
+                    t.setDaemon(true);
+                    return t;
+                }));
+            }
+        }
+    }
+
+    public int parallelism() {
+        return stats.size();
+    }
+
+    /**
+     * Upsert one page of validated rows across the writer lanes.
+     *
+     * @return total affected rows (normalized, for logs)
+     */
+    public int write(List<ReviewInDto> rows, long generation) throws InterruptedException, ExecutionException {
+        if (rows.isEmpty()) return 0;
+        if (lanes.isEmpty()) return writeLane(0, rows, generation);
+
+        int n = lanes.size();
+        List<List<ReviewInDto>> split = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) split.add(new ArrayList<>(rows.size() / n + 1));
+        for (ReviewInDto r : rows) {
+            split.get(laneOf(r, n, laneBySource)).add(r);
+        }
+
+        List<Future<Integer>> pending = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            List<ReviewInDto> share = split.get(i);
+            if (share.isEmpty()) continue;
+            int lane = i;
+            pending.add(lanes.get(i).submit(() -> writeLane(lane, share, generation)));
+        }
+
+        // Wait for every lane, even after a failure, so the page’s outcome is final when we report it
+        int affected = 0;
+        ExecutionException firstFailure = null;
+        for (Future<Integer> f : pending) {
+            try {
+                affected += f.get();
+            } catch (ExecutionException ex) {
+                if (firstFailure == null) firstFailure = ex;
+            }
+        }
+        if (firstFailure != null) throw firstFailure;
+        return affected;
+    }
+
+    /** Lane of a row: by its case-folded unique key, or by source only when lanes follow partitions. */
+    static int laneOf(ReviewInDto r, int lanes, boolean bySource) {
+        int h = Objects.hashCode(fold(r.source()));
+        if (!bySource) h = 31 * h + Objects.hashCode(fold(r.id()));
+        return Math.floorMod(h, lanes);
+    }
+
+    private static String fold(String s) {
+        return (s == null) ? null : s.toLowerCase(Locale.ROOT);
+    }
+
+    /** Current per-lane counters. */
+    public List<WriterStats.Snapshot> stats() {
+        List<WriterStats.Snapshot> out = new ArrayList<>(stats.size());
+        for (WriterStats s : stats) out.add(s.snapshot());
+        return out;
+    }
+
+    /** One log line per lane; called by the importer at the end of a run. */
+    public void logStats() {
+        for (WriterStats.Snapshot s : stats()) {
+            log.info("Writer {}: batches={}, rows={}, affected={}, retries={}, failures={}, avgMs={}, maxMs={}",
+                    s.lane(), s.batches(), s.rows(), s.affected(), s.retries(), s.failures(), s.avgMs(), s.maxMs());
+        }
+    }
+
+    private int writeLane(int lane, List<ReviewInDto> rows, long generation) throws InterruptedException {
+        WriterStats st = stats.get(lane);
+        List<ReviewInDto> sorted = new ArrayList<>(rows);
+        sorted.sort(BY_KEY);
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return connections.call(() -> {
+                    long started = System.nanoTime();   // batch time, not time spent waiting for a permit
+                    int affected = bulkWriter.upsertBatch(sorted, generation);
+                    st.record(sorted.size(), affected, System.nanoTime() - started);
+                    return affected;
+                });
+            } catch (DeadlockLoserDataAccessException | CannotAcquireLockException ex) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    st.failures.incrementAndGet();
+                    throw ex;
+                }
+                st.retries.incrementAndGet();
+                log.warn("Writer {}: lock conflict on attempt {}/{}, retrying batch of {}.",
+                        lane, attempt, MAX_ATTEMPTS, sorted.size());
+            } catch (RuntimeException ex) {
+                st.failures.incrementAndGet();
+                throw ex;
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        for (ExecutorService lane : lanes) lane.shutdownNow();
+    }
+
+    /** Counters for one writer lane. */
+    public static final class WriterStats {
+        private final int lane;
+        private final AtomicLong batches = new AtomicLong();
+        private final AtomicLong rows = new AtomicLong();
+        private final AtomicLong affected = new AtomicLong();
+        private final AtomicLong retries = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        WriterStats(int lane) {
+            this.lane = lane;
+        }
+
+        void record(int rowCount, int affectedCount, long nanos) {
+            batches.incrementAndGet();
+            rows.addAndGet(rowCount);
+            affected.addAndGet(affectedCount);
+            totalNanos.addAndGet(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        Snapshot snapshot() {
+            long b = batches.get();
+            return new Snapshot(lane, b, rows.get(), affected.get(), retries.get(), failures.get(),
+                    (b == 0) ? 0 : totalNanos.get() / b / 1_000_000, maxNanos.get() / 1_000_000);
+        }
+
+        public record Snapshot(int lane, long batches, long rows, long affected,
+                               long retries, long failures, long avgMs, long maxMs) {}
+    }
+}
@@ -3,7 +3,6 @@ package com.example.reviews.service;
 import com.example.reviews.config.AppProperties;
 import com.example.reviews.model.upstream.ReviewInDto;
 import com.example.reviews.model.upstream.ReviewsEnvelopeDto;
-import com.example.reviews.repository.BulkReviewRepository;
 import com.example.reviews.util.HttpClientUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
@@ -11,9 +10,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
-import javax.validation.ConstraintViolation;
-import javax.validation.Validator;
-import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -26,9 +24,12 @@ import java.util.Set;
  *   <li><b>Set up the run</b> – figure out page size, start page, and log where we’re pulling from.</li>
  *   <li><b>Fetch a page</b> – call the upstream with (page,size) using a small HTTP helper.</li>
  *   <li><b>Parse &amp; validate</b> – turn JSON into DTOs, then apply Bean Validation. Skip bad rows.</li>
- *   <li><b>Write</b> – bulk <i>UPSERT</i> the valid rows for that page.</li>
+ *   <li><b>Write</b> – bulk <i>UPSERT</i> the valid rows for that page (optionally across parallel
+ *       writer lanes, see {@link ParallelReviewWriter}).</li>
  *   <li><b>Log progress</b> – received, batched, skipped, and affected counts per page.</li>
  *   <li><b>Fail gracefully</b> – if something goes wrong, stop cleanly so a later retry can continue.</li>
+ *   <li><b>Sweep</b> – every row written is stamped with this run’s generation; after a <i>complete</i>
+ *       run, older rows of the seen sources are removed in the background (see {@link ReviewSweepService}).</li>
  * </ol>
  *
  * <b>Why UPSERT (insert-or-update) instead of insert-only or skipping duplicates?</b>
@@ -57,20 +58,23 @@ public class ReviewImportService {
 
     private final AppProperties props;            // config (URL, key, page size, etc.)
     private final ObjectMapper mapper;            // JSON -> Java DTOs
-    private final BulkReviewRepository bulkWriter;    // batch upsert into DB
+    private final ParallelReviewWriter writer;    // batch upsert into DB (1..N writer lanes)
     private final HttpClientUtil httpClientUtil; //  HTTP client helper
-    private final Validator validator;            // javax.validation for DTO constraints
+    private final ReviewRowValidator validator;   // javax.validation for DTO constraints
+    private final ReviewSweepService sweeper;     // removes rows deleted upstream after a complete run
 
     public ReviewImportService(AppProperties props,
-                               BulkReviewRepository bulkWriter,
+                               ParallelReviewWriter writer,
                                ObjectMapper mapper,
                                HttpClientUtil httpClientUtil,
-                               Validator validator) {
+                               ReviewRowValidator validator,
+                               ReviewSweepService sweeper) {
         this.props = props;
-        this.bulkWriter = bulkWriter;
+        this.writer = writer;
         this.mapper = mapper;
         this.httpClientUtil = httpClientUtil;
         this.validator = validator;
+        this.sweeper = sweeper;
     }
 
     /**
@@ -89,7 +93,13 @@ public class ReviewImportService {
         int totalAffected = 0;      // total rows upserted this run
         int totalSkipped = 0;       // total invalid rows skipped (across all pages)
 
-        log.info("Starting reviews import from {} (startingPage={}, pageSize={})", baseUrl, page, size);
+        // Mark-and-sweep state: run generation (start time, so it only grows) and what we saw per source
+        final long generation = System.currentTimeMillis();
+        Map<String, Integer> seenPerSource = new HashMap<>();
+        Set<String> skippedSources = new HashSet<>();   // sources with invalid rows → not safe to sweep
+
+        log.info("Starting reviews import from {} (startingPage={}, pageSize={}, writers={}, generation={})",
+                baseUrl, page, size, writer.parallelism(), generation);
 
         // Outer guard: never let an unexpected bug crash the app
         try {
@@ -115,9 +125,11 @@ public class ReviewImportService {
                     }
 
                     // Step 3: write valid rows
-                    int affected = bulkWriter.upsertBatch(pr.good());
+                    int affected = writer.write(pr.good(), generation);
                     totalAffected += affected;
                     totalSkipped  += pr.skipped();
+                    for (ReviewInDto r : pr.good()) seenPerSource.merge(r.source(), 1, Integer::sum);
+                    skippedSources.addAll(pr.skippedSources());
 
                     // Step 4: progress log
                     log.info("Page {}/{}: received={}, batched={}, skipped={}, affected={}",
@@ -132,6 +144,16 @@ public class ReviewImportService {
             } while (page <= totalPages);
 
             log.info("Import finished. Total affected: {} (skipped: {})", totalAffected, totalSkipped);
+            writer.logStats();
+
+            // Step 6: sweep only after every page made it in; a partial run says nothing about deletions
+            if (page > totalPages) {
+                // An invalid row wasn’t stamped, but it still exists upstream; don’t delete its old version
+                seenPerSource.keySet().removeAll(skippedSources);
+                sweeper.sweepAsync(seenPerSource, generation);
+            } else {
+                log.warn("Import incomplete (stopped at page {}/{}); skipping deletion sweep.", page, totalPages);
+            }
         } catch (Exception runEx) {
             log.error("Import run failed with an unexpected exception.", runEx);
         }
@@ -140,11 +162,7 @@ public class ReviewImportService {
     }
 
     /**
-     * Parse the wrapped payload and validate each DTO with javax.validation.
-     *
-     * <p><b>Why validate here?</b> We batch-write an entire page in a single JDBC transaction.
-     * If one row is malformed and hits a constraint, the whole batch can fail and roll back.
-     * By validating first and skipping bad rows, we protect the batch and still save the good ones.
+     * Parse the wrapped payload and validate each DTO (see {@link ReviewRowValidator}).
      */
     private PageProcessResult parseAndValidate(String body) {
         try {
@@ -152,34 +170,15 @@ public class ReviewImportService {
             ReviewsEnvelopeDto env = mapper.readValue(body, ReviewsEnvelopeDto.class);
 
             List<ReviewInDto> raw = (env.reviews() != null) ? env.reviews() : List.of();
-            int received = raw.size();
-
-            // Single pass: validate and collect the good rows
-            List<ReviewInDto> good = new ArrayList<>(received);
-            int skipped = 0;
-
-            for (ReviewInDto in : raw) {
-                Set<ConstraintViolation<ReviewInDto>> violations = validator.validate(in);
-                if (!violations.isEmpty()) {
-                    skipped++;
-                    // log one violation per invalid row
-                    ConstraintViolation<ReviewInDto> first = violations.iterator().next();
-                    log.debug("Skipping invalid review (source={}, id={}): {}",
-                            in != null ? in.source() : "?",
-                            in != null ? in.id() : "?",
-                            first.getMessage());
-                    continue;
-                }
-                good.add(in);
-            }
+            ReviewRowValidator.Result checked = validator.validate(raw);
 
             Integer tp = (env.paging() != null) ? env.paging().totalPages() : null;
-            return new PageProcessResult(good, skipped, received, tp);
+            return new PageProcessResult(checked.good(), checked.skipped(), raw.size(), tp, checked.skippedSources());
 
         } catch (Exception ex) {
             // Treat parse failures as an empty page so the caller can stop cleanly
             log.error("Failed to parse upstream response as ReviewsEnvelopeDto; treating page as empty.", ex);
-            return new PageProcessResult(List.of(), 0, 0, null);
+            return new PageProcessResult(List.of(), 0, 0, null, Set.of());
         }
     }
 
@@ -188,6 +187,7 @@ public class ReviewImportService {
             List<ReviewInDto> good,  // rows that passed validation
             int skipped,             // how many rows we dropped
             int received,            // how many rows upstream sent us
-            Integer totalPages       // page count from upstream (may be null)
+            Integer totalPages,      // page count from upstream (may be null)
+            Set<String> skippedSources // sources of the dropped rows
     ) {}
 }
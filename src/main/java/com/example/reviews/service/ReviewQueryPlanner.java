@@ -0,0 +1,157 @@
+package com.example.reviews.service;
+
+import com.example.reviews.config.ReadProperties;
+import com.example.reviews.model.dto.ReviewQuery;
+import com.example.reviews.model.entity.Review;
+import com.example.reviews.repository.ReviewColumnCollation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Decides, before a list query runs, whether an index on {@code reviews} serves it.
+ *
+ * Why: every new filter/sort parameter multiplies the combinations a client can send, and one
+ * combination without an index is a full table scan per request. The planner applies MySQL’s
+ * leftmost-prefix rule to the indexes declared on {@link Review} (read from its annotations, so
+ * the entity stays the single source of truth):
+ * <ul>
+ *   <li><b>ORDERED</b> – all equality filters bind a prefix of the index and the next column is the
+ *       sort column: MySQL reads the page in index order and stops after {@code LIMIT}.</li>
+ *   <li><b>FILTERED</b> – the index narrows the rows (an equality prefix, or a range on its first
+ *       column that is bounded on both sides), and the matches are sorted afterwards.</li>
+ *   <li><b>UNINDEXED</b> – no index applies: a full scan. Rejected with 400, or only logged with
+ *       {@code reviews.read.unindexed-queries=warn}.</li>
+ * </ul>
+ *
+ * A range that is open on one side ({@code ?minRating=1}, {@code ?from=2015-01-01}) doesn't narrow
+ * anything worth the name: walking {@code idx_rating_id} from rating 1 upwards visits nearly every
+ * row and then sorts them. Such a range only counts when it is also the sort column (ORDERED stops
+ * after {@code LIMIT}). A rating bound at the edge of 1–5 filters nothing, so it counts as open.
+ *
+ * Source and tag only count as equalities when their collation is case-insensitive
+ * ({@link ReviewColumnCollation}). Otherwise the filter is {@code LOWER(column) = LOWER(?)}, which
+ * no index serves: it narrows nothing, and it also rules out ORDERED (reading in index order would
+ * test the filter row by row until the page is full).
+ *
+ * The same check runs when the in-memory read model answers the query, so whether a request
+ * is accepted doesn’t depend on which backend happens to serve it.
+ */
+@Component
+public class ReviewQueryPlanner {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewQueryPlanner.class);
+
+    public enum Access { ORDERED, FILTERED, UNINDEXED }
+
+    /** Chosen access path; {@code index} is null for UNINDEXED. */
+    public record Plan(Access access, String index) {}
+
+    private record IndexDef(String name, List<String> columns) {}
+
+    private final List<IndexDef> indexes;
+    private final boolean reject;
+    private final ReviewColumnCollation collation;
+
+    public ReviewQueryPlanner(ReadProperties props, ReviewColumnCollation collation) {
+        this.indexes = declaredIndexes();
+        this.reject = props.getUnindexedQueries() == ReadProperties.UnindexedQueries.REJECT;
+        this.collation = collation;
+    }
+
+    /**
+     * Plan the query; throws for an unindexed combination unless configured to only warn.
+     *
+     * @throws IllegalArgumentException for an unindexed combination (→ 400)
+     */
+    public Plan check(ReviewQuery q) {
+        Plan plan = plan(q);
+        if (plan.access() == Access.UNINDEXED) {
+            if (reject) {
+                throw new IllegalArgumentException("This combination of filters and sort is not supported "
+                        + "(no index serves it); add a source or tag filter, bound the range on both sides, "
+                        + "or sort by the range-filtered field");
+            }
+            log.warn("Unindexed review query (full table scan): {}", q);
+        } else if (log.isDebugEnabled()) {
+            log.debug("Review query plan {} via {}: {}", plan.access(), plan.index(), q);
+        }
+        return plan;
+    }
+
+    /** Best access path for the query, without side effects. */
+    public Plan plan(ReviewQuery q) {
+        Set<String> equalities = new HashSet<>();
+        boolean lowered = false;   // a source/tag filter compared through LOWER(): no index, checked row by row
+        if (q.source() != null || q.tag() != null) {
+            if (collation.caseInsensitive()) {
+                if (q.source() != null) equalities.add("source");
+                if (q.tag() != null) equalities.add("tag");
+            } else {
+                lowered = true;
+            }
+        }
+
+        Set<String> ranges = new HashSet<>();
+        if (q.hasRatingRange()) ranges.add("rating");
+        if (q.hasDateRange()) ranges.add("review_date");
+
+        // Ranges that can lead an index on their own (see class comment)
+        Set<String> boundedRanges = new HashSet<>();
+        if (q.minRating() != null && q.minRating() > 1 && q.maxRating() != null && q.maxRating() < 5) {
+            boundedRanges.add("rating");
+        }
+        if (q.reviewedFrom() != null && q.reviewedBefore() != null) boundedRanges.add("review_date");
+
+        String sortColumn = q.sort().column();
+
+        Plan best = new Plan(Access.UNINDEXED, null);
+        int bestPrefix = -1;
+        for (IndexDef idx : indexes) {
+            // Leftmost prefix: how many leading columns are bound by equality filters
+            int k = 0;
+            while (k < idx.columns().size() && equalities.contains(idx.columns().get(k))) k++;
+            String next = (k < idx.columns().size()) ? idx.columns().get(k) : null;
+
+            Access access;
+            if (!lowered && k == equalities.size() && sortColumn.equals(next)
+                    && (ranges.isEmpty() || ranges.contains(next))) {
+                access = Access.ORDERED;
+            } else if (k > 0 || (next != null && boundedRanges.contains(next))) {
+                access = Access.FILTERED;
+            } else {
+                continue;
+            }
+            if (access == Access.ORDERED) return new Plan(access, idx.name());
+            if (k > bestPrefix) {   // among FILTERED, the longest equality prefix narrows most
+                best = new Plan(access, idx.name());
+                bestPrefix = k;
+            }
+        }
+        return best;
+    }
+
+    /** Secondary indexes and unique keys from the {@link Review} mapping. */
+    private static List<IndexDef> declaredIndexes() {
+        Table table = Review.class.getAnnotation(Table.class);
+        List<IndexDef> out = new ArrayList<>();
+        for (Index idx : table.indexes()) {
+            out.add(new IndexDef(idx.name(), Arrays.stream(idx.columnList().split(","))
+                    .map(String::trim).collect(Collectors.toList())));
+        }
+        for (UniqueConstraint uk : table.uniqueConstraints()) {
+            out.add(new IndexDef(uk.name(), List.of(uk.columnNames())));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.reviews.service;
+
+import com.example.reviews.model.upstream.ReviewInDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bean Validation gate in front of every write into {@code reviews}, shared by the upstream
+ * import ({@link ReviewImportService}) and the snapshot import ({@link SnapshotImportService}).
+ *
+ * <p><b>Why validate before writing?</b> We batch-write many rows in a single JDBC transaction.
+ * If one row is malformed and hits a constraint, the whole batch can fail and roll back.
+ * By validating first and skipping bad rows, we protect the batch and still save the good ones.
+ */
+@Component
+public class ReviewRowValidator {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewRowValidator.class);
+
+    private final Validator validator;
+
+    public ReviewRowValidator(Validator validator) {
+        this.validator = validator;
+    }
+
+    /** Single pass: validate and collect the good rows. */
+    public Result validate(List<ReviewInDto> raw) {
+        List<ReviewInDto> good = new ArrayList<>(raw.size());
+        int skipped = 0;
+        Set<String> skippedSources = new HashSet<>();
+
+        for (ReviewInDto in : raw) {
+            Set<ConstraintViolation<ReviewInDto>> violations =
+                    (in != null) ? validator.validate(in) : Set.of();
+            if (in == null || !violations.isEmpty()) {
+                skipped++;
+                if (in != null && in.source() != null) skippedSources.add(in.source());
+                // log one violation per invalid row
+                log.debug("Skipping invalid review (source={}, id={}): {}",
+                        in != null ? in.source() : "?",
+                        in != null ? in.id() : "?",
+                        violations.isEmpty() ? "null record" : violations.iterator().next().getMessage());
+                continue;
+            }
+            good.add(in);
+        }
+        return new Result(good, skipped, skippedSources);
+    }
+
+    /** Outcome of validating one batch. */
+    public record Result(
+            List<ReviewInDto> good,      // rows that passed validation
+            int skipped,                 // how many rows we dropped
+            Set<String> skippedSources   // sources of the dropped rows
+    ) {}
+}
@@ -1,14 +1,30 @@
 package com.example.reviews.service;
+import com.example.reviews.config.ReadYourWritesTracker;
+import com.example.reviews.event.ReviewsDeletedEvent;
 import com.example.reviews.model.dto.ReviewDto;
+import com.example.reviews.model.dto.ReviewQuery;
 import com.example.reviews.model.entity.Review;
+import com.example.reviews.model.entity.ReviewTombstone;
+import com.example.reviews.repository.ChangeSequence;
+import com.example.reviews.repository.ReviewColumnCollation;
 import com.example.reviews.repository.ReviewRepository;
+import com.example.reviews.repository.ReviewTombstoneRepository;
+import com.example.reviews.readmodel.ReviewReadModel;
 import com.example.reviews.repository.spec.ReviewSpecifications;
+import com.example.reviews.tiering.ColdRecord;
+import com.example.reviews.tiering.ColdStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 import static com.example.reviews.util.PaginationUtil.createPageable;
 import com.example.reviews.mapper.ReviewMapper;
 
@@ -16,54 +32,118 @@ import com.example.reviews.mapper.ReviewMapper;
 public class ReviewService {
 
     private final ReviewRepository reviewRepository;
+    private final ReviewTombstoneRepository tombstoneRepository;
     private final ReviewMapper reviewMapper;
+    private final ReadYourWritesTracker readYourWrites;
+    private final ApplicationEventPublisher events;
+    private final ObjectProvider<ReviewReadModel> readModel;   // optional in-memory model
+    private final ReviewQueryPlanner planner;
+    private final ObjectProvider<ColdStore> coldStore;         // optional cold tier
+    private final ReviewColumnCollation collation;             // can source/tag compare the bare column?
+    private final ChangeSequence changeSequence;               // commit-ordered change feed position
 
-    public ReviewService(ReviewRepository reviewRepository, ReviewMapper reviewMapper) {
+    public ReviewService(ReviewRepository reviewRepository,
+                         ReviewTombstoneRepository tombstoneRepository,
+                         ReviewMapper reviewMapper,
+                         ReadYourWritesTracker readYourWrites,
+                         ApplicationEventPublisher events,
+                         ObjectProvider<ReviewReadModel> readModel,
+                         ReviewQueryPlanner planner,
+                         ObjectProvider<ColdStore> coldStore,
+                         ReviewColumnCollation collation,
+                         ChangeSequence changeSequence) {
         this.reviewRepository = reviewRepository;
+        this.tombstoneRepository = tombstoneRepository;
         this.reviewMapper = reviewMapper;
+        this.readYourWrites = readYourWrites;
+        this.events = events;
+        this.readModel = readModel;
+        this.planner = planner;
+        this.coldStore = coldStore;
+        this.collation = collation;
+        this.changeSequence = changeSequence;
     }
 
     /**
      * Search reviews with optional filters and pagination.
      * <p>
-     * For this system we only expose <b>source</b> and <b>tag</b> filters because that’s all that’s required.
+     * Filters: <b>source</b>, <b>tag</b>, <b>rating range</b> and <b>review date range</b>; sort by
+     * createdAt (default, newest first), reviewDate or rating, either direction (see {@link ReviewQuery}).
+     * Each combination is checked by {@link ReviewQueryPlanner} against the indexes on {@code reviews}
+     * first, so no parameter combination turns into a full table scan.
      * In a fuller product we’d likely add more (and compose them via specs), e.g.:
-     * rating range, review date range, author, free-text query, status/visibility, locale, and sort options.
-     * Kept intentionally minimal here to match current requirements.
+     * author, free-text query, status/visibility, locale.
+     * <p>
+     * With the read model enabled (and loaded), filtering/sorting/counting happen in memory
+     * and only the returned rows are read from the DB (or from the cold tier, which the read model
+     * covers too; while it is still loading at startup, search sees MySQL only).
      */
     @Transactional(readOnly = true)
-    public Page<ReviewDto> search(String source, String tag, int page, int size) {
-        Specification<Review> spec = getSpec(source, tag);
-        Pageable pageable = createPageable(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+    public Page<ReviewDto> search(ReviewQuery query, int page, int size) {
+        planner.check(query);
+        Sort sort = Sort.by(query.direction(), query.sort().property())
+                .and(Sort.by(query.direction(), "id"));   // stable order between pages
+        Pageable pageable = createPageable(page, size, sort);
+
+        ReviewReadModel model = readModel.getIfAvailable();
+        if (model != null && model.isReady()) {
+            return model.search(query, pageable);
+        }
+
+        Specification<Review> spec = getSpec(query);
         return reviewRepository.findAll(spec, pageable)
                 .map(reviewMapper::toDto);
     }
 
     /**
      * Get a single review by id or throw if not found.
+     * MySQL first; with tiering enabled, a miss falls back to the cold tier.
      */
     @Transactional(readOnly = true)
     public ReviewDto get(Long id) {
-        Review r = reviewRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("Review " + id + " not found"));
-        return reviewMapper.toDto(r);
+        Optional<Review> hot = reviewRepository.findById(id);
+        if (hot.isPresent()) return reviewMapper.toDto(hot.get());
+
+        ColdStore cold = coldStore.getIfAvailable();
+        ReviewDto dto = (cold != null) ? cold.get(id) : null;
+        if (dto == null) throw new NotFoundException("Review " + id + " not found");
+        return dto;
     }
 
     /**
      * Delete a review if it exists.
+     * A tombstone is written in the same transaction so the change feed reports the delete.
+     * With read replicas enabled, follow-up reads stick to the primary briefly
+     * so the caller doesn’t see the deleted row again from a lagging replica.
+     * A cold review is deleted the same way; the event makes the cold tier drop it after commit.
      */
     @Transactional
     public void delete(Long id) {
-        if (reviewRepository.existsById(id)) {
-            reviewRepository.deleteById(id);
+        Optional<Review> hot = reviewRepository.findById(id);
+        if (hot.isPresent()) {
+            // Row lock first, feed number last (see ChangeSequence)
+            reviewRepository.delete(hot.get());
+            reviewRepository.flush();
+            tombstoneRepository.save(ReviewTombstone.of(hot.get(), LocalDateTime.now(), changeSequence.next()));
+        } else {
+            ColdStore cold = coldStore.getIfAvailable();
+            ColdRecord c = (cold != null) ? cold.find(id) : null;
+            if (c == null) return;
+            tombstoneRepository.save(ReviewTombstone.of(c.id(), c.source(), c.externalId(), LocalDateTime.now(),
+                    changeSequence.next()));
         }
+        readYourWrites.recordWrite();
+        events.publishEvent(new ReviewsDeletedEvent(List.of(id)));
     }
 
     // Build a combined specification from filters
-    private static Specification<Review> getSpec(String source, String tag) {
+    private Specification<Review> getSpec(ReviewQuery q) {
+        boolean ci = collation.caseInsensitive();
         return Specification
-                .where(ReviewSpecifications.source(source))
-                .and(ReviewSpecifications.tag(tag));
+                .where(ReviewSpecifications.source(q.source(), ci))
+                .and(ReviewSpecifications.tag(q.tag(), ci))
+                .and(ReviewSpecifications.ratingBetween(q.minRating(), q.maxRating()))
+                .and(ReviewSpecifications.reviewDateBetween(q.reviewedFrom(), q.reviewedBefore()));
     }
 
     // Custom exception for missing reviews
@@ -0,0 +1,147 @@
+package com.example.reviews.service;
+
+import com.example.reviews.config.ImportProperties;
+import com.example.reviews.repository.BulkReviewRepository;
+import com.example.reviews.tiering.ColdStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Sweep phase of the import’s mark-and-sweep.
+ *
+ * How it works:
+ * <ol>
+ *   <li><b>Mark</b> – every import run stamps the rows it upserts with its generation.</li>
+ *   <li><b>Sweep</b> – after a <i>complete</i> run, rows of each seen source with an older
+ *       generation no longer exist upstream and are deleted here, in the background.</li>
+ * </ol>
+ * With the cold tier enabled, the importer records the generation of unchanged cold reviews in
+ * their segment instead of writing them ({@link ColdStore#markSeen}); the sweep then also
+ * tombstones the live cold reviews of the source that the run didn't see, and the ratio guard
+ * counts both tiers.
+ *
+ * <b>Why not diff external ids against upstream?</b> That needs the full id list of every source
+ * in memory (or a staging table) on every run. The generation column gives the same answer with
+ * one indexed range scan per source.
+ *
+ * <b>Safety:</b>
+ * <ul>
+ *   <li>Only sources that actually showed up in the run are swept.</li>
+ *   <li>If a source would lose more than {@code max-delete-ratio} of its rows, the sweep for that
+ *       source is skipped and logged – that looks like a truncated import, not real deletions.</li>
+ *   <li>Deletes run in small id chunks, each in its own transaction, with a pause in between,
+ *       so no statement holds locks on a large range.</li>
+ * </ul>
+ */
+@Service
+public class ReviewSweepService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewSweepService.class);
+
+    private final BulkReviewRepository repo;
+    private final ImportConnectionLimiter connections;   // shares the import’s connection cap
+    private final ImportProperties.Sweep props;
+    private final ObjectProvider<ColdStore> coldStore;   // optional cold tier
+    private final ExecutorService executor;       // single background thread: one sweep at a time
+
+    public ReviewSweepService(BulkReviewRepository repo,
+                              ImportProperties importProps,
+                              ImportConnectionLimiter connections,
+                              ObjectProvider<ColdStore> coldStore) {
+        this.repo = repo;
+        this.connections = connections;
+        this.props = importProps.getSweep();
+        this.coldStore = coldStore;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "review-sweep");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Queue a sweep for the sources seen by a complete import run.
+     *
+     * @param seenPerSource valid rows received per source in this run
+     * @param generation    the run’s generation; anything older is stale
+     */
+    public void sweepAsync(Map<String, Integer> seenPerSource, long generation) {
+        if (!props.isEnabled() || seenPerSource.isEmpty()) return;
+        Map<String, Integer> sources = Map.copyOf(seenPerSource);
+        executor.submit(() -> {
+            for (Map.Entry<String, Integer> e : sources.entrySet()) {
+                try {
+                    sweep(e.getKey(), generation);
+                } catch (Exception ex) {
+                    log.error("Sweep failed for source {} (generation {}).", e.getKey(), generation, ex);
+                }
+            }
+        });
+    }
+
+    /**
+     * Delete stale rows of one source in chunks.
+     *
+     * @return number of rows deleted (0 if nothing was stale or the safety check tripped)
+     */
+    public long sweep(String source, long generation) throws InterruptedException {
+        long total = repo.countBySource(source);
+        long stale = repo.countStale(source, generation);
+        ColdStore cold = coldStore.getIfAvailable();
+        if (cold != null) {
+            ColdStore.SourceRows coldRows = cold.sourceRows(source, generation);
+            total += coldRows.live();
+            stale += coldRows.unseen();
+        }
+        if (stale == 0) return 0;
+
+        if (stale > total * props.getMaxDeleteRatio()) {
+            log.warn("Sweep aborted for source {}: {} of {} rows are stale (> {}%). Import looks truncated.",
+                    source, stale, total, Math.round(props.getMaxDeleteRatio() * 100));
+            return 0;
+        }
+
+        int chunk = Math.max(1, props.getChunkSize());
+        long deleted = 0;
+        while (true) {
+            List<Long> ids = repo.findStaleIds(source, generation, chunk);
+            if (ids.isEmpty()) break;
+
+            deleted += connections.call(() -> repo.deleteStaleChunk(source, generation, ids)).size();
+            if (ids.size() < chunk) break;
+            if (props.getPauseMs() > 0) Thread.sleep(props.getPauseMs());
+        }
+        if (cold != null) deleted += sweepCold(cold, source, generation, chunk);
+
+        log.info("Sweep for source {} removed {} review(s) no longer present upstream.", source, deleted);
+        return deleted;
+    }
+
+    // Cold reviews the run didn't see: tombstoned like the hot ones, retired from their segments after commit
+    private long sweepCold(ColdStore cold, String source, long generation, int chunk) throws InterruptedException {
+        long deleted = 0;
+        long position = 0;
+        while (position >= 0) {
+            ColdStore.Batch batch = cold.unseen(source, generation, position, chunk);
+            if (!batch.records().isEmpty()) {
+                deleted += connections.call(() -> repo.tombstoneColdRows(batch.records()));
+                if (props.getPauseMs() > 0) Thread.sleep(props.getPauseMs());
+            }
+            position = batch.next();
+        }
+        return deleted;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.reviews.service;
+
+import com.example.reviews.tiering.ColdStore;
+import com.example.reviews.util.ContentCodec;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes every stored review to a snapshot file that {@link SnapshotImportService} can load.
+ *
+ * Format: NDJSON, one upstream-shaped record per line ({@code id, source, author, rating,
+ * content, reviewDate, tags}), gzip-compressed when the file name ends in {@code .gz}.
+ * Using the upstream field names means a snapshot and an upstream page go through the exact
+ * same parsing and validation. One extra field, {@code createdAt}, carries our import time, so a
+ * bootstrapped environment keeps the source's {@code created_at} (and the default sort order).
+ *
+ * The table is streamed (no result-set buffering) straight into a JSON generator over a
+ * file channel, so exporting millions of rows needs no more memory than one row. The file is
+ * written under a temporary name and moved into place at the end, so a crashed export never
+ * leaves a truncated snapshot that looks complete.
+ *
+ * With the cold tier enabled, its reviews follow the table's. A review being moved at that very
+ * moment can appear twice; importing a snapshot is an upsert, so that's harmless.
+ */
+@Service
+public class SnapshotExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotExportService.class);
+
+    /**
+     * Same shape the upstream sends and {@code ReviewInDto} accepts, to the microsecond: the columns
+     * are {@code datetime(6)}, and milliseconds would shift {@code created_at} (ties, keyset cursors).
+     */
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSS");
+
+    private static final int OUTPUT_BUFFER = 256 * 1024;
+
+    private final JdbcTemplate streamingJdbc;
+    private final ObjectMapper mapper;
+    private final ObjectProvider<ColdStore> coldStore;   // optional cold tier
+
+    public SnapshotExportService(DataSource dataSource, ObjectMapper mapper, ObjectProvider<ColdStore> coldStore) {
+        this.streamingJdbc = new JdbcTemplate(dataSource);
+        this.streamingJdbc.setFetchSize(Integer.MIN_VALUE);   // MySQL Connector/J: stream row by row
+        this.mapper = mapper;
+        this.coldStore = coldStore;
+    }
+
+    /**
+     * Export all rows ordered by id (hot table first, then the cold tier).
+     *
+     * @return number of records written
+     */
+    public long exportTo(Path file) throws IOException {
+        long started = System.nanoTime();
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) Files.createDirectories(dir);
+        Path tmp = file.resolveSibling(file.getFileName() + ".part");
+        boolean gzip = file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".gz");
+
+        long[] written = {0};
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             OutputStream out = wrap(Channels.newOutputStream(channel), gzip);
+             JsonGenerator gen = mapper.getFactory().createGenerator(out)) {
+            gen.setRootValueSeparator(null);   // we write the newlines ourselves
+
+            streamingJdbc.query(
+                    "SELECT external_id, source, author, rating, content, content_z, review_date, tag, created_at FROM reviews ORDER BY id",
+                    rs -> {
+                        try {
+                            Integer rating = rs.getObject(4, Integer.class);
+                            Timestamp reviewDate = rs.getTimestamp(7);
+                            Timestamp createdAt = rs.getTimestamp(9);
+                            writeRecord(gen, rs.getString(1), rs.getString(2), rs.getString(3),
+                                    rating,
+                                    ContentCodec.fromColumns(rs.getString(5), rs.getBytes(6)),
+                                    reviewDate != null ? reviewDate.toLocalDateTime() : null,
+                                    rs.getString(8),
+                                    createdAt != null ? createdAt.toLocalDateTime() : null);
+                            progress(++written[0]);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+
+            ColdStore cold = coldStore.getIfAvailable();
+            if (cold != null) {
+                cold.forEachLiveRecord(r -> {
+                    try {
+                        writeRecord(gen, r.externalId(), r.source(), r.author(), r.rating(), r.content(),
+                                r.reviewDate(), r.tag(), r.createdAt());
+                        progress(++written[0]);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        } catch (UncheckedIOException e) {
+            Files.deleteIfExists(tmp);
+            throw e.getCause();
+        } catch (RuntimeException | IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        long ms = (System.nanoTime() - started) / 1_000_000;
+        log.info("Snapshot export finished: {} records to {} ({} bytes) in {} ms",
+                written[0], file, Files.size(file), ms);
+        return written[0];
+    }
+
+    private static void writeRecord(JsonGenerator gen, String externalId, String source, String author,
+                                    Integer rating, String content, LocalDateTime reviewDate, String tags,
+                                    LocalDateTime createdAt)
+            throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("id", externalId);
+        gen.writeStringField("source", source);
+        writeNullableString(gen, "author", author);
+        if (rating == null) gen.writeNullField("rating"); else gen.writeNumberField("rating", rating);
+        writeNullableString(gen, "content", content);
+        writeNullableString(gen, "reviewDate", reviewDate != null ? DATE_FORMAT.format(reviewDate) : null);
+        writeNullableString(gen, "tags", tags);
+        writeNullableString(gen, "createdAt", createdAt != null ? DATE_FORMAT.format(createdAt) : null);
+        gen.writeEndObject();
+        gen.writeRaw('\n');
+    }
+
+    private static void progress(long written) {
+        if (written % 100_000 == 0) log.info("Snapshot export progress: {} records", written);
+    }
+
+    private static OutputStream wrap(OutputStream channelOut, boolean gzip) throws IOException {
+        return gzip
+                ? new GZIPOutputStream(channelOut, OUTPUT_BUFFER)
+                : new BufferedOutputStream(channelOut, OUTPUT_BUFFER);
+    }
+
+    private static void writeNullableString(JsonGenerator gen, String field, String value) throws IOException {
+        if (value == null) gen.writeNullField(field); else gen.writeStringField(field, value);
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.reviews.service;
+
+import com.example.reviews.config.SnapshotProperties;
+import com.example.reviews.model.upstream.ReviewInDto;
+import com.example.reviews.util.MappedFileInputStream;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Loads reviews from a local snapshot file instead of the upstream API.
+ *
+ * Why: bootstrapping a new environment by paging the whole upstream through
+ * {@link com.example.reviews.util.HttpClientUtil} takes hours; a snapshot (see
+ * {@link SnapshotExportService}) loads in minutes.
+ *
+ * How:
+ * <ol>
+ *   <li><b>Read</b> – the file is streamed through memory-mapped windows ({@link MappedFileInputStream});
+ *       gzip is recognised by its magic bytes, not the name.</li>
+ *   <li><b>Parse</b> – Jackson’s streaming parser, one record at a time, so memory stays flat regardless
+ *       of file size. NDJSON ({@code .ndjson}/{@code .jsonl}) or the upstream envelope
+ *       ({@code {"reviews":[...]}}, only the array is read).</li>
+ *   <li><b>Validate &amp; write</b> – same path as the upstream import: {@link ReviewRowValidator},
+ *       then {@link ParallelReviewWriter} (so the upsert, writer lanes and change events all apply).</li>
+ * </ol>
+ *
+ * No deletion sweep runs after a snapshot: a snapshot may be older than what is already stored,
+ * so absence from it says nothing about deletion upstream.
+ */
+@Service
+public class SnapshotImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotImportService.class);
+
+    private static final int GZIP_BUFFER = 64 * 1024;
+
+    private final SnapshotProperties props;
+    private final ObjectMapper mapper;
+    private final ReviewRowValidator validator;
+    private final ParallelReviewWriter writer;
+
+    public SnapshotImportService(SnapshotProperties props,
+                                 ObjectMapper mapper,
+                                 ReviewRowValidator validator,
+                                 ParallelReviewWriter writer) {
+        this.props = props;
+        this.mapper = mapper;
+        this.validator = validator;
+        this.writer = writer;
+    }
+
+    /**
+     * Import every record of the file.
+     *
+     * @return total rows inserted/updated
+     */
+    public long importFile(Path file) throws IOException, InterruptedException {
+        final long generation = System.currentTimeMillis();
+        final boolean ndjson = isNdjson(file);
+        final long started = System.nanoTime();
+        log.info("Starting snapshot import from {} ({} bytes, format={}, generation={})",
+                file, Files.size(file), ndjson ? "ndjson" : "envelope", generation);
+
+        Batcher batcher = new Batcher(generation);
+        try (InputStream in = open(file);
+             JsonParser parser = mapper.getFactory().createParser(in)) {
+            ObjectReader reader = mapper.readerFor(ReviewInDto.class);
+            if (ndjson) {
+                // Root-level values separated by whitespace/newlines
+                try (MappingIterator<ReviewInDto> it = reader.readValues(parser)) {
+                    while (it.hasNextValue()) batcher.add(it.nextValue());
+                }
+            } else {
+                readEnvelope(parser, reader, batcher);
+            }
+            batcher.flush();
+        }
+
+        long ms = (System.nanoTime() - started) / 1_000_000;
+        log.info("Snapshot import finished in {} ms: read={}, affected={}, skipped={}",
+                ms, batcher.read, batcher.affected, batcher.skipped);
+        writer.logStats();
+        return batcher.affected;
+    }
+
+    /**
+     * Walk {"reviews":[...], ...} and feed the array elements; everything else is skipped.
+     * No array at all is an error: that's NDJSON under another name, which would otherwise
+     * "import" nothing from its first line and stop.
+     */
+    private void readEnvelope(JsonParser parser, ObjectReader reader, Batcher batcher)
+            throws IOException, InterruptedException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Snapshot is not an envelope object: expected '{' at start");
+        }
+        boolean found = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("reviews".equals(field) && value == JsonToken.START_ARRAY) {
+                found = true;
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    batcher.add(reader.readValue(parser));
+                }
+            } else {
+                parser.skipChildren();   // paging etc.
+            }
+        }
+        if (!found) {
+            throw new IOException("Snapshot is not an envelope object: no \"reviews\" array " +
+                    "(NDJSON files must end in .ndjson or .jsonl)");
+        }
+    }
+
+    /** Mapped file stream, unwrapped from gzip when it starts with the gzip magic number. */
+    private InputStream open(Path file) throws IOException {
+        PushbackInputStream in = new PushbackInputStream(
+                new MappedFileInputStream(file, props.getMapWindowBytes()), 2);
+        int b1 = in.read();
+        int b2 = in.read();
+        if (b2 >= 0) in.unread(b2);
+        if (b1 >= 0) in.unread(b1);
+        boolean gzip = b1 == (GZIPInputStream.GZIP_MAGIC & 0xFF) && b2 == (GZIPInputStream.GZIP_MAGIC >> 8);
+        return gzip ? new GZIPInputStream(in, GZIP_BUFFER) : in;
+    }
+
+    private static boolean isNdjson(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".gz")) name = name.substring(0, name.length() - 3);
+        return name.endsWith(".ndjson") || name.endsWith(".jsonl");
+    }
+
+    /** Collects parsed records and writes them batch by batch. */
+    private final class Batcher {
+        private final long generation;
+        private final List<ReviewInDto> pending;
+        private long read, affected, skipped;
+
+        Batcher(long generation) {
+            this.generation = generation;
+            this.pending = new ArrayList<>(Math.max(1, props.getBatchSize()));
+        }
+
+        void add(ReviewInDto row) throws InterruptedException {
+            read++;
+            pending.add(row);
+            if (pending.size() >= Math.max(1, props.getBatchSize())) flush();
+        }
+
+        void flush() throws InterruptedException {
+            if (pending.isEmpty()) return;
+            ReviewRowValidator.Result checked = validator.validate(pending);
+            skipped += checked.skipped();
+            try {
+                affected += writer.write(checked.good(), generation);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Snapshot batch write failed after " + read + " records", e.getCause());
+            }
+            pending.clear();
+            if (read % 100_000 < Math.max(1, props.getBatchSize())) {
+                log.info("Snapshot import progress: read={}, affected={}, skipped={}", read, affected, skipped);
+            }
+        }
+    }
+}
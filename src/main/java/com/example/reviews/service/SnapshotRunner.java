@@ -0,0 +1,63 @@
+package com.example.reviews.service;
+
+import com.example.reviews.config.SnapshotProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.file.Path;
+
+/**
+ * Runs the snapshot import and/or export configured under {@code reviews.snapshot} at startup.
+ *
+ * Ordered after schema changes and before the in-memory read model is built (so the model
+ * loads the imported rows in one scan) and before the upstream startup import (which then only
+ * has to catch up, or is skipped with {@code reviews.snapshot.skip-upstream=true}).
+ *
+ * With {@code reviews.snapshot.exit-after=true} the application stops afterwards, which turns
+ * it into a one-shot command, e.g.
+ * {@code java -jar app.jar --reviews.snapshot.export-file=/data/reviews.ndjson.gz --reviews.snapshot.exit-after=true}.
+ */
+@Component
+@Order(5)
+public class SnapshotRunner implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotRunner.class);
+
+    private final SnapshotProperties props;
+    private final SnapshotImportService importer;
+    private final SnapshotExportService exporter;
+    private final ConfigurableApplicationContext context;
+
+    public SnapshotRunner(SnapshotProperties props,
+                          SnapshotImportService importer,
+                          SnapshotExportService exporter,
+                          ConfigurableApplicationContext context) {
+        this.props = props;
+        this.importer = importer;
+        this.exporter = exporter;
+        this.context = context;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        boolean any = false;
+        if (StringUtils.hasText(props.getImportFile())) {
+            importer.importFile(Path.of(props.getImportFile()));
+            any = true;
+        }
+        if (StringUtils.hasText(props.getExportFile())) {
+            exporter.exportTo(Path.of(props.getExportFile()));
+            any = true;
+        }
+        if (any && props.isExitAfter()) {
+            log.info("Snapshot work done; exiting (reviews.snapshot.exit-after=true).");
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+}
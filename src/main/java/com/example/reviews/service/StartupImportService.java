@@ -1,4 +1,5 @@
 package com.example.reviews.service;
+import com.example.reviews.config.SnapshotProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
@@ -8,18 +9,25 @@ import org.springframework.stereotype.Component;
  * Runs once at application startup to trigger an initial reviews import.
  * Useful for ensuring the database is preloaded before the app starts serving requests.
  * Can be disabled or replaced later if scheduled/continuous imports are introduced.
+ * Skipped when {@code reviews.snapshot.skip-upstream=true} (data came from a snapshot, see {@link SnapshotRunner}).
  */
 @Component
 public class StartupImportService implements CommandLineRunner {
     private static final Logger log = LoggerFactory.getLogger(StartupImportService.class);
     private final ReviewImportService reviewImportService;
+    private final SnapshotProperties snapshotProps;
 
-    public StartupImportService(ReviewImportService reviewImportService) {
+    public StartupImportService(ReviewImportService reviewImportService, SnapshotProperties snapshotProps) {
         this.reviewImportService = reviewImportService;
+        this.snapshotProps = snapshotProps;
     }
 
     @Override
     public void run(String... args) {
+        if (snapshotProps.isSkipUpstream()) {
+            log.info("Startup import skipped (reviews.snapshot.skip-upstream=true)");
+            return;
+        }
         int count = reviewImportService.importAll();
         log.info("Startup import complete: {} items", count);
     }
@@ -0,0 +1,76 @@
+package com.example.reviews.service;
+
+import com.example.reviews.config.ChangeFeedProperties;
+import com.example.reviews.repository.BulkReviewRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retention for {@code review_tombstones}: without it the table only grows, one row per delete
+ * (sweeps and delete jobs write thousands at a time).
+ *
+ * Every {@code prune-interval-ms}, tombstones older than {@code tombstone-retention-days} are
+ * deleted in chunks of {@code prune-chunk-size}, one short transaction each. The change feed
+ * refuses cursors older than what was pruned (see {@link ChangeFeedService}), so a consumer that
+ * was away longer than the retention resyncs instead of silently keeping deleted reviews.
+ */
+@Service
+public class TombstonePruner {
+
+    private static final Logger log = LoggerFactory.getLogger(TombstonePruner.class);
+
+    private final BulkReviewRepository repo;
+    private final ChangeFeedProperties props;
+    private final ScheduledExecutorService scheduler;
+
+    public TombstonePruner(BulkReviewRepository repo, ChangeFeedProperties props) {
+        this.repo = repo;
+        this.props = props;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "tombstone-pruner");
+            t.setDaemon(true);
+            return t;
+        });
+        if (props.getTombstoneRetentionDays() > 0) {
+            long interval = Math.max(60_000, props.getPruneIntervalMs());
+            scheduler.scheduleWithFixedDelay(this::runSafely, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void runSafely() {
+        try {
+            pruneOnce();
+        } catch (Exception e) {
+            log.error("Tombstone pruning failed; will retry at the next interval.", e);
+        }
+    }
+
+    /** @return tombstones deleted */
+    public long pruneOnce() {
+        if (props.getTombstoneRetentionDays() <= 0) return 0;
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(props.getTombstoneRetentionDays());
+        int chunk = Math.max(1, props.getPruneChunkSize());
+
+        long pruned = 0;
+        int n;
+        do {
+            n = repo.pruneTombstones(cutoff, chunk);
+            pruned += n;
+        } while (n == chunk);
+
+        if (pruned > 0) log.info("Pruned {} tombstone(s) deleted before {}", pruned, cutoff);
+        return pruned;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.reviews.tiering;
+
+import com.example.reviews.model.dto.ReviewDto;
+import com.example.reviews.readmodel.ReviewColumns;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Locale;
+
+/**
+ * One review as stored in a cold segment: every column of the {@code reviews} row, content decoded.
+ * Ids are kept, so a review answers to the same id in either tier.
+ */
+public record ColdRecord(long id,
+                         String source,
+                         String externalId,
+                         String author,
+                         Integer rating,
+                         String content,
+                         LocalDateTime reviewDate,
+                         String tag,
+                         LocalDateTime createdAt,
+                         LocalDateTime updatedAt,
+                         Long importGeneration) {
+
+    /** Marker for a null timestamp in the segment's fixed-width sections. */
+    static final long NULL_TIME = Long.MIN_VALUE;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    public ReviewDto toDto() {
+        return ReviewDto.builder()
+                .id(id)
+                .source(source)
+                .externalId(externalId)
+                .author(author)
+                .rating(rating)
+                .content(content)
+                .reviewDate(reviewDate)
+                .tag(tag)
+                .updatedAt(updatedAt)
+                .build();
+    }
+
+    public ReviewColumns.Row toRow() {
+        return new ReviewColumns.Row(id, source, tag, rating, reviewDate, createdAt);
+    }
+
+    /**
+     * 64-bit hash of the natural key. Lower-cased, because MySQL compares {@code (source, external_id)}
+     * case-insensitively; the key index of a segment is sorted by this value.
+     */
+    public static long keyHash(String source, String externalId) {
+        long h = FNV_OFFSET;
+        h = mix(h, source == null ? null : source.toLowerCase(Locale.ROOT));
+        h = mix(h, externalId == null ? null : externalId.toLowerCase(Locale.ROOT));
+        return h;
+    }
+
+    /**
+     * 64-bit hash of the columns an upsert may change, compared exactly (case-sensitive), like the
+     * {@code BINARY ... <=>} check of the hot upsert. Equal hashes mean "upstream didn't change it".
+     */
+    public static long dataHash(String author, Integer rating, String content, LocalDateTime reviewDate, String tag) {
+        long h = FNV_OFFSET;
+        h = mix(h, author);
+        h = mixLong(h, rating == null ? Long.MIN_VALUE : rating);
+        h = mix(h, content);
+        h = mixLong(h, toMicros(reviewDate));
+        h = mix(h, tag);
+        return h;
+    }
+
+    long dataHash() {
+        return dataHash(author, rating, content, reviewDate, tag);
+    }
+
+    static long toMicros(LocalDateTime t) {
+        if (t == null) return NULL_TIME;
+        return t.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + t.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        if (micros == NULL_TIME) return null;
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    // FNV-1a over UTF-16 units; 0xFFFF/0xFFFE (non-characters) separate fields and mark null
+    private static long mix(long h, String s) {
+        if (s == null) return (h ^ 0xFFFE) * FNV_PRIME;
+        for (int i = 0; i < s.length(); i++) {
+            h = (h ^ s.charAt(i)) * FNV_PRIME;
+        }
+        return (h ^ 0xFFFF) * FNV_PRIME;
+    }
+
+    private static long mixLong(long h, long v) {
+        for (int shift = 0; shift < 64; shift += 16) {
+            h = (h ^ ((v >>> shift) & 0xFFFF)) * FNV_PRIME;
+        }
+        return h;
+    }
+}
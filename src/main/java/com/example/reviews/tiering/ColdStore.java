@@ -0,0 +1,353 @@
+package com.example.reviews.tiering;
+
+import com.example.reviews.config.ReadProperties;
+import com.example.reviews.config.TieringProperties;
+import com.example.reviews.event.ReviewsDeletedEvent;
+import com.example.reviews.event.ReviewsUpsertedEvent;
+import com.example.reviews.model.dto.ReviewDto;
+import com.example.reviews.readmodel.ReviewColumns;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * The cold tier: reviews that {@link TieringService} moved out of the {@code reviews} table,
+ * served from immutable {@link Segment} files in {@code reviews.tiering.directory}.
+ *
+ * How the rest of the app sees it:
+ * <ul>
+ *   <li><b>Get by id</b> – a miss in MySQL falls back to {@link #get}: a binary search over each
+ *       segment's id index, then one block inflated.</li>
+ *   <li><b>Search</b> – the read model holds the index fields of hot <i>and</i> cold reviews, so
+ *       filtering, sorting, counting and paging are exact across both tiers; a page's cold rows are
+ *       hydrated via {@link #load}. That's why tiering requires {@code reviews.read.model.enabled}.</li>
+ *   <li><b>Import</b> – before upserting, the bulk writer asks {@link #findLive} whether a key lives
+ *       here. Unchanged rows (same data hash) are not written at all, so re-importing history doesn't
+ *       drag it back into MySQL; the run's generation is recorded for them instead ({@link #markSeen}),
+ *       and after a complete run the sweep retires the live cold rows it didn't see ({@link #unseen}). A changed row is written to MySQL under its old id and created_at, and
+ *       the upsert event then retires the cold copy. The writer re-checks under its row locks, so a
+ *       review the tiering job moves meanwhile still comes back under its old id.</li>
+ *   <li><b>Deletes</b> – any {@link ReviewsDeletedEvent} retires cold copies of those ids, so the API
+ *       delete, the sweep and delete jobs work on both tiers through the events they already publish.</li>
+ * </ul>
+ *
+ * The same id may briefly live in both tiers (while a segment is being moved, or after a crash in
+ * between); MySQL always wins, and the next tiering run settles it.
+ *
+ * Key lookups compare 64-bit hashes of the lower-cased key; MySQL's collation also folds accents,
+ * so keys differing only in accents are told apart here. Accepted: upstream ids are ASCII.
+ */
+@Component
+@ConditionalOnProperty(prefix = "reviews.tiering", name = "enabled", havingValue = "true")
+public class ColdStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ColdStore.class);
+
+    private static final String PREFIX = "segment-";
+
+    private final Path directory;
+    private final int blockRows;
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();   // oldest first, never removed
+    private int nextSeq = 1;                                               // guarded by this
+
+    /**
+     * What the importer needs to know about a cold review; {@code position} is where it was found
+     * (same encoding as {@link #matching}), for {@link #markSeen}.
+     */
+    public record Hit(long id, long dataHash, LocalDateTime createdAt, LocalDateTime updatedAt, long position) {}
+
+    /** Live cold reviews of one source, and how many of them an import generation didn't see. */
+    public record SourceRows(long live, long unseen) {}
+
+    /**
+     * One page of {@link #matching} results; {@code next} is -1 once everything was scanned, and
+     * {@code scanned} counts the segment rows looked at for this page (progress against {@link #rowCount}).
+     */
+    public record Batch(List<ColdRecord> records, long next, int scanned) {}
+
+    private record Location(Segment segment, int row) {}
+
+    public ColdStore(TieringProperties props, ReadProperties readProps) throws IOException {
+        if (!readProps.getModel().isEnabled()) {
+            throw new IllegalStateException(
+                    "reviews.tiering.enabled requires reviews.read.model.enabled: search spans both tiers via the read model");
+        }
+        this.directory = Paths.get(props.getDirectory()).toAbsolutePath();
+        this.blockRows = Math.max(1, props.getBlockRows());
+        Files.createDirectories(directory);
+        open();
+    }
+
+    // Open every segment in sequence order; leftovers of an interrupted write are removed
+    private void open() throws IOException {
+        Map<Integer, Path> found = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path f : files) {
+                String name = f.getFileName().toString();
+                if (name.endsWith(Segment.SUFFIX + ".part")) {
+                    Files.deleteIfExists(f);
+                } else if (name.startsWith(PREFIX) && name.endsWith(Segment.SUFFIX)) {
+                    found.put(Integer.parseInt(name.substring(PREFIX.length(), name.length() - Segment.SUFFIX.length())), f);
+                }
+            }
+        }
+        long live = 0;
+        long bytes = 0;
+        for (Map.Entry<Integer, Path> e : found.entrySet()) {
+            Segment s = Segment.open(e.getValue(), e.getKey());
+            segments.add(s);
+            live += s.liveCount();
+            bytes += s.fileBytes();
+            nextSeq = e.getKey() + 1;
+        }
+        log.info("Cold tier: {} segment(s), {} live review(s), {} KiB in {}", segments.size(), live, bytes / 1024, directory);
+    }
+
+    public boolean isEmpty() {
+        return segments.isEmpty();
+    }
+
+    public long liveCount() {
+        long n = 0;
+        for (Segment s : segments) n += s.liveCount();
+        return n;
+    }
+
+    /** Rows in all segments, live or not: what a {@link #matching} scan walks. */
+    public long rowCount() {
+        long n = 0;
+        for (Segment s : segments) n += s.rowCount();
+        return n;
+    }
+
+    /** A cold review by id, or null. */
+    public ReviewDto get(long id) {
+        ColdRecord r = find(id);
+        return (r == null) ? null : r.toDto();
+    }
+
+    /** The full cold record by id, or null. */
+    public ColdRecord find(long id) {
+        Location at = locate(id);
+        return (at == null) ? null : at.segment().read(at.row());
+    }
+
+    /** Cold reviews for a page of ids; one block inflated per distinct block. Missing ids are left out. */
+    public Map<Long, ReviewDto> load(Collection<Long> ids) {
+        Map<Segment, Map<Integer, List<Integer>>> byBlock = new LinkedHashMap<>();
+        for (Long id : ids) {
+            Location at = locate(id);
+            if (at == null) continue;
+            byBlock.computeIfAbsent(at.segment(), s -> new HashMap<>())
+                    .computeIfAbsent(at.segment().blockOf(at.row()), b -> new ArrayList<>())
+                    .add(at.row());
+        }
+        Map<Long, ReviewDto> out = new HashMap<>();
+        byBlock.forEach((segment, blocks) -> blocks.forEach((block, rows) -> {
+            ColdRecord[] records = segment.readBlock(block);
+            for (int row : rows) {
+                ColdRecord r = records[row - block * segment.blockRows()];
+                out.put(r.id(), r.toDto());
+            }
+        }));
+        return out;
+    }
+
+    /** Live cold review for a natural key, or null. */
+    public Hit findLive(String source, String externalId) {
+        long hash = ColdRecord.keyHash(source, externalId);
+        for (int i = segments.size() - 1; i >= 0; i--) {   // newest copy first
+            Segment s = segments.get(i);
+            for (int row : s.rowsForKey(hash)) {
+                if (s.isLive(row)) {
+                    return new Hit(s.idAt(row), s.dataHashAt(row),
+                            ColdRecord.fromMicros(s.createdAtMicros(row)), ColdRecord.fromMicros(s.updatedAtMicros(row)),
+                            ((long) i << 32) | row);
+                }
+            }
+        }
+        return null;
+    }
+
+    /** Index fields of every live cold review, for the read model. Reads only the mapped meta sections. */
+    public void forEachLiveRow(Consumer<ReviewColumns.Row> sink) {
+        for (Segment s : segments) {
+            for (int row = 0; row < s.rowCount(); row++) {
+                if (s.isLive(row)) sink.accept(s.indexRow(row));
+            }
+        }
+    }
+
+    /** Every live cold record, segment by segment (snapshot export). */
+    public void forEachLiveRecord(Consumer<ColdRecord> sink) {
+        for (Segment s : segments) {
+            for (int row = 0; row < s.rowCount(); row += s.blockRows()) {
+                int block = s.blockOf(row);
+                ColdRecord[] records = null;
+                for (int i = row; i < Math.min(s.rowCount(), row + s.blockRows()); i++) {
+                    if (!s.isLive(i)) continue;
+                    if (records == null) records = s.readBlock(block);
+                    sink.accept(records[i - row]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Live cold reviews matching a delete filter, up to {@code limit}, scanning from position
+     * {@code from} (0 to start). Null filters are ignored; source and tag compare case-insensitively.
+     *
+     * @param before review_date strictly before this (null = no date filter)
+     */
+    public Batch matching(String source, String tag, LocalDateTime before, long from, int limit) {
+        long beforeMicros = (before != null) ? ColdRecord.toMicros(before) : Long.MAX_VALUE;
+        return scan(from, limit, (s, row) -> {
+            if (source != null && !source.equalsIgnoreCase(s.sourceAt(row))) return false;
+            if (tag != null && !tag.equalsIgnoreCase(s.tagAt(row))) return false;
+            long reviewDate = s.reviewDateMicros(row);
+            return before == null || (reviewDate != ColdRecord.NULL_TIME && reviewDate < beforeMicros);
+        });
+    }
+
+    /** Record that the import run {@code generation} saw this (unchanged, so unwritten) cold review. */
+    public void markSeen(Hit hit, long generation) {
+        segments.get((int) (hit.position() >>> 32)).markSeen((int) hit.position(), generation);
+    }
+
+    /** Live cold reviews of a source (case-insensitive), and those not seen by {@code generation}: the sweep's ratio guard. */
+    public SourceRows sourceRows(String source, long generation) {
+        long live = 0;
+        long unseen = 0;
+        for (Segment s : segments) {
+            for (int row = 0; row < s.rowCount(); row++) {
+                if (!s.isLive(row) || !source.equalsIgnoreCase(s.sourceAt(row))) continue;
+                live++;
+                if (s.seenGeneration(row) < generation) unseen++;
+            }
+        }
+        return new SourceRows(live, unseen);
+    }
+
+    /**
+     * Live cold reviews of a source that the import run {@code generation} didn't see, paged like
+     * {@link #matching}: after a complete run they no longer exist upstream.
+     */
+    public Batch unseen(String source, long generation, long from, int limit) {
+        return scan(from, limit, (s, row) -> source.equalsIgnoreCase(s.sourceAt(row)) && s.seenGeneration(row) < generation);
+    }
+
+    private interface RowFilter {
+        boolean test(Segment segment, int row);
+    }
+
+    // Live rows passing the filter, from position `from`; reads only the meta section for rows it skips
+    private Batch scan(long from, int limit, RowFilter filter) {
+        List<ColdRecord> out = new ArrayList<>();
+        int scanned = 0;
+        int seg = (int) (from >>> 32);
+        int row = (int) from;
+        for (; seg < segments.size(); seg++, row = 0) {
+            Segment s = segments.get(seg);
+            for (; row < s.rowCount(); row++) {
+                if (out.size() >= limit) return new Batch(out, ((long) seg << 32) | row, scanned);
+                scanned++;
+                if (s.isLive(row) && filter.test(s, row)) out.add(s.read(row));
+            }
+        }
+        return new Batch(out, -1, scanned);
+    }
+
+    /**
+     * Retire every live cold copy of these ids. Nothing is tombstoned here: callers that delete a
+     * review (rather than promote it back to MySQL) write the tombstone first.
+     *
+     * @return copies retired
+     */
+    public int markDeleted(Collection<Long> ids) {
+        Map<Segment, List<Integer>> bySegment = new HashMap<>();
+        for (Long id : ids) {
+            if (id == null) continue;
+            for (Segment s : segments) {
+                int row = s.rowOf(id);
+                if (row >= 0 && s.isLive(row)) bySegment.computeIfAbsent(s, k -> new ArrayList<>()).add(row);
+            }
+        }
+        int n = 0;
+        for (Map.Entry<Segment, List<Integer>> e : bySegment.entrySet()) {
+            try {
+                n += e.getKey().markDeleted(e.getValue().stream().mapToInt(Integer::intValue).toArray());
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not record cold deletions in " + e.getKey().path, ex);
+            }
+        }
+        return n;
+    }
+
+    /** Updated-at of the live cold copy of {@code id}, or null (lets the tiering job resume an interrupted move). */
+    LocalDateTime liveUpdatedAt(long id) {
+        Location at = locate(id);
+        return (at == null) ? null : ColdRecord.fromMicros(at.segment().updatedAtMicros(at.row()));
+    }
+
+    /** Write a new segment from rows sorted by id and make it visible. */
+    Segment writeSegment(List<ColdRecord> records) throws IOException {
+        int seq;
+        synchronized (this) {
+            seq = nextSeq++;
+        }
+        Path file = directory.resolve(String.format("%s%06d%s", PREFIX, seq, Segment.SUFFIX));
+        Segment.write(file, records, blockRows);
+        Segment s = Segment.open(file, seq);
+        segments.add(s);
+        return s;
+    }
+
+    // A changed review goes back to MySQL under its old id; its cold copy is retired once that commits.
+    // The writer names the ids: a key that was only re-sent unchanged while a move was deleting its
+    // hot row must keep its cold copy, or the review would be gone from both tiers.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUpserted(ReviewsUpsertedEvent event) {
+        if (!segments.isEmpty() && !event.promotedColdIds().isEmpty()) markDeleted(event.promotedColdIds());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDeleted(ReviewsDeletedEvent event) {
+        if (!segments.isEmpty()) markDeleted(event.ids());
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        for (Segment s : segments) s.close();
+    }
+
+    // Newest live copy of an id
+    private Location locate(long id) {
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            Segment s = segments.get(i);
+            int row = s.rowOf(id);
+            if (row >= 0 && s.isLive(row)) return new Location(s, row);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,535 @@
+package com.example.reviews.tiering;
+
+import com.example.reviews.readmodel.ReviewColumns;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * One immutable cold segment file: reviews sorted by id, in deflate-compressed blocks, plus
+ * fixed-width indexes that are read straight from a memory-mapped file.
+ *
+ * Layout (big-endian):
+ * <pre>
+ *   header   magic "RVSG", version
+ *   blocks   per block: deflate(block-rows records)            full rows, content included
+ *   blockDir per block: offset (8), compressed length (4)
+ *   ids      per row: id (8)                                    ascending → binary search by id
+ *   keys     per row: keyHash (8), row (4)                      sorted by hash → lookup by (source, external_id)
+ *   meta     per row: dataHash, created, updated, reviewDate (8 each), source, tag (4 each), rating (1)
+ *   dict     strings referenced by meta (sources and tags)
+ *   footer   section offsets, row count, block rows, block count, version, magic
+ * </pre>
+ * Row {@code r} lives in block {@code r / blockRows}, so the id index doubles as the block index.
+ * The meta section answers everything except display fields without inflating a block: the read
+ * model's columns at startup, the importer's "did it change?" check, and filter matching for deletes.
+ *
+ * Segments are never rewritten. Deleting a cold review appends its row number to a sibling
+ * {@code .del} file (fsync'ed before the row disappears) that is replayed when the segment is opened.
+ * A second sibling, {@code .gen}, holds one long per row: the newest import generation that saw the
+ * review (starting with the one it was moved with), so the upstream sweep covers cold reviews too.
+ */
+final class Segment {
+
+    static final String SUFFIX = ".seg";
+    static final String DELETIONS_SUFFIX = ".del";
+    static final String GENERATIONS_SUFFIX = ".gen";
+
+    private static final int MAGIC = 0x52565347;   // "RVSG"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int FOOTER_BYTES = 5 * 8 + 5 * 4;
+    private static final int BLOCK_DIR_ENTRY = 12;
+    private static final int KEY_ENTRY = 12;
+    private static final int META_ENTRY = 4 * 8 + 2 * 4 + 1;
+    private static final int NO_CODE = -1;
+    private static final int BLOCK_LEVEL = 6;   // written once, read rarely: trade write speed for size
+    private static final int OUTPUT_BUFFER = 256 * 1024;
+
+    final int seq;
+    final Path path;
+    private final ByteBuffer buf;
+    private final long fileBytes;
+    private final int rowCount;
+    private final int blockRows;
+    private final int blockCount;
+    private final int blockDirOff;
+    private final int idsOff;
+    private final int keysOff;
+    private final int metaOff;
+    private final String[] dict;
+    private final long minId;
+    private final long maxId;
+
+    private final AtomicLongArray deleted;            // one bit per row; set only after the .del append is durable
+    private final AtomicInteger liveRows;
+    private FileChannel deletions;                    // opened on first delete; guarded by this
+    private final MappedByteBuffer generations;       // the .gen sidecar, mapped read-write
+
+    private Segment(int seq, Path path, ByteBuffer buf, long fileBytes) throws IOException {
+        this.seq = seq;
+        this.path = path;
+        this.buf = buf;
+        this.fileBytes = fileBytes;
+
+        int f = buf.capacity() - FOOTER_BYTES;
+        if (buf.capacity() < HEADER_BYTES + FOOTER_BYTES || buf.getInt(0) != MAGIC
+                || buf.getInt(buf.capacity() - 4) != MAGIC) {
+            throw new IOException("Not a review segment (or truncated): " + path);
+        }
+        if (buf.getInt(4) != VERSION || buf.getInt(f + 52) != VERSION) {
+            throw new IOException("Unsupported segment version in " + path);
+        }
+        this.blockDirOff = (int) buf.getLong(f);
+        this.idsOff = (int) buf.getLong(f + 8);
+        this.keysOff = (int) buf.getLong(f + 16);
+        this.metaOff = (int) buf.getLong(f + 24);
+        int dictOff = (int) buf.getLong(f + 32);
+        this.rowCount = buf.getInt(f + 40);
+        this.blockRows = buf.getInt(f + 44);
+        this.blockCount = buf.getInt(f + 48);
+
+        int n = buf.getInt(dictOff);
+        this.dict = new String[n];
+        int p = dictOff + 4;
+        for (int i = 0; i < n; i++) {
+            int len = buf.getShort(p) & 0xFFFF;
+            byte[] b = new byte[len];
+            buf.get(p + 2, b);
+            dict[i] = new String(b, StandardCharsets.UTF_8);
+            p += 2 + len;
+        }
+        this.minId = (rowCount == 0) ? Long.MAX_VALUE : idAt(0);
+        this.maxId = (rowCount == 0) ? Long.MIN_VALUE : idAt(rowCount - 1);
+
+        this.deleted = new AtomicLongArray((rowCount + 63) / 64);
+        int dead = 0;
+        Path del = deletionsPath(path);
+        if (Files.exists(del)) {
+            ByteBuffer d = ByteBuffer.wrap(Files.readAllBytes(del));
+            while (d.remaining() >= 4) {   // a torn trailing write is ignored
+                int row = d.getInt();
+                if (row >= 0 && row < rowCount && setDeleted(row)) dead++;
+            }
+            // ...and cut off, or every later append would be read back shifted by its length
+            if (d.hasRemaining()) {
+                try (FileChannel channel = FileChannel.open(del, StandardOpenOption.WRITE)) {
+                    channel.truncate(d.position());
+                    channel.force(false);
+                }
+            }
+        }
+        this.liveRows = new AtomicInteger(rowCount - dead);
+        this.generations = openGenerations();
+    }
+
+    // Created from the rows' own generations the first time the segment is opened (right after
+    // it is written, or on upgrade for segments written before the sidecar existed)
+    private MappedByteBuffer openGenerations() throws IOException {
+        Path gen = generationsPath(path);
+        long bytes = rowCount * 8L;
+        if (!Files.exists(gen) || Files.size(gen) != bytes) {
+            ByteBuffer b = ByteBuffer.allocate((int) bytes);
+            for (int block = 0; block < blockCount; block++) {
+                for (ColdRecord r : readBlock(block)) b.putLong(r.importGeneration() == null ? 0 : r.importGeneration());
+            }
+            b.flip();
+            Path tmp = gen.resolveSibling(gen.getFileName() + ".part");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (b.hasRemaining()) channel.write(b);
+                channel.force(false);
+            }
+            Files.move(tmp, gen, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        try (FileChannel channel = FileChannel.open(gen, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        }
+    }
+
+    // ---- writing ----
+
+    /**
+     * Write a segment under a temporary name, fsync it and move it into place.
+     *
+     * @param records rows sorted by id, ascending, no duplicates
+     */
+    static void write(Path file, List<ColdRecord> records, int blockRows) throws IOException {
+        int n = records.size();
+        int rowsPerBlock = Math.max(1, blockRows);
+        int blocks = (n + rowsPerBlock - 1) / rowsPerBlock;
+        Path tmp = file.resolveSibling(file.getFileName() + ".part");
+
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             DataOutputStream out = new DataOutputStream(
+                     new BufferedOutputStream(Channels.newOutputStream(channel), OUTPUT_BUFFER))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            long[] blockOffsets = new long[blocks];
+            int[] blockLengths = new int[blocks];
+            ByteArrayOutputStream raw = new ByteArrayOutputStream(64 * 1024);
+            ByteArrayOutputStream packed = new ByteArrayOutputStream(16 * 1024);
+            Deflater deflater = new Deflater(BLOCK_LEVEL);
+            try {
+                for (int b = 0; b < blocks; b++) {
+                    raw.reset();
+                    DataOutputStream rec = new DataOutputStream(raw);
+                    for (int r = b * rowsPerBlock; r < Math.min(n, (b + 1) * rowsPerBlock); r++) {
+                        writeRecord(rec, records.get(r));
+                    }
+                    rec.flush();
+
+                    packed.reset();
+                    deflater.reset();
+                    try (DeflaterOutputStream z = new DeflaterOutputStream(packed, deflater)) {
+                        raw.writeTo(z);
+                    }
+                    blockOffsets[b] = out.size();
+                    blockLengths[b] = packed.size();
+                    packed.writeTo(out);
+                }
+            } finally {
+                deflater.end();
+            }
+
+            long blockDirOff = out.size();
+            for (int b = 0; b < blocks; b++) {
+                out.writeLong(blockOffsets[b]);
+                out.writeInt(blockLengths[b]);
+            }
+
+            long idsOff = out.size();
+            long previous = Long.MIN_VALUE;
+            for (ColdRecord r : records) {
+                if (r.id() <= previous) throw new IllegalArgumentException("Segment rows must be sorted by id");
+                previous = r.id();
+                out.writeLong(r.id());
+            }
+
+            long keysOff = out.size();
+            long[] hashes = new long[n];
+            Integer[] byHash = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                ColdRecord r = records.get(i);
+                hashes[i] = ColdRecord.keyHash(r.source(), r.externalId());
+                byHash[i] = i;
+            }
+            Arrays.sort(byHash, (a, b) -> (hashes[a] != hashes[b]) ? Long.compare(hashes[a], hashes[b]) : Integer.compare(a, b));
+            for (int row : byHash) {
+                out.writeLong(hashes[row]);
+                out.writeInt(row);
+            }
+
+            long metaOff = out.size();
+            Map<String, Integer> codes = new LinkedHashMap<>();
+            for (ColdRecord r : records) {
+                out.writeLong(r.dataHash());
+                out.writeLong(ColdRecord.toMicros(r.createdAt()));
+                out.writeLong(ColdRecord.toMicros(r.updatedAt()));
+                out.writeLong(ColdRecord.toMicros(r.reviewDate()));
+                out.writeInt(code(codes, r.source()));
+                out.writeInt(code(codes, r.tag()));
+                out.writeByte(r.rating() == null ? -1 : r.rating());
+            }
+
+            long dictOff = out.size();
+            out.writeInt(codes.size());
+            for (String s : codes.keySet()) {
+                byte[] b = s.getBytes(StandardCharsets.UTF_8);   // source ≤ 32, tag ≤ 64 chars
+                out.writeShort(b.length);
+                out.write(b);
+            }
+
+            out.writeLong(blockDirOff);
+            out.writeLong(idsOff);
+            out.writeLong(keysOff);
+            out.writeLong(metaOff);
+            out.writeLong(dictOff);
+            out.writeInt(n);
+            out.writeInt(rowsPerBlock);
+            out.writeInt(blocks);
+            out.writeInt(VERSION);
+            out.writeInt(MAGIC);
+            out.flush();
+            if (out.size() == Integer.MAX_VALUE) {   // DataOutputStream saturates; we map segments as one buffer
+                throw new IOException("Segment exceeds 2 GiB; lower reviews.tiering.segment-rows");
+            }
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int code(Map<String, Integer> codes, String value) {
+        return (value == null) ? NO_CODE : codes.computeIfAbsent(value, v -> codes.size());
+    }
+
+    private static void writeRecord(DataOutputStream out, ColdRecord r) throws IOException {
+        out.writeLong(r.id());
+        writeString(out, r.source());
+        writeString(out, r.externalId());
+        writeString(out, r.author());
+        out.writeInt(r.rating() == null ? -1 : r.rating());
+        writeString(out, r.content());
+        out.writeLong(ColdRecord.toMicros(r.reviewDate()));
+        writeString(out, r.tag());
+        out.writeLong(ColdRecord.toMicros(r.createdAt()));
+        out.writeLong(ColdRecord.toMicros(r.updatedAt()));
+        out.writeLong(r.importGeneration() == null ? Long.MIN_VALUE : r.importGeneration());
+    }
+
+    // Length-prefixed UTF-8 (writeUTF caps at 64 KiB of modified UTF-8, TEXT content can exceed that)
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    // ---- reading ----
+
+    static Segment open(Path path, int seq) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) throw new IOException("Segment too large to map: " + path);
+            // The mapping stays valid after the channel is closed
+            return new Segment(seq, path, channel.map(FileChannel.MapMode.READ_ONLY, 0, size), size);
+        }
+    }
+
+    int rowCount() {
+        return rowCount;
+    }
+
+    int liveCount() {
+        return liveRows.get();
+    }
+
+    long fileBytes() {
+        return fileBytes;
+    }
+
+    int blockRows() {
+        return blockRows;
+    }
+
+    int blockCount() {
+        return blockCount;
+    }
+
+    boolean isLive(int row) {
+        return (deleted.get(row >>> 6) & (1L << row)) == 0;
+    }
+
+    long idAt(int row) {
+        return buf.getLong(idsOff + row * 8);
+    }
+
+    /** Row holding {@code id}, or -1. */
+    int rowOf(long id) {
+        if (id < minId || id > maxId) return -1;
+        int lo = 0;
+        int hi = rowCount - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long v = idAt(mid);
+            if (v < id) lo = mid + 1;
+            else if (v > id) hi = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    /** Rows whose natural key hashes to {@code keyHash} (normally zero or one). */
+    int[] rowsForKey(long keyHash) {
+        int lo = 0;
+        int hi = rowCount;
+        while (lo < hi) {   // first entry with hash >= keyHash
+            int mid = (lo + hi) >>> 1;
+            if (buf.getLong(keysOff + mid * KEY_ENTRY) < keyHash) lo = mid + 1;
+            else hi = mid;
+        }
+        int end = lo;
+        while (end < rowCount && buf.getLong(keysOff + end * KEY_ENTRY) == keyHash) end++;
+        int[] rows = new int[end - lo];
+        for (int i = lo; i < end; i++) rows[i - lo] = buf.getInt(keysOff + i * KEY_ENTRY + 8);
+        return rows;
+    }
+
+    long dataHashAt(int row) {
+        return buf.getLong(metaOff + row * META_ENTRY);
+    }
+
+    long createdAtMicros(int row) {
+        return buf.getLong(metaOff + row * META_ENTRY + 8);
+    }
+
+    long updatedAtMicros(int row) {
+        return buf.getLong(metaOff + row * META_ENTRY + 16);
+    }
+
+    long reviewDateMicros(int row) {
+        return buf.getLong(metaOff + row * META_ENTRY + 24);
+    }
+
+    String sourceAt(int row) {
+        return text(buf.getInt(metaOff + row * META_ENTRY + 32));
+    }
+
+    String tagAt(int row) {
+        return text(buf.getInt(metaOff + row * META_ENTRY + 36));
+    }
+
+    Integer ratingAt(int row) {
+        byte r = buf.get(metaOff + row * META_ENTRY + 40);
+        return (r < 0) ? null : (int) r;
+    }
+
+    /** The read model's fields for a row, without inflating its block. */
+    ReviewColumns.Row indexRow(int row) {
+        return new ReviewColumns.Row(idAt(row), sourceAt(row), tagAt(row), ratingAt(row),
+                ColdRecord.fromMicros(reviewDateMicros(row)), ColdRecord.fromMicros(createdAtMicros(row)));
+    }
+
+    int blockOf(int row) {
+        return row / blockRows;
+    }
+
+    /** Inflate one block; element {@code i} is row {@code block * blockRows + i}. */
+    ColdRecord[] readBlock(int block) {
+        int entry = blockDirOff + block * BLOCK_DIR_ENTRY;
+        int offset = (int) buf.getLong(entry);
+        byte[] packed = new byte[buf.getInt(entry + 8)];
+        buf.get(offset, packed);
+
+        int first = block * blockRows;
+        ColdRecord[] out = new ColdRecord[Math.min(blockRows, rowCount - first)];
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(packed)))) {
+            for (int i = 0; i < out.length; i++) out[i] = readRecord(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt block " + block + " in " + path, e);
+        }
+        return out;
+    }
+
+    ColdRecord read(int row) {
+        return readBlock(blockOf(row))[row % blockRows];
+    }
+
+    /** Newest import generation that saw this row. */
+    long seenGeneration(int row) {
+        return generations.getLong(row * 8);
+    }
+
+    /**
+     * Record that an import run saw this row. Not fsync'ed: the sweep that reads it follows the
+     * run in the same process, and after a crash the next complete run marks the rows again.
+     */
+    void markSeen(int row, long generation) {
+        if (generations.getLong(row * 8) < generation) generations.putLong(row * 8, generation);
+    }
+
+    /**
+     * Durably mark rows deleted: append to the deletion file, fsync, then flip the bits.
+     *
+     * @return rows that were live until now
+     */
+    synchronized int markDeleted(int[] rows) throws IOException {
+        int[] fresh = Arrays.stream(rows).filter(this::isLive).distinct().toArray();
+        if (fresh.length == 0) return 0;
+
+        ByteBuffer b = ByteBuffer.allocate(fresh.length * 4);
+        for (int row : fresh) b.putInt(row);
+        b.flip();
+        if (deletions == null) {
+            deletions = FileChannel.open(deletionsPath(path), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        while (b.hasRemaining()) deletions.write(b);
+        deletions.force(false);
+
+        for (int row : fresh) setDeleted(row);
+        liveRows.addAndGet(-fresh.length);
+        return fresh.length;
+    }
+
+    synchronized void close() throws IOException {
+        if (deletions != null) deletions.close();
+    }
+
+    private boolean setDeleted(int row) {
+        long bit = 1L << row;
+        return (deleted.getAndAccumulate(row >>> 6, bit, (w, x) -> w | x) & bit) == 0;
+    }
+
+    private String text(int code) {
+        return (code == NO_CODE) ? null : dict[code];
+    }
+
+    private static ColdRecord readRecord(DataInputStream in) throws IOException {
+        long id = in.readLong();
+        String source = readString(in);
+        String externalId = readString(in);
+        String author = readString(in);
+        int rating = in.readInt();
+        String content = readString(in);
+        long reviewDate = in.readLong();
+        String tag = readString(in);
+        long createdAt = in.readLong();
+        long updatedAt = in.readLong();
+        long generation = in.readLong();
+        return new ColdRecord(id, source, externalId, author, rating < 0 ? null : rating, content,
+                ColdRecord.fromMicros(reviewDate), tag, ColdRecord.fromMicros(createdAt),
+                ColdRecord.fromMicros(updatedAt), generation == Long.MIN_VALUE ? null : generation);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len < 0) return null;
+        byte[] b = new byte[len];
+        in.readFully(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    static Path deletionsPath(Path segment) {
+        return sibling(segment, DELETIONS_SUFFIX);
+    }
+
+    static Path generationsPath(Path segment) {
+        return sibling(segment, GENERATIONS_SUFFIX);
+    }
+
+    private static Path sibling(Path segment, String suffix) {
+        String name = segment.getFileName().toString();
+        return segment.resolveSibling(name.substring(0, name.length() - SUFFIX.length()) + suffix);
+    }
+}
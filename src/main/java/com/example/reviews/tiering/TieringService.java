@@ -0,0 +1,159 @@
+package com.example.reviews.tiering;
+
+import com.example.reviews.config.TieringProperties;
+import com.example.reviews.repository.BulkReviewRepository;
+import com.example.reviews.service.ImportConnectionLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background job that keeps the {@code reviews} table small: reviews whose {@code review_date} is
+ * older than {@code cold-after-days} move into {@link ColdStore} segments.
+ *
+ * One run walks the primary key once; per {@code segment-rows} old rows:
+ * <ol>
+ *   <li><b>Copy</b> – read the rows (full columns, id order) and write them as a new segment,
+ *       fsync'ed and renamed into place. From now on a review may be in both tiers; MySQL wins.</li>
+ *   <li><b>Remove</b> – delete them from MySQL in chunks of {@code delete-chunk-size}, one short
+ *       transaction each, only if {@code updated_at} is still what was copied (see
+ *       {@link BulkReviewRepository#deleteMovedChunk}). A row changed meanwhile stays hot and its
+ *       cold copy is retired. Pause {@code pause-ms} between chunks.</li>
+ * </ol>
+ * A move is not a change: no tombstones, no events. Ids, created_at and updated_at are kept, so the
+ * API and the read model (which already holds the row) see nothing happen, and change feed consumers
+ * already following get nothing; new consumers get the cold reviews in their initial catch-up
+ * ({@link com.example.reviews.service.ChangeFeedService}).
+ *
+ * If the app stops between the steps, the next run finds rows that are already cold with the same
+ * updated_at and only removes them from MySQL (no second copy is written).
+ *
+ * Rows without a review_date never move. A moved review keeps taking part in the upstream sweep:
+ * its segment records which import runs saw it ({@link ColdStore#markSeen}).
+ */
+@Service
+@ConditionalOnProperty(prefix = "reviews.tiering", name = "enabled", havingValue = "true")
+public class TieringService {
+
+    private static final Logger log = LoggerFactory.getLogger(TieringService.class);
+
+    private final BulkReviewRepository repo;
+    private final ColdStore cold;
+    private final TieringProperties props;
+    private final ImportConnectionLimiter connections;   // same connection cap as imports and sweeps
+    private final ScheduledExecutorService scheduler;
+
+    public TieringService(BulkReviewRepository repo,
+                          ColdStore cold,
+                          TieringProperties props,
+                          ImportConnectionLimiter connections) {
+        this.repo = repo;
+        this.cold = cold;
+        this.props = props;
+        this.connections = connections;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "review-tiering");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::runSafely, Math.max(0, props.getInitialDelayMs()),
+                Math.max(60_000, props.getIntervalMs()), TimeUnit.MILLISECONDS);
+    }
+
+    private void runSafely() {
+        try {
+            runOnce();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Tiering run failed; will retry at the next interval.", e);
+        }
+    }
+
+    /**
+     * Move everything older than the cutoff.
+     *
+     * @return reviews removed from the hot table
+     */
+    public long runOnce() throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        LocalDateTime cutoff = LocalDate.now().minusDays(props.getColdAfterDays()).atStartOfDay();
+        int limit = Math.max(1, props.getSegmentRows());
+
+        long moved = 0;
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            List<ColdRecord> rows = connections.call(() -> repo.findTieringCandidates(from, cutoff, limit));
+            if (rows.isEmpty()) break;
+            moved += move(rows);
+            afterId = rows.get(rows.size() - 1).id();
+            if (rows.size() < limit) break;
+        }
+
+        if (moved > 0) {
+            log.info("Tiering: {} review(s) with review_date < {} moved to the cold tier in {} ms ({} cold review(s) in total)",
+                    moved, cutoff.toLocalDate(), (System.nanoTime() - started) / 1_000_000, cold.liveCount());
+        }
+        return moved;
+    }
+
+    // Copy one batch into a segment, then remove it from MySQL
+    private long move(List<ColdRecord> rows) throws IOException, InterruptedException {
+        List<ColdRecord> fresh = new ArrayList<>(rows.size());
+        List<Long> stale = new ArrayList<>();
+        for (ColdRecord r : rows) {
+            LocalDateTime coldUpdatedAt = cold.liveUpdatedAt(r.id());
+            if (coldUpdatedAt == null) {
+                fresh.add(r);
+            } else if (!coldUpdatedAt.equals(r.updatedAt())) {
+                stale.add(r.id());   // an interrupted move left an older copy behind
+                fresh.add(r);
+            }                        // else: same copy already cold, only the hot row is left to remove
+        }
+        if (!stale.isEmpty()) cold.markDeleted(stale);
+        if (!fresh.isEmpty()) {
+            Segment s = cold.writeSegment(fresh);
+            log.info("Tiering: wrote {} ({} reviews, {} blocks, {} KiB, ~{} B/review)",
+                    s.path.getFileName(), s.rowCount(), s.blockCount(), s.fileBytes() / 1024, s.fileBytes() / s.rowCount());
+        }
+
+        int chunk = Math.max(1, props.getDeleteChunkSize());
+        long removed = 0;
+        for (int i = 0; i < rows.size(); i += chunk) {
+            Map<Long, LocalDateTime> copied = new LinkedHashMap<>();
+            for (ColdRecord r : rows.subList(i, Math.min(rows.size(), i + chunk))) copied.put(r.id(), r.updatedAt());
+
+            List<Long> deleted = connections.call(() -> repo.deleteMovedChunk(copied));
+            removed += deleted.size();
+
+            // Changed (or deleted) in MySQL since the copy: the cold copy must not resurface
+            Set<Long> kept = new HashSet<>(copied.keySet());
+            deleted.forEach(kept::remove);
+            if (!kept.isEmpty()) cold.markDeleted(kept);
+
+            if (props.getPauseMs() > 0) Thread.sleep(props.getPauseMs());
+        }
+        return removed;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.reviews.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that adapts to measured latency, with a small bounded wait queue.
+ *
+ * Why: a fixed limit is either too low (wasted capacity) or too high (queues build up in
+ * Tomcat and Hikari until everything times out). Here the limit follows the latency the
+ * backend actually delivers:
+ * <ul>
+ *   <li>A long-term average of response times is the baseline ("what it costs when healthy").</li>
+ *   <li>Once per round trip (a window of about {@code limit} samples) the window’s mean latency
+ *       is compared to the baseline. Latency above 1.5× the baseline means requests are queueing
+ *       somewhere downstream, so the gradient {@code 1.5 × baseline / recent} (clamped to 0.5–1.0)
+ *       shrinks the limit. While that is the case the baseline moves much slower, so it doesn’t
+ *       simply absorb the queueing delay. At baseline latency the limit grows by about
+ *       {@code sqrt(limit)}, smoothed.</li>
+ *   <li>A window with failures (5xx, timeouts) cuts the limit by 10%.</li>
+ *   <li>The limit doesn’t grow while less than half of it was in use; idle capacity says nothing
+ *       about what the backend could take.</li>
+ * </ul>
+ * (A simplified version of the “gradient” limiter from Netflix’s concurrency-limits.)
+ *
+ * Requests over the limit wait in a queue of at most {@code queueSize} for up to
+ * {@code maxWaitMs}; beyond that they are refused immediately so the caller can fail fast.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    private static final double SMOOTHING = 0.2;
+    private static final int MIN_WINDOW = 10;          // samples per update, at least
+    private static final double LONG_WINDOW = 50;      // updates in the baseline average
+    private static final double TOLERANCE = 1.5;       // latency may rise this much before the limit shrinks
+    private static final double OVERLOAD_DAMPING = 20; // baseline follows overloaded windows this much slower
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private double longRttNanos;     // baseline; 0 until the first window
+
+    // Current measurement window (about one round trip: ~limit samples)
+    private int windowSamples;
+    private long windowRttSum;
+    private boolean windowFailed;
+    private int windowMaxInFlight;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int queueSize) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.queueSize = Math.max(0, queueSize);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    /**
+     * Take a slot, waiting in the queue for up to {@code maxWaitMs} if all are in use.
+     *
+     * @return false if the queue is full or the wait ran out (reject the request)
+     */
+    public boolean tryAcquire(long maxWaitMs) throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return true;
+            }
+            if (waiting >= queueSize || maxWaitMs <= 0) return false;
+
+            waiting++;
+            try {
+                long remaining = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) return false;
+                    remaining = released.awaitNanos(remaining);
+                }
+                inFlight++;
+                return true;
+            } finally {
+                waiting--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Give the slot back and feed the measurement into the limit.
+     *
+     * @param rttNanos how long the request held the slot
+     * @param success  false for failures/timeouts (treated as overload)
+     */
+    public void release(long rttNanos, boolean success) {
+        lock.lock();
+        try {
+            int usedAtCompletion = inFlight;
+            inFlight--;
+            update(rttNanos, success, usedAtCompletion);
+            released.signalAll();   // the limit may have grown by more than one
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void update(long rttNanos, boolean success, int used) {
+        windowSamples++;
+        windowRttSum += Math.max(1, rttNanos);
+        windowFailed |= !success;
+        windowMaxInFlight = Math.max(windowMaxInFlight, used);
+        // Decide once per round trip: samples completing now reflect admissions made one RTT ago,
+        // reacting to each of them would overshoot in both directions
+        if (windowSamples < Math.max(MIN_WINDOW, (int) limit)) return;
+
+        double recent = (double) windowRttSum / windowSamples;
+        boolean failed = windowFailed;
+        boolean appLimited = windowMaxInFlight < limit / 2;   // idle capacity doesn’t justify growth
+        windowSamples = 0;
+        windowRttSum = 0;
+        windowFailed = false;
+        windowMaxInFlight = 0;
+
+        if (failed) {
+            limit = Math.max(minLimit, limit * 0.9);
+            return;
+        }
+        if (longRttNanos == 0) {
+            longRttNanos = recent;
+            return;
+        }
+        // Overloaded windows barely move the baseline, otherwise it would absorb the queueing delay;
+        // after a sustained speed-up it must not stay stuck far above reality either
+        boolean overloaded = recent > longRttNanos * TOLERANCE;
+        longRttNanos += (recent - longRttNanos) / (overloaded ? LONG_WINDOW * OVERLOAD_DAMPING : LONG_WINDOW);
+        if (longRttNanos > recent * 2) longRttNanos = recent * 2;
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / recent));
+        double next = limit * gradient + (appLimited ? 0 : Math.sqrt(limit));
+        limit = limit * (1 - SMOOTHING) + next * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, limit));
+    }
+
+    public int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
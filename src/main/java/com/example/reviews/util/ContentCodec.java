@@ -0,0 +1,119 @@
+package com.example.reviews.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Encoding of review text for the compressed storage mode ({@code reviews.content_z}).
+ *
+ * Format: one header byte, then
+ * <pre>
+ *   0x00  RAW      UTF-8 bytes (short or incompressible text)
+ *   0x01  DEFLATE  original length (4 bytes, big-endian) + zlib-wrapped deflate stream
+ * </pre>
+ * Text shorter than the threshold is stored raw: below a few hundred bytes deflate saves little
+ * and costs a codec round trip on every read. Text that doesn’t shrink is stored raw as well.
+ *
+ * Deflate (from the JDK) rather than LZ4: no extra dependency, and at {@link Deflater#BEST_SPEED}
+ * it is fast enough that decoding a page of reviews is negligible next to the query; the header
+ * byte leaves room for another codec later without rewriting existing rows.
+ *
+ * Deflater/Inflater hold native memory, so one of each is kept per thread and reset between uses.
+ */
+public final class ContentCodec {
+
+    public static final byte RAW = 0;
+    public static final byte DEFLATE = 1;
+
+    /** Default threshold: shorter text is stored raw. */
+    public static final int DEFAULT_MIN_BYTES = 256;
+
+    private static final int DEFLATE_HEADER = 5;   // codec byte + original length
+
+    private static final ThreadLocal<Deflater> DEFLATERS = ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED));
+    private static final ThreadLocal<Inflater> INFLATERS = ThreadLocal.withInitial(Inflater::new);
+
+    private ContentCodec() {}
+
+    /** Encode with the default (fastest) deflate level. */
+    public static byte[] encode(String text, int minBytes) {
+        return encode(text, minBytes, Deflater.BEST_SPEED);
+    }
+
+    /**
+     * @param minBytes UTF-8 length below which text is stored raw
+     * @param level    deflate level (1 = fastest … 9 = smallest)
+     * @return stored bytes, or null for null text
+     */
+    public static byte[] encode(String text, int minBytes, int level) {
+        if (text == null) return null;
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length >= minBytes && utf8.length > DEFLATE_HEADER + 8) {
+            byte[] out = new byte[utf8.length];   // only worth it if it ends up smaller than raw
+            Deflater deflater = (level == Deflater.BEST_SPEED) ? DEFLATERS.get() : new Deflater(level);
+            try {
+                deflater.setInput(utf8);
+                deflater.finish();
+                int n = deflater.deflate(out, DEFLATE_HEADER, out.length - DEFLATE_HEADER);
+                if (deflater.finished()) {
+                    out[0] = DEFLATE;
+                    out[1] = (byte) (utf8.length >>> 24);
+                    out[2] = (byte) (utf8.length >>> 16);
+                    out[3] = (byte) (utf8.length >>> 8);
+                    out[4] = (byte) utf8.length;
+                    return Arrays.copyOf(out, DEFLATE_HEADER + n);
+                }
+            } finally {
+                if (level == Deflater.BEST_SPEED) deflater.reset(); else deflater.end();
+            }
+        }
+        byte[] raw = new byte[utf8.length + 1];
+        raw[0] = RAW;
+        System.arraycopy(utf8, 0, raw, 1, utf8.length);
+        return raw;
+    }
+
+    /** Decode stored bytes; null/empty stays null. */
+    public static String decode(byte[] stored) {
+        if (stored == null || stored.length == 0) return null;
+        switch (stored[0]) {
+            case RAW:
+                return new String(stored, 1, stored.length - 1, StandardCharsets.UTF_8);
+            case DEFLATE: {
+                if (stored.length < DEFLATE_HEADER) {
+                    throw new IllegalStateException("Corrupt compressed content: " + stored.length + "-byte header");
+                }
+                int length = ((stored[1] & 0xFF) << 24) | ((stored[2] & 0xFF) << 16)
+                        | ((stored[3] & 0xFF) << 8) | (stored[4] & 0xFF);
+                if (length < 0) throw new IllegalStateException("Corrupt compressed content: length " + length);
+                byte[] utf8 = new byte[length];
+                Inflater inflater = INFLATERS.get();
+                try {
+                    inflater.setInput(stored, DEFLATE_HEADER, stored.length - DEFLATE_HEADER);
+                    int n = 0;
+                    while (n < length && !inflater.finished()) {
+                        int k = inflater.inflate(utf8, n, length - n);
+                        if (k == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                        n += k;
+                    }
+                    if (n != length) throw new IllegalStateException("Corrupt compressed content: " + n + " of " + length + " bytes");
+                    return new String(utf8, StandardCharsets.UTF_8);
+                } catch (DataFormatException e) {
+                    throw new IllegalStateException("Corrupt compressed content", e);
+                } finally {
+                    inflater.reset();
+                }
+            }
+            default:
+                throw new IllegalStateException("Unknown content codec " + stored[0]);
+        }
+    }
+
+    /** Content from a row in either storage mode: plain {@code content} wins, else decode {@code content_z}. */
+    public static String fromColumns(String plain, byte[] stored) {
+        return (plain != null) ? plain : decode(stored);
+    }
+}
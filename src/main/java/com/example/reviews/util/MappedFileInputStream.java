@@ -0,0 +1,68 @@
+package com.example.reviews.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Sequential {@link InputStream} over a file, read through memory-mapped windows.
+ *
+ * Why: snapshot files are several GB; mapping lets the OS page the file straight into memory
+ * without copying it through an intermediate buffer per read. Windows keep the mapped range
+ * bounded (a single mapping is capped at 2 GB anyway); a window is released by the GC once
+ * the next one replaces it.
+ */
+public final class MappedFileInputStream extends InputStream {
+
+    private final FileChannel channel;
+    private final long size;
+    private final long windowBytes;
+    private long position = 0;          // file offset of the next window
+    private MappedByteBuffer window;
+
+    public MappedFileInputStream(Path path, long windowBytes) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowBytes = Math.max(4096, Math.min(windowBytes, Integer.MAX_VALUE));
+    }
+
+    /** Map the next window if the current one is used up; false at end of file. */
+    private boolean fill() throws IOException {
+        if (window != null && window.hasRemaining()) return true;
+        if (position >= size) return false;
+        long length = Math.min(windowBytes, size - position);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        position += length;
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) return -1;
+        return window.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) return 0;
+        if (!fill()) return -1;
+        int n = Math.min(len, window.remaining());
+        window.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public int available() {
+        long left = (window != null ? window.remaining() : 0) + (size - position);
+        return (int) Math.min(left, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+}
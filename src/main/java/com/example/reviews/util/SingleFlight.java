@@ -0,0 +1,85 @@
+package com.example.reviews.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collapses concurrent calls for the same key into one execution ("single flight").
+ *
+ * The first caller for a key (the leader) runs the loader on its own thread; callers that
+ * arrive while it is running wait for the same result instead of running it again. The entry
+ * is removed as soon as the leader finishes, so this is not a cache: a call that arrives after
+ * the flight landed starts a new one.
+ *
+ * Errors reach every caller: the leader gets its exception directly, waiters get the same
+ * exception rethrown. Waiters give up after their own timeout; the leader is never interrupted
+ * (others may still be waiting on it).
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+
+    /**
+     * Run {@code loader} for {@code key}, or join the execution already in flight.
+     *
+     * @param timeoutMs how long a waiter waits for someone else’s execution
+     * @throws TimeoutException if this caller joined a flight that didn’t land in time
+     */
+    public V execute(K key, Callable<V> loader, long timeoutMs) throws Exception {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+
+        if (existing != null) {
+            shared.increment();
+            return await(existing, timeoutMs);
+        }
+
+        executions.increment();
+        try {
+            V value = loader.call();
+            mine.complete(value);
+            return value;
+        } catch (Throwable t) {
+            mine.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> flight, long timeoutMs) throws Exception {
+        try {
+            return flight.get(Math.max(1, timeoutMs), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception ex) throw ex;
+            if (cause instanceof Error err) throw err;
+            throw e;
+        } catch (CancellationException e) {
+            throw new TimeoutException("In-flight execution was cancelled");
+        }
+    }
+
+    /** Loader executions so far. */
+    public long executions() {
+        return executions.sum();
+    }
+
+    /** Calls answered by someone else’s execution so far. */
+    public long shared() {
+        return shared.sum();
+    }
+
+    /** Keys currently in flight. */
+    public int inFlight() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.reviews.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlFilterTest {
+
+    @Test
+    void mapsReviewEndpoints() {
+        assertThat(endpoint("GET", "/reviews")).isEqualTo("list");
+        assertThat(endpoint("GET", "/reviews/")).isEqualTo("list");
+        assertThat(endpoint("GET", "/reviews/42")).isEqualTo("get");
+        assertThat(endpoint("DELETE", "/reviews/42")).isEqualTo("delete");
+        assertThat(endpoint("GET", "/reviews/changes")).isEqualTo("changes");
+    }
+
+    @Test
+    void letsEverythingElseThrough() {
+        assertThat(endpoint("GET", "/reviews/changes/stream")).isNull();
+        assertThat(endpoint("POST", "/reviews")).isNull();
+        assertThat(endpoint("DELETE", "/reviews/changes")).isNull();
+        assertThat(endpoint("PUT", "/reviews/42")).isNull();
+        assertThat(endpoint("GET", "/reviews/42/extra")).isNull();
+        assertThat(endpoint("GET", "/actuator/health")).isNull();
+    }
+
+    @Test
+    void ignoresTheContextPath() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reviews/7");
+        request.setContextPath("/api");
+        assertThat(AdmissionControlFilter.endpointOf(request)).isEqualTo("get");
+    }
+
+    private static String endpoint(String method, String uri) {
+        return AdmissionControlFilter.endpointOf(new MockHttpServletRequest(method, uri));
+    }
+}
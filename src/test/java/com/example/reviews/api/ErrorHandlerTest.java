@@ -0,0 +1,33 @@
+package com.example.reviews.api;
+
+import com.example.reviews.config.AdmissionProperties;
+import com.example.reviews.service.CoalescingReviewService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrorHandlerTest {
+
+    @Test
+    void every503CarriesTheConfiguredRetryAfter() {
+        AdmissionProperties admission = new AdmissionProperties();
+        admission.setRetryAfterSeconds(3);
+        ErrorHandler handler = new ErrorHandler(admission);
+
+        ResponseEntity<Map<String, Object>> busy = handler.busy(new CoalescingReviewService.BusyException("busy"));
+        ResponseEntity<Map<String, Object>> db = handler.dbBusy(new CannotCreateTransactionException("pool"));
+
+        for (ResponseEntity<Map<String, Object>> r : List.of(busy, db)) {
+            assertThat(r.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+            assertThat(r.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+            assertThat(r.getBody()).containsEntry("error", "SERVICE_UNAVAILABLE");
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.reviews.api.json;
+
+import com.example.reviews.event.ReviewsDeletedEvent;
+import com.example.reviews.model.dto.ChangeDto;
+import com.example.reviews.model.dto.ChangeFeedDto;
+import com.example.reviews.model.dto.PaginationDto;
+import com.example.reviews.model.dto.ReviewDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The cache must be invisible on the wire: every response is byte-for-byte what the plain mapper
+ * writes, whether the review is written alone or as one element among others (the separators
+ * around {@code writeRawValue}), from a miss or from a hit.
+ */
+class CachingReviewDtoSerializerTest {
+
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2024, 3, 1, 10, 0, 0, 123_456_000);
+
+    private final ReviewJsonCache cache = new ReviewJsonCache(1 << 20);
+    private final ObjectMapper plain = mapper();
+    private final ObjectMapper cached = mapper().registerModule(new ReviewJsonCacheConfig().reviewJsonCacheModule(cache));
+
+    @Test
+    void aloneMatchesThePlainMapper() throws Exception {
+        ReviewDto dto = review(1L, "Très bien \"quoted\" 😀 <tag>", UPDATED);
+
+        for (int pass = 0; pass < 2; pass++) {   // miss, then hit
+            assertThat(cached.writeValueAsBytes(dto)).isEqualTo(plain.writeValueAsBytes(dto));
+            assertThat(cached.writeValueAsString(dto)).isEqualTo(plain.writeValueAsString(dto));
+        }
+        assertThat(cache.get(1L, UPDATED)).isEqualTo(plain.writeValueAsBytes(dto));
+    }
+
+    @Test
+    void insidePagesAndChangeFeedsMatchesThePlainMapper() throws Exception {
+        ReviewDto first = review(1L, "first", UPDATED);
+        ReviewDto second = review(2L, "second", UPDATED);
+        ReviewDto unversioned = review(3L, "no updatedAt", null);   // bypasses the cache
+        PaginationDto<ReviewDto> page = new PaginationDto<>(1, 1, 3, 3, List.of(first, second, unversioned));
+        ChangeFeedDto feed = new ChangeFeedDto(List.of(
+                new ChangeDto(ChangeDto.Type.UPSERT, 1L, "google", "g-1", UPDATED, first),
+                new ChangeDto(ChangeDto.Type.DELETE, 9L, "google", "g-9", UPDATED, null),
+                new ChangeDto(ChangeDto.Type.UPSERT, 2L, "google", "g-2", UPDATED, second)),
+                "cursor", false);
+
+        for (int pass = 0; pass < 2; pass++) {
+            assertThat(new String(cached.writeValueAsBytes(page), StandardCharsets.UTF_8))
+                    .isEqualTo(new String(plain.writeValueAsBytes(page), StandardCharsets.UTF_8));
+            assertThat(cached.writeValueAsString(feed)).isEqualTo(plain.writeValueAsString(feed));
+            assertThat(cached.writeValueAsBytes(List.of(first, first))).isEqualTo(plain.writeValueAsBytes(List.of(first, first)));
+        }
+        assertThat(cache.get(3L, UPDATED)).isNull();
+    }
+
+    @Test
+    void hitWritesTheCachedBytesUntilTheReviewChanges() throws Exception {
+        cached.writeValueAsBytes(review(1L, "old", UPDATED));
+
+        // Same id and updatedAt: served from the cache, even though this instance says otherwise
+        assertThat(utf8(review(1L, "new", UPDATED))).contains("\"old\"");
+
+        // A newer updatedAt re-encodes
+        LocalDateTime later = UPDATED.plusNanos(1_000);
+        assertThat(utf8(review(1L, "new", later))).contains("\"new\"");
+
+        // So does a delete (and re-insert with the same updated_at)
+        cache.onDeleted(new ReviewsDeletedEvent(List.of(1L)));
+        assertThat(utf8(review(1L, "again", later))).contains("\"again\"");
+    }
+
+    /** Like the application's (spring.jackson.serialization.write-dates-as-timestamps=false). */
+    private static ObjectMapper mapper() {
+        return Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+    }
+
+    private String utf8(ReviewDto dto) throws Exception {
+        return new String(cached.writeValueAsBytes(dto), StandardCharsets.UTF_8);
+    }
+
+    private static ReviewDto review(Long id, String content, LocalDateTime updatedAt) {
+        return ReviewDto.builder()
+                .id(id).source("google").externalId("g-" + id).author("Ann").rating(4)
+                .content(content).reviewDate(LocalDateTime.of(2024, 2, 28, 8, 0, 0, 5_000)).tag("food")
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.reviews.api.json;
+
+import com.example.reviews.event.ReviewsDeletedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReviewJsonCacheTest {
+
+    private static final LocalDateTime V1 = LocalDateTime.of(2024, 3, 1, 10, 0, 0, 123_456_000);
+    private static final LocalDateTime V2 = V1.plusNanos(1_000);   // one microsecond later
+
+    private static final int ENTRY = 100 + 64;   // payload + per-entry overhead
+
+    @Test
+    void newerUpdatedAtReplacesTheEntry() {
+        ReviewJsonCache cache = new ReviewJsonCache(1 << 20);
+        cache.put(1, V1, json(1, 'a'));
+
+        assertThat(cache.get(1, V1)).isEqualTo(json(1, 'a'));
+        assertThat(cache.get(1, V2)).isNull();   // the row changed: re-encode
+
+        cache.put(1, V2, json(1, 'b'));
+        assertThat(cache.get(1, V2)).isEqualTo(json(1, 'b'));
+        assertThat(cache.get(1, V1)).isNull();
+    }
+
+    @Test
+    void deleteEvictsAfterCommit() {
+        ReviewJsonCache cache = new ReviewJsonCache(1 << 20);
+        cache.put(1, V1, json(1, 'a'));
+        cache.put(2, V1, json(2, 'a'));
+
+        cache.onDeleted(new ReviewsDeletedEvent(List.of(1L)));
+
+        assertThat(cache.get(1, V1)).isNull();
+        assertThat(cache.get(2, V1)).isNotNull();
+    }
+
+    @Test
+    void byteBoundEvicts() {
+        ReviewJsonCache cache = new ReviewJsonCache(10 * ENTRY);
+        for (long id = 1; id <= 25; id++) cache.put(id, V1, json(id, 'a'));
+
+        long kept = cached(cache, 25);
+        assertThat(kept).isPositive();
+        assertThat(kept * ENTRY).isLessThanOrEqualTo(10 * ENTRY);
+    }
+
+    @Test
+    void replacingAnEntryDoesNotCountItTwice() {
+        ReviewJsonCache cache = new ReviewJsonCache(10 * ENTRY);
+        for (long id = 1; id <= 5; id++) cache.put(id, V1, json(id, 'a'));
+
+        // Many versions of one review: the budget holds one copy, so nothing gets evicted
+        LocalDateTime version = V1;
+        for (int i = 0; i < 100; i++) {
+            version = version.plusSeconds(1);
+            cache.put(1, version, json(1, 'b'));
+        }
+
+        assertThat(cache.get(1, version)).isNotNull();
+        for (long id = 2; id <= 5; id++) assertThat(cache.get(id, V1)).isNotNull();
+    }
+
+    private static long cached(ReviewJsonCache cache, long ids) {
+        return LongStream.rangeClosed(1, ids)
+                .filter(id -> cache.get(id, V1) != null)
+                .count();
+    }
+
+    /** 100 bytes of JSON-ish payload. */
+    private static byte[] json(long id, char fill) {
+        byte[] b = new byte[100];
+        Arrays.fill(b, (byte) fill);
+        b[0] = (byte) ('0' + id % 10);
+        return b;
+    }
+}
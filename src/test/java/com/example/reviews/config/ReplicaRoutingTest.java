@@ -0,0 +1,84 @@
+package com.example.reviews.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Read/write routing against two embedded databases: {@code primary} and {@code replica}.
+ * {@code SELECT DATABASE()} tells which one a transaction actually ran on.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "reviews.replicas.enabled=true",
+        "reviews.replicas.nodes[0].url=jdbc:h2:mem:replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "reviews.replicas.nodes[0].username=sa",
+        "reviews.replicas.health-check-interval-ms=100",
+        "reviews.replicas.read-your-writes-window-ms=300",
+        "spring.datasource.hikari.maximum-pool-size=7",
+        "spring.datasource.hikari.connection-timeout=4321"
+})
+@ActiveProfiles("test")
+class ReplicaRoutingTest {
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @Autowired
+    PlatformTransactionManager txManager;
+
+    @Autowired
+    ReadYourWritesTracker tracker;
+
+    @Autowired
+    HikariDataSource primaryDataSource;
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() throws Exception {
+        awaitReplicaInRotation();
+        assertThat(databaseIn(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void writesGoToThePrimary() throws Exception {
+        awaitReplicaInRotation();
+        assertThat(databaseIn(false)).isEqualTo("primary");
+        assertThat(jdbc.queryForObject("SELECT DATABASE()", String.class)).isEqualTo("primary");   // no transaction
+    }
+
+    @Test
+    void readsStickToThePrimaryInsideTheReadYourWritesWindow() throws Exception {
+        awaitReplicaInRotation();
+        tracker.recordWrite();
+        assertThat(databaseIn(true)).isEqualTo("primary");
+
+        Thread.sleep(400);   // window (300 ms) over
+        assertThat(databaseIn(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void primaryPoolKeepsHikariSettings() {
+        assertThat(primaryDataSource.getMaximumPoolSize()).isEqualTo(7);
+        assertThat(primaryDataSource.getConnectionTimeout()).isEqualTo(4321);
+    }
+
+    private String databaseIn(boolean readOnly) {
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+        tx.setReadOnly(readOnly);
+        return tx.execute(s -> jdbc.queryForObject("SELECT DATABASE()", String.class));
+    }
+
+    // Replicas join the rotation after their first successful probe
+    private void awaitReplicaInRotation() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!"replica".equals(databaseIn(true)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+}
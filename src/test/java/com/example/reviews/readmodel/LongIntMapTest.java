@@ -0,0 +1,67 @@
+package com.example.reviews.readmodel;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongIntMapTest {
+
+    @Test
+    void putGetRemove() {
+        LongIntMap m = new LongIntMap();
+        m.put(7, 70);
+        m.put(8, 80);
+        m.put(7, 71);
+        assertThat(m.size()).isEqualTo(2);
+        assertThat(m.get(7)).isEqualTo(71);
+        assertThat(m.get(9)).isEqualTo(-1);
+        assertThat(m.remove(7)).isEqualTo(71);
+        assertThat(m.remove(7)).isEqualTo(-1);
+        assertThat(m.get(8)).isEqualTo(80);
+        assertThat(m.size()).isEqualTo(1);
+    }
+
+    @Test
+    void backwardShiftKeepsProbeRunsReachable() {
+        // Small table, many keys: long probe runs that wrap around the end of the arrays
+        LongIntMap m = new LongIntMap(16);
+        Map<Long, Integer> expected = new HashMap<>();
+        for (long k = 1; k <= 64; k++) {
+            m.put(k, (int) k * 10);
+            expected.put(k, (int) k * 10);
+        }
+        // Remove from the middle of runs, then check every survivor is still found
+        for (long k = 1; k <= 64; k += 3) {
+            assertThat(m.remove(k)).isEqualTo((int) k * 10);
+            expected.remove(k);
+            for (Map.Entry<Long, Integer> e : expected.entrySet()) {
+                assertThat(m.get(e.getKey())).as("key %d after removing %d", e.getKey(), k).isEqualTo(e.getValue());
+            }
+        }
+        assertThat(m.size()).isEqualTo(expected.size());
+    }
+
+    @Test
+    void randomOperationsMatchHashMap() {
+        Random rnd = new Random(42);
+        LongIntMap m = new LongIntMap();
+        Map<Long, Integer> ref = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            long key = rnd.nextInt(2_000) * 1_000_003L;   // clustered ids
+            switch (rnd.nextInt(3)) {
+                case 0 -> {
+                    m.put(key, i);
+                    ref.put(key, i);
+                }
+                case 1 -> assertThat(m.remove(key)).isEqualTo(ref.containsKey(key) ? ref.remove(key) : -1);
+                default -> assertThat(m.get(key)).isEqualTo(ref.getOrDefault(key, -1));
+            }
+        }
+        assertThat(m.size()).isEqualTo(ref.size());
+        ref.forEach((k, v) -> assertThat(m.get(k)).isEqualTo(v));
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.reviews.readmodel;
+
+import com.example.reviews.model.dto.ReviewQuery;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReviewColumnsTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private static ReviewColumns.Row row(long id, String source, String tag, Integer rating, int day) {
+        return new ReviewColumns.Row(id, source, tag, rating, T0.plusDays(day), T0.plusHours(id));
+    }
+
+    private static long[] ids(ReviewColumns c, ReviewQuery q) {
+        return c.query(q, 0, 100).ids();
+    }
+
+    @Test
+    void filtersAreCaseInsensitiveAndSortedByCreatedAtDescending() {
+        ReviewColumns c = new ReviewColumns();
+        c.upsertAll(List.of(
+                row(1, "google", "Food", 5, 1),
+                row(2, "Google", "food", 3, 2),
+                row(3, "yelp", "Food", 4, 3),
+                row(4, "google", null, null, 4)));
+
+        assertThat(ids(c, ReviewQuery.of("GOOGLE", null))).containsExactly(4, 2, 1);
+        assertThat(ids(c, ReviewQuery.of(null, "FOOD"))).containsExactly(3, 2, 1);
+        assertThat(ids(c, ReviewQuery.of("google", "food"))).containsExactly(2, 1);
+        assertThat(c.query(ReviewQuery.of(null, null), 0, 100).total()).isEqualTo(4);
+    }
+
+    @Test
+    void rangesExcludeMissingValuesAndSortAscending() {
+        ReviewColumns c = new ReviewColumns();
+        c.upsertAll(List.of(
+                row(1, "g", null, 5, 1),
+                row(2, "g", null, 3, 2),
+                row(3, "g", null, null, 3),
+                new ReviewColumns.Row(4, "g", null, 4, null, T0)));
+
+        ReviewQuery ratings = ReviewQuery.of(null, null, 3, 4, null, null, "rating,asc");
+        assertThat(ids(c, ratings)).containsExactly(2, 4);
+
+        ReviewQuery dates = ReviewQuery.of(null, null, null, null,
+                LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 3), "reviewDate,asc");
+        assertThat(ids(c, dates)).containsExactly(1, 2);
+    }
+
+    @Test
+    void upsertReplacesAndDeleteRemoves() {
+        ReviewColumns c = new ReviewColumns();
+        c.upsert(row(1, "google", "a", 5, 1));
+        c.upsert(row(1, "yelp", "b", 2, 1));
+        assertThat(ids(c, ReviewQuery.of("google", null))).isEmpty();
+        assertThat(ids(c, ReviewQuery.of("yelp", "b"))).containsExactly(1);
+
+        c.deleteAll(List.of(1L, 99L));
+        assertThat(c.liveCount()).isZero();
+        assertThat(ids(c, ReviewQuery.of("yelp", null))).isEmpty();
+    }
+
+    @Test
+    void pagingAndCompactionKeepResultsConsistent() {
+        ReviewColumns c = new ReviewColumns();
+        List<ReviewColumns.Row> rows = new ArrayList<>();
+        for (long id = 1; id <= 5_000; id++) rows.add(row(id, (id % 2 == 0) ? "even" : "odd", null, 1 + (int) (id % 5), 0));
+        c.upsertAll(rows);
+
+        // Enough deletes to trigger compaction
+        List<Long> gone = new ArrayList<>();
+        for (long id = 1; id <= 2_000; id++) gone.add(id);
+        c.deleteAll(gone);
+        assertThat(c.liveCount()).isEqualTo(3_000);
+
+        ReviewColumns.Result page = c.query(ReviewQuery.of("even", null), 10, 5);
+        assertThat(page.total()).isEqualTo(1_500);
+        assertThat(page.ids()).containsExactly(4980, 4978, 4976, 4974, 4972);
+    }
+
+    @Test
+    void reReadRowsDoNotUndoALaterDelete() {
+        ReviewColumns c = new ReviewColumns();
+        c.upsert(row(1, "google", null, 5, 1));
+
+        // Upsert listener reads id 1 (and a fresh id 2), then both deletes are applied first
+        long read = c.beginRead();
+        List<ReviewColumns.Row> reRead = List.of(row(1, "google", null, 4, 1), row(2, "google", null, 3, 2));
+        c.deleteAll(List.of(1L, 2L));
+        c.upsertAll(reRead, read);
+        c.endRead(read);
+
+        assertThat(c.liveCount()).isZero();
+        assertThat(ids(c, ReviewQuery.of("google", null))).isEmpty();
+    }
+
+    @Test
+    void readsStartedAfterADeleteStillApply() {
+        ReviewColumns c = new ReviewColumns();
+        long older = c.beginRead();          // keeps the deletion remembered
+        c.deleteAll(List.of(1L));
+
+        long newer = c.beginRead();          // e.g. id 1 promoted back from the cold tier
+        c.upsertAll(List.of(row(1, "google", null, 5, 1)), newer);
+        c.endRead(newer);
+        assertThat(ids(c, ReviewQuery.of("google", null))).containsExactly(1);
+
+        c.upsertAll(List.of(row(1, "yelp", null, 5, 1)), older);   // the older read is still ignored
+        c.endRead(older);
+        assertThat(ids(c, ReviewQuery.of("google", null))).containsExactly(1);
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.reviews.readmodel;
+
+import com.example.reviews.event.ReviewsDeletedEvent;
+import com.example.reviews.event.ReviewsUpsertedEvent;
+import com.example.reviews.model.dto.ReviewQuery;
+import com.example.reviews.tiering.ColdStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The upsert listener re-reads rows after commit; a delete committed right after that read must
+ * win even when its listener runs first.
+ */
+class ReviewReadModelTest {
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate db;
+
+    @BeforeEach
+    void createTable() {
+        dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:readmodel;MODE=MySQL;DATABASE_TO_LOWER=TRUE", "sa", "", true);
+        db = new JdbcTemplate(dataSource);
+        db.execute("CREATE TABLE reviews (id BIGINT PRIMARY KEY, source VARCHAR(32), external_id VARCHAR(64), " +
+                "author VARCHAR(255), rating INT, content TEXT, content_z BLOB, tag VARCHAR(64), " +
+                "review_date TIMESTAMP, created_at TIMESTAMP, updated_at TIMESTAMP)");
+        db.update("INSERT INTO reviews (id, source, external_id, rating, created_at, updated_at) " +
+                "VALUES (1, 'google', 'g-1', 5, NOW(), NOW())");
+    }
+
+    @AfterEach
+    void dropTable() {
+        db.execute("DROP TABLE reviews");
+        dataSource.destroy();
+    }
+
+    @Test
+    void deleteCommittedDuringUpsertReReadWins() {
+        ReviewReadModel[] model = new ReviewReadModel[1];
+        // Plays the delete transaction: commits and runs its listener while the upsert listener
+        // is between its SELECT and applying the rows
+        JdbcTemplate racingJdbc = new JdbcTemplate(dataSource) {
+            @Override
+            public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+                List<T> rows = super.query(sql, rowMapper, args);
+                db.update("DELETE FROM reviews WHERE id = 1");
+                model[0].onDeleted(new ReviewsDeletedEvent(List.of(1L)));
+                return rows;
+            }
+        };
+        model[0] = new ReviewReadModel(racingJdbc, ignoringStreamingFetchSize(dataSource), noColdStore());
+        model[0].load();
+        assertThat(total(model[0])).isEqualTo(1);
+
+        model[0].onUpserted(new ReviewsUpsertedEvent(List.of(new ReviewsUpsertedEvent.Key("google", "g-1"))));
+
+        assertThat(total(model[0])).isZero();
+    }
+
+    @Test
+    void upsertReReadIsApplied() {
+        ReviewReadModel model = new ReviewReadModel(new JdbcTemplate(dataSource), ignoringStreamingFetchSize(dataSource), noColdStore());
+        model.load();
+        db.update("INSERT INTO reviews (id, source, external_id, rating, created_at, updated_at) " +
+                "VALUES (2, 'yelp', 'y-1', 3, NOW(), NOW())");
+
+        model.onUpserted(new ReviewsUpsertedEvent(List.of(new ReviewsUpsertedEvent.Key("yelp", "y-1"))));
+
+        assertThat(total(model)).isEqualTo(2);
+        assertThat(model.search(ReviewQuery.of("YELP", null), PageRequest.of(0, 10)).getContent())
+                .extracting("externalId").containsExactly("y-1");
+    }
+
+    @Test
+    void upsertsBeforeTheLoadAreLeftToTheLoad() {
+        int[] reReads = {0};
+        JdbcTemplate countingJdbc = new JdbcTemplate(dataSource) {
+            @Override
+            public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+                reReads[0]++;
+                return super.query(sql, rowMapper, args);
+            }
+        };
+        ReviewReadModel model = new ReviewReadModel(countingJdbc, ignoringStreamingFetchSize(dataSource), noColdStore());
+
+        // e.g. a snapshot bootstrap writing batches before the model's startup load
+        model.onUpserted(new ReviewsUpsertedEvent(List.of(new ReviewsUpsertedEvent.Key("google", "g-1"))));
+        assertThat(reReads[0]).isZero();
+
+        model.load();
+        assertThat(total(model)).isEqualTo(1);
+    }
+
+    private static long total(ReviewReadModel model) {
+        return model.search(ReviewQuery.of(null, null), PageRequest.of(0, 10)).getTotalElements();
+    }
+
+    // The model streams its startup scan with MySQL's fetch size Integer.MIN_VALUE, which H2 rejects
+    private static DataSource ignoringStreamingFetchSize(DataSource ds) {
+        return new DelegatingDataSource(ds) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Connection con = super.getConnection();
+                return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                        (p, m, a) -> {
+                            Object result = invoke(con, m, a);
+                            if (!(result instanceof Statement st)) return result;
+                            return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Statement.class},
+                                    (p2, m2, a2) -> (m2.getName().equals("setFetchSize") && (int) a2[0] < 0)
+                                            ? null : invoke(st, m2, a2));
+                        });
+            }
+        };
+    }
+
+    private static Object invoke(Object target, Method m, Object[] args) throws Throwable {
+        try {
+            return m.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static ObjectProvider<ColdStore> noColdStore() {
+        return new DefaultListableBeanFactory().getBeanProvider(ColdStore.class);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.reviews.repository;
+
+import com.example.reviews.model.upstream.ReviewInDto;
+import com.example.reviews.tiering.ColdStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * A re-import racing the tiering job on H2: the cold tier is a mock that "publishes" a segment
+ * between the importer's first check and its INSERT.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class BulkReviewRepositoryTest {
+
+    private static final LocalDateTime COLD_CREATED = LocalDateTime.of(2020, 3, 1, 12, 0);
+
+    @Autowired
+    BulkReviewRepository repo;
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @Autowired
+    PlatformTransactionManager txManager;
+
+    @MockBean
+    ColdStore cold;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("DELETE FROM reviews");
+        when(cold.isEmpty()).thenReturn(false);
+    }
+
+    @Test
+    void reviewMovedWhileBeingInsertedKeepsItsColdId() {
+        // The INSERT ran after the move deleted the hot row: a fresh id, still PENDING
+        insert(1000, "moved", ChangeSequence.PENDING);
+        when(cold.findLive("google", "moved")).thenReturn(new ColdStore.Hit(42, 7, COLD_CREATED, COLD_CREATED, 0));
+
+        List<Long> promoted = settle("moved");
+
+        assertThat(promoted).containsExactly(42L);
+        assertThat(jdbc.queryForObject("SELECT id FROM reviews WHERE external_id = 'moved'", Long.class)).isEqualTo(42L);
+        assertThat(jdbc.queryForObject("SELECT created_at FROM reviews WHERE external_id = 'moved'", Timestamp.class))
+                .isEqualTo(Timestamp.valueOf(COLD_CREATED));
+    }
+
+    @Test
+    void rowsTheBatchLeftUnchangedStayCold() {
+        // Re-sent unchanged: the upsert kept its change_seq, so its cold copy must survive the move
+        insert(42, "unchanged", 5);
+        insert(43, "fresh", ChangeSequence.PENDING);
+        when(cold.findLive("google", "unchanged")).thenReturn(new ColdStore.Hit(42, 7, COLD_CREATED, COLD_CREATED, 0));
+
+        assertThat(settle("unchanged", "fresh")).isEmpty();
+        assertThat(jdbc.queryForList("SELECT id FROM reviews ORDER BY id", Long.class)).containsExactly(42L, 43L);
+    }
+
+    @Test
+    void changedReviewAlreadyUnderItsColdIdIsPromoted() {
+        insert(42, "changed", ChangeSequence.PENDING);
+        when(cold.findLive("google", "changed")).thenReturn(new ColdStore.Hit(42, 7, COLD_CREATED, COLD_CREATED, 0));
+
+        assertThat(settle("changed")).containsExactly(42L);
+        assertThat(jdbc.queryForList("SELECT id FROM reviews", Long.class)).containsExactly(42L);
+    }
+
+    private List<Long> settle(String... externalIds) {
+        List<ReviewInDto> batch = Arrays.stream(externalIds)
+                .map(x -> new ReviewInDto(x, "google", "a", 4, "text", null, null, null))
+                .toList();
+        return new TransactionTemplate(txManager).execute(s -> repo.settlePromotions(batch, cold));
+    }
+
+    private void insert(long id, String externalId, long changeSeq) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbc.update("INSERT INTO reviews (id, source, external_id, created_at, updated_at, change_seq) VALUES (?, 'google', ?, ?, ?, ?)",
+                id, externalId, now, now, changeSeq);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.reviews.repository.spec;
+
+import com.example.reviews.model.entity.Review;
+import com.example.reviews.repository.ReviewColumnCollation;
+import com.example.reviews.repository.ReviewRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Source/tag filters on a database whose collation is case-sensitive (H2): the filters must
+ * notice and keep matching regardless of case.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class ReviewSpecificationsTest {
+
+    @Autowired
+    ReviewRepository repo;
+
+    @Autowired
+    ReviewColumnCollation collation;
+
+    @BeforeEach
+    void insert() {
+        repo.deleteAll();
+        LocalDateTime now = LocalDateTime.now();
+        Review r = new Review();
+        r.setSource("google");
+        r.setExternalId("g-1");
+        r.setTag("Service");
+        r.setCreatedAt(now);
+        r.setUpdatedAt(now);
+        r.setChangeSeq(0L);
+        repo.save(r);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        repo.deleteAll();
+    }
+
+    @Test
+    void caseSensitiveCollationIsDetected() {
+        assertThat(collation.caseInsensitive()).isFalse();
+    }
+
+    @Test
+    void filtersIgnoreCaseWithoutCiCollation() {
+        boolean ci = collation.caseInsensitive();
+        assertThat(repo.findAll(ReviewSpecifications.source("Google", ci))).hasSize(1);
+        assertThat(repo.findAll(ReviewSpecifications.source(" GOOGLE ", ci))).hasSize(1);
+        assertThat(repo.findAll(ReviewSpecifications.tag("service", ci))).hasSize(1);
+        assertThat(repo.findAll(ReviewSpecifications.source("yelp", ci))).isEmpty();
+    }
+
+    @Test
+    void bareColumnComparisonReliesOnCollation() {
+        // What the filters would do if they trusted a collation that isn't there
+        assertThat(repo.findAll(ReviewSpecifications.source("Google", true))).isEmpty();
+        assertThat(repo.findAll(ReviewSpecifications.source("google", true))).hasSize(1);
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.reviews.service;
+
+import com.example.reviews.config.BulkDeleteProperties;
+import com.example.reviews.config.ReadYourWritesTracker;
+import com.example.reviews.event.ReviewsDeletedEvent;
+import com.example.reviews.model.dto.DeleteJobDto;
+import com.example.reviews.repository.BulkReviewRepository;
+import com.example.reviews.tiering.ColdRecord;
+import com.example.reviews.tiering.ColdStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Delete jobs on H2: the primary-key window walk, cancellation, tombstones and delete events.
+ * The cold tier is a mock, so the cold pass can be paused mid-job.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class BulkDeleteServiceTest {
+
+    @Autowired
+    BulkDeleteService service;
+
+    @Autowired
+    BulkDeleteProperties props;
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @Autowired
+    DeletedIds deletedIds;
+
+    @SpyBean
+    BulkReviewRepository repo;
+
+    @MockBean
+    ColdStore cold;
+
+    @SpyBean
+    ReadYourWritesTracker readYourWrites;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("DELETE FROM reviews");
+        jdbc.update("DELETE FROM review_tombstones");
+        deletedIds.ids.clear();
+        props.setWindowSize(3);
+        props.setPauseMs(0);
+        when(cold.matching(any(), any(), any(), anyLong(), anyInt())).thenReturn(new ColdStore.Batch(List.of(), -1, 0));
+    }
+
+    @AfterEach
+    void restore() {
+        props.setWindowSize(5_000);
+        props.setPauseMs(100);
+    }
+
+    @Test
+    void walksTheIdRangeInWindowsAndSkipsGaps() throws Exception {
+        for (long id : new long[]{1, 2, 3, 4, 100, 101, 5000}) insert(id, "google");
+        insert(5, "yelp");
+
+        DeleteJobDto job = awaitFinished(service.start("google", null, null));
+
+        assertThat(job.status()).isEqualTo("COMPLETED");
+        assertThat(job.deleted()).isEqualTo(7);
+        assertThat(job.progress()).isEqualTo(1.0);
+        assertThat(jdbc.queryForList("SELECT id FROM reviews", Long.class)).containsExactly(5L);
+
+        ArgumentCaptor<Long> from = ArgumentCaptor.forClass(Long.class);
+        ArgumentCaptor<Long> to = ArgumentCaptor.forClass(Long.class);
+        verify(repo, atLeastOnce()).deleteMatchingInWindow(eq("google"), any(), any(), from.capture(), to.capture());
+        // [1,4) [4,7) then straight to 100 and 5000: empty id ranges are never scanned
+        assertThat(from.getAllValues()).containsExactly(1L, 4L, 100L, 5000L);
+        assertThat(to.getAllValues()).containsExactly(4L, 7L, 103L, 5001L);
+
+        // One read-your-writes pin at the end, not one per window
+        verify(readYourWrites, times(1)).recordWrite();
+    }
+
+    @Test
+    void sourceAndTagMatchWhateverTheirCase() throws Exception {
+        insert(1, "google");
+        insert(2, "Google");
+        insert(3, "GOOGLE");
+        insert(4, "yelp");
+        jdbc.update("UPDATE reviews SET tag = 'Food' WHERE id IN (1, 2)");
+
+        DeleteJobDto job = awaitFinished(service.start("gOOgle", "FOOD", null));
+        assertThat(job.deleted()).isEqualTo(2);
+        assertThat(jdbc.queryForList("SELECT id FROM reviews ORDER BY id", Long.class)).containsExactly(3L, 4L);
+
+        job = awaitFinished(service.start("google", null, null));
+        assertThat(job.deleted()).isEqualTo(1);
+        assertThat(jdbc.queryForList("SELECT id FROM reviews", Long.class)).containsExactly(4L);
+        assertThat(jdbc.queryForList("SELECT source FROM review_tombstones ORDER BY review_id", String.class))
+                .containsExactly("google", "Google", "GOOGLE");
+    }
+
+    @Test
+    void everyDeleteGetsATombstoneAndAnEvent() throws Exception {
+        for (long id = 1; id <= 5; id++) insert(id, "google");
+
+        awaitFinished(service.start("google", null, null));
+
+        assertThat(jdbc.queryForList("SELECT review_id FROM review_tombstones WHERE change_seq > 0", Long.class))
+                .containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L);
+        assertThat(deletedIds.ids).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void cancelStopsAfterTheCurrentWindow() throws Exception {
+        for (long id = 1; id <= 30; id++) insert(id, "google");
+        props.setPauseMs(200);
+
+        DeleteJobDto started = service.start("google", null, null);
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (service.get(started.id()).deleted() == 0 && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        service.cancel(started.id());
+        DeleteJobDto job = awaitFinished(started);
+
+        assertThat(job.status()).isEqualTo("CANCELLED");
+        assertThat(job.deleted()).isBetween(3L, 27L);
+        long left = jdbc.queryForObject("SELECT COUNT(*) FROM reviews", Long.class);
+        assertThat(left).isEqualTo(30 - job.deleted());
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM review_tombstones", Long.class)).isEqualTo(job.deleted());
+    }
+
+    @Test
+    void coldPassCountsTowardsProgressAndIsTombstoned() throws Exception {
+        for (long id = 1; id <= 10; id++) insert(id, "google");
+
+        CountDownLatch secondBatch = new CountDownLatch(1);
+        CountDownLatch mayContinue = new CountDownLatch(1);
+        ColdRecord coldReview = new ColdRecord(900, "google", "ext-900", "a", 5, "old", LocalDateTime.now().minusYears(3),
+                null, LocalDateTime.now().minusYears(3), LocalDateTime.now().minusYears(3), 1L);
+        when(cold.rowCount()).thenReturn(10L);
+        when(cold.matching(eq("google"), any(), any(), eq(0L), anyInt()))
+                .thenReturn(new ColdStore.Batch(List.of(coldReview), 5, 5));
+        when(cold.matching(eq("google"), any(), any(), eq(5L), anyInt())).thenAnswer(inv -> {
+            secondBatch.countDown();
+            assertThat(mayContinue.await(5, TimeUnit.SECONDS)).isTrue();
+            return new ColdStore.Batch(List.of(), -1, 5);
+        });
+
+        DeleteJobDto started = service.start("google", null, null);
+        assertThat(secondBatch.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // 5 of 10 segment rows scanned, none of the 10 hot ids yet
+        DeleteJobDto midway = service.get(started.id());
+        assertThat(midway.progress()).isEqualTo(0.25);
+        assertThat(midway.deleted()).isEqualTo(1);
+
+        mayContinue.countDown();
+        DeleteJobDto job = awaitFinished(started);
+        assertThat(job.deleted()).isEqualTo(11);
+        assertThat(jdbc.queryForList("SELECT review_id FROM review_tombstones WHERE external_id = 'ext-900'", Long.class))
+                .containsExactly(900L);
+        assertThat(deletedIds.ids).contains(900L);
+    }
+
+    private void insert(long id, String source) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbc.update("INSERT INTO reviews (id, source, external_id, created_at, updated_at, change_seq) VALUES (?, ?, ?, ?, ?, 0)",
+                id, source, "ext-" + id, now, now);
+    }
+
+    private DeleteJobDto awaitFinished(DeleteJobDto job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        DeleteJobDto current = service.get(job.id());
+        while (Set.of("QUEUED", "RUNNING").contains(current.status()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            current = service.get(job.id());
+        }
+        return current;
+    }
+
+    /** Ids of every delete event, as derived state sees them (after commit). */
+    static class DeletedIds {
+        final List<Long> ids = new CopyOnWriteArrayList<>();
+
+        @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+        public void onDeleted(ReviewsDeletedEvent event) {
+            ids.addAll(event.ids());
+        }
+    }
+
+    @TestConfiguration
+    static class Events {
+        @Bean
+        DeletedIds deletedIds() {
+            return new DeletedIds();
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.reviews.service;
+
+import com.example.reviews.model.dto.ChangeDto;
+import com.example.reviews.model.dto.ChangeFeedDto;
+import com.example.reviews.config.ChangeFeedProperties;
+import com.example.reviews.mapper.ReviewMapper;
+import com.example.reviews.repository.ChangeSequence;
+import com.example.reviews.repository.ReviewRepository;
+import com.example.reviews.repository.ReviewTombstoneRepository;
+import com.example.reviews.tiering.ColdRecord;
+import com.example.reviews.tiering.ColdStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Change feed order on H2: writers commit in {@code change_seq} order, whatever their timestamps say.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class ChangeFeedServiceTest {
+
+    @Autowired
+    ChangeFeedService feed;
+
+    @Autowired
+    ChangeSequence changeSequence;
+
+    @Autowired
+    ReviewService reviewService;
+
+    @Autowired
+    TombstonePruner pruner;
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @Autowired
+    PlatformTransactionManager txManager;
+
+    @Autowired
+    ReviewRepository reviewRepository;
+
+    @Autowired
+    ReviewTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    ReviewMapper reviewMapper;
+
+    @Autowired
+    ChangeFeedProperties props;
+
+    TransactionTemplate tx;
+
+    @BeforeEach
+    void cleanUp() {
+        tx = new TransactionTemplate(txManager);
+        jdbc.update("DELETE FROM reviews");
+        jdbc.update("DELETE FROM review_tombstones");
+        jdbc.update("DELETE FROM review_change_seq");
+    }
+
+    @Test
+    void slowWriterWithAnOlderTimestampIsNotSkipped() throws Exception {
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch mayCommit = new CountDownLatch(1);
+
+        // Writer A stamps updated_at an hour ago, then stalls before committing
+        CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> tx.executeWithoutResult(s -> {
+            insertPending("google", "slow", LocalDateTime.now().minusHours(1));
+            written.countDown();
+            await(mayCommit);
+            stamp("google", "slow");
+        }));
+        assertThat(written.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Writer B commits meanwhile; a consumer reads it and moves on
+        tx.executeWithoutResult(s -> {
+            insertPending("google", "fast", LocalDateTime.now());
+            stamp("google", "fast");
+        });
+        ChangeFeedDto first = feed.changes(null, 10);
+        assertThat(first.changes()).extracting(ChangeDto::externalId).containsExactly("fast");
+
+        mayCommit.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+
+        ChangeFeedDto second = feed.changes(first.nextCursor(), 10);
+        assertThat(second.changes()).extracting(ChangeDto::externalId).containsExactly("slow");
+        assertThat(feed.changes(second.nextCursor(), 10).changes()).isEmpty();
+    }
+
+    @Test
+    void nextNumberWaitsForTheHolderToCommit() throws Exception {
+        CountDownLatch taken = new CountDownLatch(1);
+        CountDownLatch mayCommit = new CountDownLatch(1);
+        CompletableFuture<Long> first = CompletableFuture.supplyAsync(() -> tx.execute(s -> {
+            long seq = changeSequence.next();
+            taken.countDown();
+            await(mayCommit);
+            return seq;
+        }));
+        assertThat(taken.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Long> second = CompletableFuture.supplyAsync(() -> tx.execute(s -> changeSequence.next()));
+        Thread.sleep(200);
+        assertThat(second).isNotDone();
+
+        mayCommit.countDown();
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(first.get(5, TimeUnit.SECONDS) + 1);
+    }
+
+    @Test
+    void deletesAreMergedInCommitOrder() {
+        tx.executeWithoutResult(s -> {
+            insertPending("google", "a", LocalDateTime.now());
+            insertPending("google", "b", LocalDateTime.now());
+            stamp("google", "a");
+            stamp("google", "b");
+        });
+        Long idA = jdbc.queryForObject("SELECT id FROM reviews WHERE external_id = 'a'", Long.class);
+        reviewService.delete(idA);
+
+        ChangeFeedDto all = feed.changes(null, 10);
+        assertThat(all.changes()).extracting(c -> c.type() + ":" + c.externalId())
+                .containsExactly("UPSERT:b", "DELETE:a");
+
+        // One at a time gives the same sequence
+        ChangeFeedDto one = feed.changes(null, 1);
+        assertThat(one.hasMore()).isTrue();
+        assertThat(feed.changes(one.nextCursor(), 1).changes()).extracting(ChangeDto::type)
+                .containsExactly(ChangeDto.Type.DELETE);
+    }
+
+    @Test
+    void cursorBehindPrunedTombstonesIsRefused() {
+        tx.executeWithoutResult(s -> {
+            insertPending("google", "kept", LocalDateTime.now());
+            stamp("google", "kept");
+        });
+        String early = feed.changes(null, 10).nextCursor();
+
+        // A delete 40 days ago, then retention (30 days) removes its tombstone
+        tx.executeWithoutResult(s -> jdbc.update(
+                "INSERT INTO review_tombstones (review_id, source, external_id, deleted_at, change_seq) VALUES (99, 'google', 'gone', ?, ?)",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(40)), changeSequence.next()));
+        String late = feed.changes(early, 10).nextCursor();
+        assertThat(pruner.pruneOnce()).isEqualTo(1);
+
+        assertThatThrownBy(() -> feed.changes(early, 10)).isInstanceOf(ChangeFeedService.CursorExpiredException.class);
+        assertThat(feed.changes(late, 10).changes()).isEmpty();
+        assertThat(feed.changes(null, 10).changes()).extracting(ChangeDto::externalId).containsExactly("kept");
+    }
+
+    @Test
+    void legacyCursorRestartsFromTheBeginning() {
+        tx.executeWithoutResult(s -> {
+            insertPending("google", "a", LocalDateTime.now());
+            stamp("google", "a");
+        });
+        String v1 = java.util.Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("v1|2025-01-01T00:00|5|2025-01-01T00:00|0".getBytes());
+        assertThat(feed.changes(v1, 10).changes()).extracting(ChangeDto::externalId).containsExactly("a");
+        assertThatThrownBy(() -> feed.changes("garbage", 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void freshConsumerGetsTheColdReviewsAfterCatchingUp() {
+        tx.executeWithoutResult(s -> {
+            insertPending("google", "hot", LocalDateTime.now());
+            stamp("google", "hot");
+        });
+        ChangeFeedService withCold = feedWithCold(coldReview(1, "c1"), coldReview(2, "c2"), coldReview(3, "c3"));
+
+        // Streams first; the cursor then walks the segments
+        ChangeFeedDto hot = withCold.changes(null, 2);
+        assertThat(hot.changes()).extracting(ChangeDto::externalId).containsExactly("hot");
+        assertThat(hot.hasMore()).isTrue();
+        ChangeFeedDto first = withCold.changes(hot.nextCursor(), 2);
+        assertThat(first.changes()).extracting(c -> c.type() + ":" + c.externalId())
+                .containsExactly("UPSERT:c1", "UPSERT:c2");
+        assertThat(first.changes().get(0).review().getContent()).isEqualTo("cold c1");
+        ChangeFeedDto second = withCold.changes(first.nextCursor(), 2);
+        assertThat(second.changes()).extracting(ChangeDto::externalId).containsExactly("c3");
+
+        // Writes made during the walk follow, and the segments are not walked again
+        tx.executeWithoutResult(s -> {
+            insertPending("google", "later", LocalDateTime.now());
+            stamp("google", "later");
+        });
+        ChangeFeedDto after = withCold.changes(second.nextCursor(), 2);
+        assertThat(after.changes()).extracting(ChangeDto::externalId).containsExactly("later");
+        ChangeFeedDto idle = withCold.changes(after.nextCursor(), 2);
+        assertThat(idle.changes()).isEmpty();
+        assertThat(idle.hasMore()).isFalse();
+    }
+
+    @Test
+    void emptyHotTableStartsWithTheColdReviews() {
+        ChangeFeedService withCold = feedWithCold(coldReview(1, "c1"));
+
+        ChangeFeedDto first = withCold.changes(null, 10);
+        assertThat(first.changes()).extracting(ChangeDto::externalId).containsExactly("c1");
+        ChangeFeedDto idle = withCold.changes(first.nextCursor(), 10);
+        assertThat(idle.changes()).isEmpty();
+        assertThat(idle.hasMore()).isFalse();
+    }
+
+    @Test
+    void v2CursorKeepsItsPositionAndSkipsTheColdWalk() {
+        tx.executeWithoutResult(s -> {
+            insertPending("google", "a", LocalDateTime.now());
+            stamp("google", "a");
+        });
+        long seq = jdbc.queryForObject("SELECT change_seq FROM reviews", Long.class);
+        long id = jdbc.queryForObject("SELECT id FROM reviews", Long.class);
+        String v2 = java.util.Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("v2|" + seq + "|" + id + "|0|0").getBytes());
+
+        ChangeFeedDto batch = feedWithCold(coldReview(1, "c1")).changes(v2, 10);
+        assertThat(batch.changes()).isEmpty();
+        assertThat(batch.hasMore()).isFalse();
+    }
+
+    // Feed over a cold tier holding these reviews, served one page per matching() call
+    private ChangeFeedService feedWithCold(ColdRecord... reviews) {
+        ColdStore cold = mock(ColdStore.class);
+        when(cold.isEmpty()).thenReturn(false);
+        for (int i = 0; i < reviews.length; i += 2) {
+            List<ColdRecord> page = List.of(reviews).subList(i, Math.min(reviews.length, i + 2));
+            long next = (i + 2 < reviews.length) ? i + 2 : -1;
+            when(cold.matching(isNull(), isNull(), isNull(), eq((long) i), anyInt()))
+                    .thenReturn(new ColdStore.Batch(page, next, page.size()));
+        }
+        when(cold.matching(isNull(), isNull(), isNull(), eq((long) reviews.length), anyInt()))
+                .thenReturn(new ColdStore.Batch(List.of(), -1, 0));
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("coldStore", cold));
+        return new ChangeFeedService(reviewRepository, tombstoneRepository, reviewMapper, props, changeSequence,
+                beans.getBeanProvider(ColdStore.class));
+    }
+
+    private static ColdRecord coldReview(long id, String externalId) {
+        LocalDateTime old = LocalDateTime.of(2019, 5, 1, 0, 0);
+        return new ColdRecord(id, "google", externalId, "someone", 4, "cold " + externalId, old, null, old, old, 1L);
+    }
+
+    private void insertPending(String source, String externalId, LocalDateTime at) {
+        jdbc.update("INSERT INTO reviews (source, external_id, created_at, updated_at, change_seq) VALUES (?, ?, ?, ?, ?)",
+                source, externalId, Timestamp.valueOf(at), Timestamp.valueOf(at), ChangeSequence.PENDING);
+    }
+
+    // What BulkReviewRepository does at the end of an upsert batch
+    private void stamp(String source, String externalId) {
+        jdbc.update("UPDATE reviews SET change_seq = ? WHERE source = ? AND external_id = ? AND change_seq = ?",
+                changeSequence.next(), source, externalId, ChangeSequence.PENDING);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
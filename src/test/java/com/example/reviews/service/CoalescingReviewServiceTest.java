@@ -0,0 +1,154 @@
+package com.example.reviews.service;
+
+import com.example.reviews.api.ErrorHandler;
+import com.example.reviews.config.AdmissionProperties;
+import com.example.reviews.config.ReadProperties;
+import com.example.reviews.config.ReadYourWritesTracker;
+import com.example.reviews.config.ReplicaProperties;
+import com.example.reviews.event.ReviewsDeletedEvent;
+import com.example.reviews.model.dto.ReviewDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/** Coalescing in front of a mocked {@link ReviewService} whose loads block until released. */
+class CoalescingReviewServiceTest {
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(8);
+    private final AtomicInteger loads = new AtomicInteger();
+    private CountDownLatch release;
+    private CountDownLatch loading;
+
+    private ReviewService reviews;
+    private ReadYourWritesTracker readYourWrites;
+    private CoalescingReviewService service;
+
+    @BeforeEach
+    void setUp() {
+        release = new CountDownLatch(1);
+        loading = new CountDownLatch(1);
+        reviews = mock(ReviewService.class);
+        when(reviews.get(1L)).thenAnswer(inv -> {
+            int n = loads.incrementAndGet();
+            loading.countDown();
+            assertThat(release.await(5, TimeUnit.SECONDS)).isTrue();
+            return ReviewDto.builder().id(1L).content("load " + n).build();
+        });
+
+        readYourWrites = new ReadYourWritesTracker(new ReplicaProperties());
+        ReadProperties props = new ReadProperties();
+        props.getCoalescing().setEnabled(true);
+        props.getCoalescing().setTimeoutMs(200);
+        service = new CoalescingReviewService(reviews, readYourWrites, props);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        pool.shutdownNow();
+    }
+
+    @Test
+    void identicalConcurrentRequestsShareOneQuery() throws Exception {
+        Future<ReviewDto> leader = pool.submit(() -> service.get(1L));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        List<Future<ReviewDto>> waiters = new ArrayList<>();
+        for (int i = 0; i < 6; i++) waiters.add(pool.submit(() -> service.get(1L)));
+        Thread.sleep(50);   // let them join
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS).getContent()).isEqualTo("load 1");
+        for (Future<ReviewDto> w : waiters) assertThat(w.get(5, TimeUnit.SECONDS).getContent()).isEqualTo("load 1");
+        verify(reviews, times(1)).get(1L);
+    }
+
+    @Test
+    void leaderErrorReachesWaiters() throws Exception {
+        when(reviews.get(2L)).thenAnswer(inv -> {
+            loading.countDown();
+            assertThat(release.await(5, TimeUnit.SECONDS)).isTrue();
+            throw new ReviewService.NotFoundException("Review 2 not found");
+        });
+        Future<ReviewDto> leader = pool.submit(() -> service.get(2L));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<ReviewDto> waiter = pool.submit(() -> service.get(2L));
+        Thread.sleep(50);
+        release.countDown();
+
+        for (Future<ReviewDto> f : List.of(leader, waiter)) {
+            assertThatThrownBy(() -> f.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(ReviewService.NotFoundException.class);
+        }
+        verify(reviews, times(1)).get(2L);
+    }
+
+    @Test
+    void waiterPastTheTimeoutGets503WithRetryAfter() throws Exception {
+        pool.submit(() -> service.get(1L));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CoalescingReviewService.BusyException busy = null;
+        try {
+            service.get(1L);
+        } catch (CoalescingReviewService.BusyException e) {
+            busy = e;
+        }
+        assertThat(busy).isNotNull();
+
+        ResponseEntity<Map<String, Object>> response = new ErrorHandler(new AdmissionProperties()).busy(busy);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isNotBlank();
+    }
+
+    @Test
+    void requestAfterACommitDoesNotJoinTheOlderQuery() throws Exception {
+        Future<ReviewDto> before = pool.submit(() -> service.get(1L));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // A delete commits while that query is still running
+        service.onDeleted(new ReviewsDeletedEvent(List.of(1L)));
+        Future<ReviewDto> after = pool.submit(() -> service.get(1L));
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (loads.get() < 2 && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        release.countDown();
+
+        assertThat(after.get(5, TimeUnit.SECONDS).getContent()).isEqualTo("load 2");
+        assertThat(before.get(5, TimeUnit.SECONDS).getContent()).isEqualTo("load 1");
+        verify(reviews, times(2)).get(1L);
+    }
+
+    @Test
+    void readYourWritesWindowBypassesCoalescing() throws Exception {
+        readYourWrites.recordWrite();   // outside a transaction: the window starts now
+
+        Future<ReviewDto> first = pool.submit(() -> service.get(1L));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<ReviewDto> second = pool.submit(() -> service.get(1L));
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (loads.get() < 2 && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        release.countDown();
+
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        verify(reviews, times(2)).get(1L);
+    }
+}
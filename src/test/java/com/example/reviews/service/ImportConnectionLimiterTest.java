@@ -0,0 +1,45 @@
+package com.example.reviews.service;
+
+import com.example.reviews.config.ImportProperties;
+import com.example.reviews.config.ReadWriteRoutingDataSource;
+import com.example.reviews.config.ReadYourWritesTracker;
+import com.example.reviews.config.ReplicaProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImportConnectionLimiterTest {
+
+    @Test
+    void readsThePoolSizeOfAPlainHikariPool() {
+        try (HikariDataSource pool = pool(12)) {
+            assertThat(new ImportConnectionLimiter(new ImportProperties(), pool).poolSize()).isEqualTo(12);
+        }
+    }
+
+    @Test
+    void readsThePrimaryPoolSizeBehindReplicaRouting() throws Exception {
+        ReplicaProperties replicas = new ReplicaProperties();
+        try (HikariDataSource primary = pool(9);
+             HikariDataSource replica = pool(30);
+             ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, List.of(replica),
+                     replicas, new ReadYourWritesTracker(replicas))) {
+            routing.afterPropertiesSet();
+            LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+
+            assertThat(new ImportConnectionLimiter(new ImportProperties(), dataSource).poolSize()).isEqualTo(9);
+        }
+    }
+
+    // Never connects: Hikari opens connections on first use
+    private static HikariDataSource pool(int size) {
+        HikariDataSource ds = new HikariDataSource();
+        ds.setJdbcUrl("jdbc:h2:mem:limiter;DB_CLOSE_DELAY=-1");
+        ds.setMaximumPoolSize(size);
+        return ds;
+    }
+}
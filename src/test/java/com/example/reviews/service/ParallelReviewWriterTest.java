@@ -0,0 +1,39 @@
+package com.example.reviews.service;
+
+import com.example.reviews.model.upstream.ReviewInDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParallelReviewWriterTest {
+
+    private static ReviewInDto row(String source, String id) {
+        return new ReviewInDto(id, source, null, null, null, null, null, null);
+    }
+
+    @Test
+    void keysDifferingOnlyInCaseShareALane() {
+        for (int lanes = 2; lanes <= 8; lanes++) {
+            for (int i = 0; i < 200; i++) {
+                int lane = ParallelReviewWriter.laneOf(row("google", "abc-" + i), lanes, false);
+                assertThat(ParallelReviewWriter.laneOf(row("GOOGLE", "ABC-" + i), lanes, false)).isEqualTo(lane);
+                assertThat(ParallelReviewWriter.laneOf(row("Google", "aBc-" + i), lanes, false)).isEqualTo(lane);
+            }
+        }
+    }
+
+    @Test
+    void keyLanesSpreadOneSourceButPartitionLanesDoNot() {
+        Set<Integer> byKey = new HashSet<>();
+        Set<Integer> bySource = new HashSet<>();
+        for (int i = 0; i < 1_000; i++) {
+            byKey.add(ParallelReviewWriter.laneOf(row("google", "r" + i), 4, false));
+            bySource.add(ParallelReviewWriter.laneOf(row(i % 2 == 0 ? "google" : "GOOGLE", "r" + i), 4, true));
+        }
+        assertThat(byKey).hasSize(4);
+        assertThat(bySource).hasSize(1);
+    }
+}
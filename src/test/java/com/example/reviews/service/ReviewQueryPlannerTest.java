@@ -0,0 +1,82 @@
+package com.example.reviews.service;
+
+import com.example.reviews.config.ReadProperties;
+import com.example.reviews.model.dto.ReviewQuery;
+import com.example.reviews.repository.ReviewColumnCollation;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReviewQueryPlannerTest {
+
+    private final ReviewQueryPlanner planner = planner(true);
+
+    @Test
+    void openRangeAloneIsRejected() {
+        assertThatThrownBy(() -> planner.check(ReviewQuery.of(null, null, 1, null, null, null, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> planner.check(ReviewQuery.of(null, null, null, null,
+                LocalDate.of(2015, 1, 1), null, null))).isInstanceOf(IllegalArgumentException.class);
+        // Both bounds present, but at the edges of 1–5: still every row
+        assertThatThrownBy(() -> planner.check(ReviewQuery.of(null, null, 1, 5, null, null, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void boundedRangeAloneIsFiltered() {
+        ReviewQuery dates = ReviewQuery.of(null, null, null, null,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), null);
+        assertThat(planner.plan(dates))
+                .isEqualTo(new ReviewQueryPlanner.Plan(ReviewQueryPlanner.Access.FILTERED, "idx_review_date_id"));
+
+        ReviewQuery ratings = ReviewQuery.of(null, null, 2, 4, null, null, null);
+        assertThat(planner.plan(ratings))
+                .isEqualTo(new ReviewQueryPlanner.Plan(ReviewQueryPlanner.Access.FILTERED, "idx_rating_id"));
+    }
+
+    @Test
+    void openRangeOnTheSortColumnReadsInIndexOrder() {
+        ReviewQuery q = ReviewQuery.of(null, null, 4, null, null, null, "rating,desc");
+        assertThat(planner.plan(q))
+                .isEqualTo(new ReviewQueryPlanner.Plan(ReviewQueryPlanner.Access.ORDERED, "idx_rating_id"));
+    }
+
+    @Test
+    void equalityFilterNarrowsOtherSorts() {
+        assertThat(planner.plan(ReviewQuery.of("google", null, null, null, null, null, null)))
+                .isEqualTo(new ReviewQueryPlanner.Plan(ReviewQueryPlanner.Access.ORDERED, "idx_source_created_id"));
+        assertThat(planner.plan(ReviewQuery.of(null, "food", null, null, null, null, "reviewDate")).access())
+                .isEqualTo(ReviewQueryPlanner.Access.FILTERED);
+        assertThat(planner.plan(ReviewQuery.of("google", null, 1, null, null, null, "rating")).access())
+                .isEqualTo(ReviewQueryPlanner.Access.FILTERED);
+    }
+
+    @Test
+    void sourceAndTagDontCountWithoutACaseInsensitiveCollation() {
+        ReviewQueryPlanner lowered = planner(false);
+
+        // LOWER(source) = LOWER(?) can't use idx_source_*: nothing narrows, and nothing reads in order
+        assertThatThrownBy(() -> lowered.check(ReviewQuery.of("google", null, null, null, null, null, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> lowered.check(ReviewQuery.of(null, "food", null, null, null, null, "reviewDate")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> lowered.check(ReviewQuery.of("google", null, 4, null, null, null, "rating")))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // A bounded range still narrows; the lowered filter is checked on the rows it finds
+        ReviewQuery bounded = ReviewQuery.of("google", null, 2, 4, null, null, null);
+        assertThat(lowered.plan(bounded))
+                .isEqualTo(new ReviewQueryPlanner.Plan(ReviewQueryPlanner.Access.FILTERED, "idx_rating_id"));
+    }
+
+    private static ReviewQueryPlanner planner(boolean caseInsensitive) {
+        ReviewColumnCollation collation = mock(ReviewColumnCollation.class);
+        when(collation.caseInsensitive()).thenReturn(caseInsensitive);
+        return new ReviewQueryPlanner(new ReadProperties(), collation);
+    }
+}
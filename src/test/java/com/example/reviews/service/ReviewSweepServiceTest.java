@@ -0,0 +1,168 @@
+package com.example.reviews.service;
+
+import com.example.reviews.config.ImportProperties;
+import com.example.reviews.repository.BulkReviewRepository;
+import com.example.reviews.util.HttpClientUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The upstream sweep on H2: what it deletes, when it refuses, and which runs may trigger it.
+ * Upstream and the writer lanes are mocks (the MySQL upsert doesn't run on H2).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class ReviewSweepServiceTest {
+
+    @Autowired
+    ReviewImportService importer;
+
+    @Autowired
+    ImportProperties importProps;
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @SpyBean
+    ReviewSweepService sweeper;
+
+    @SpyBean
+    BulkReviewRepository repo;
+
+    @MockBean
+    HttpClientUtil http;
+
+    @MockBean
+    ParallelReviewWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("DELETE FROM reviews");
+        jdbc.update("DELETE FROM review_tombstones");
+        importProps.getSweep().setMaxDeleteRatio(0.5);
+        importProps.getSweep().setChunkSize(2);
+        importProps.getSweep().setPauseMs(0);
+    }
+
+    @AfterEach
+    void restore() {
+        ImportProperties.Sweep defaults = new ImportProperties.Sweep();
+        importProps.getSweep().setMaxDeleteRatio(defaults.getMaxDeleteRatio());
+        importProps.getSweep().setChunkSize(defaults.getChunkSize());
+        importProps.getSweep().setPauseMs(defaults.getPauseMs());
+    }
+
+    @Test
+    void staleRowsOfTheSourceAreDeletedWithTombstones() throws Exception {
+        for (long id = 1; id <= 6; id++) insert(id, "google", 10L);
+        insert(7, "google", 5L);
+        insert(8, "google", 5L);
+        insert(9, "google", null);   // written before generations existed
+        insert(10, "yelp", 5L);      // another source: not this sweep's business
+
+        assertThat(sweeper.sweep("google", 10)).isEqualTo(3);
+
+        assertThat(jdbc.queryForList("SELECT id FROM reviews ORDER BY id", Long.class))
+                .containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 10L);
+        assertThat(jdbc.queryForList("SELECT review_id FROM review_tombstones ORDER BY review_id", Long.class))
+                .containsExactly(7L, 8L, 9L);
+    }
+
+    @Test
+    void sourceOverTheDeleteRatioIsLeftAlone() throws Exception {
+        for (long id = 1; id <= 4; id++) insert(id, "google", 10L);
+        for (long id = 5; id <= 10; id++) insert(id, "google", 5L);
+
+        // 6 of 10 stale > 50%: looks like a truncated import
+        assertThat(sweeper.sweep("google", 10)).isZero();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM reviews", Long.class)).isEqualTo(10);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM review_tombstones", Long.class)).isZero();
+    }
+
+    @Test
+    void rowReimportedAfterTheLookupSurvives() throws Exception {
+        for (long id = 1; id <= 4; id++) insert(id, "google", 10L);
+        insert(5, "google", 5L);
+        insert(6, "google", 5L);
+
+        // A concurrent import stamps row 5 between findStaleIds and deleteStaleChunk
+        AtomicBoolean once = new AtomicBoolean();
+        doAnswer(inv -> {
+            Object ids = inv.callRealMethod();
+            if (once.compareAndSet(false, true)) jdbc.update("UPDATE reviews SET import_generation = 11 WHERE id = 5");
+            return ids;
+        }).when(repo).findStaleIds(anyString(), anyLong(), anyInt());
+
+        assertThat(sweeper.sweep("google", 10)).isEqualTo(1);
+        assertThat(jdbc.queryForList("SELECT id FROM reviews ORDER BY id", Long.class))
+                .containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void sourcesWithInvalidRowsAreNotSwept() throws Exception {
+        when(writer.write(any(), anyLong())).thenReturn(1);
+        page(1, 1, row("g1", "google", 4), row("y1", "yelp", 4), row("y2", "yelp", 9));
+
+        importer.importAll();
+
+        ArgumentCaptor<Map<String, Integer>> sources = ArgumentCaptor.forClass(Map.class);
+        verify(sweeper).sweepAsync(sources.capture(), anyLong());
+        assertThat(sources.getValue()).containsOnlyKeys("google");
+    }
+
+    @Test
+    void incompleteRunIsNotSwept() throws Exception {
+        when(writer.write(any(), anyLong())).thenReturn(1);
+        page(1, 2, row("g1", "google", 4));
+        when(http.get(anyString(), eq(Map.of("page", 2, "size", 50)), anyMap()))
+                .thenThrow(new IllegalStateException("upstream 502"));
+
+        importer.importAll();
+
+        verify(writer).write(any(), anyLong());
+        verify(sweeper, never()).sweepAsync(any(), anyLong());
+    }
+
+    private void page(int page, int totalPages, String... rows) {
+        String body = "{\"reviews\":[" + String.join(",", rows) + "],\"paging\":{\"totalPages\":" + totalPages + "}}";
+        when(http.get(anyString(), eq(Map.of("page", page, "size", 50)), anyMap()))
+                .thenReturn(ResponseEntity.ok(body));
+    }
+
+    private static String row(String id, String source, int rating) {
+        return "{\"id\":\"" + id + "\",\"source\":\"" + source + "\",\"rating\":" + rating + ",\"content\":\"text\"}";
+    }
+
+    private void insert(long id, String source, Long generation) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbc.update("INSERT INTO reviews (id, source, external_id, created_at, updated_at, import_generation, change_seq) " +
+                "VALUES (?, ?, ?, ?, ?, ?, 0)", id, source, "ext-" + id, now, now, generation);
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.reviews.service;
+
+import com.example.reviews.model.upstream.ReviewInDto;
+import com.example.reviews.tiering.ColdStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Export from H2, import back: the records that reach the writer lanes must equal what was stored.
+ * The writer is a mock (the MySQL upsert doesn't run on H2) that collects what it is handed.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class SnapshotRoundTripTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_456_000);
+    private static final LocalDateTime REVIEWED = LocalDateTime.of(2024, 2, 28, 8, 0, 0, 5_000);
+
+    @Autowired
+    SnapshotImportService importer;
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    ObjectMapper mapper;
+
+    @MockBean
+    ParallelReviewWriter writer;
+
+    @TempDir
+    Path dir;
+
+    private final List<ReviewInDto> written = new ArrayList<>();
+    private SnapshotExportService exporter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        exporter = new SnapshotExportService(ignoringStreamingFetchSize(dataSource), mapper,
+                new DefaultListableBeanFactory().getBeanProvider(ColdStore.class));
+        jdbc.update("DELETE FROM reviews");
+        insert(1, "google", "g-1", "Ann", 5, "Great", REVIEWED, "food", CREATED);
+        insert(2, "yelp", "y-1", null, null, null, null, null, CREATED.plusSeconds(1));
+        when(writer.write(any(), anyLong())).thenAnswer(inv -> {
+            List<ReviewInDto> rows = inv.getArgument(0);
+            written.addAll(rows);
+            return rows.size();
+        });
+    }
+
+    @Test
+    void plainNdjsonRoundTrips() throws Exception {
+        Path file = dir.resolve("reviews.ndjson");
+
+        assertThat(exporter.exportTo(file)).isEqualTo(2);
+        assertThat(Files.readAllLines(file)).hasSize(2);
+        assertThat(dir.resolve("reviews.ndjson.part")).doesNotExist();
+
+        assertThat(importer.importFile(file)).isEqualTo(2);
+        assertThat(written).containsExactly(expected());
+    }
+
+    @Test
+    void gzipRoundTripsAndIsRecognisedByItsContent() throws Exception {
+        Path file = dir.resolve("reviews.ndjson.gz");
+        exporter.exportTo(file);
+
+        byte[] bytes = Files.readAllBytes(file);
+        assertThat(bytes[0] & 0xFF).isEqualTo(0x1f);
+        assertThat(bytes[1] & 0xFF).isEqualTo(0x8b);
+
+        // Renamed without .gz: still gunzipped, because the magic bytes say so
+        Path renamed = Files.copy(file, dir.resolve("renamed.ndjson"));
+        importer.importFile(renamed);
+        assertThat(written).containsExactly(expected());
+
+        // Named .gz but plain: read as it is
+        written.clear();
+        Path plain = dir.resolve("plain.ndjson.gz");
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            Files.write(plain, in.readAllBytes());
+        }
+        importer.importFile(plain);
+        assertThat(written).containsExactly(expected());
+    }
+
+    @Test
+    void otherNamesAreReadAsTheUpstreamEnvelope() throws Exception {
+        String envelope = "{\"paging\":{\"totalPages\":1,\"extra\":[1,2]},\"reviews\":[" +
+                "{\"id\":\"g-1\",\"source\":\"google\",\"author\":\"Ann\",\"rating\":5,\"content\":\"Great\"," +
+                "\"reviewDate\":\"2024-02-28T08:00:00.000005Z\",\"tags\":\"food\",\"createdAt\":\"2024-03-01T10:15:30.123456\"}," +
+                "{\"id\":\"y-1\",\"source\":\"yelp\",\"createdAt\":\"2024-03-01T10:15:31.123456\"}" +
+                "],\"more\":{}}";
+        Path file = dir.resolve("page.json.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(envelope.getBytes(StandardCharsets.UTF_8));
+        }
+
+        importer.importFile(file);
+        assertThat(written).containsExactly(expected());
+
+        // NDJSON under an envelope name is rejected, not half-read
+        Path ndjson = dir.resolve("reviews.ndjson");
+        exporter.exportTo(ndjson);
+        Path misnamed = Files.copy(ndjson, dir.resolve("reviews.json"));
+        assertThatThrownBy(() -> importer.importFile(misnamed)).hasMessageContaining("not an envelope");
+    }
+
+    @Test
+    void failedExportKeepsThePreviousSnapshot() throws Exception {
+        Path file = dir.resolve("reviews.ndjson");
+        Files.writeString(file, "previous\n");
+
+        // Fails after the table rows went into the .part file
+        ObjectProvider<ColdStore> failingCold = mock(ObjectProvider.class);
+        when(failingCold.getIfAvailable()).thenThrow(new IllegalStateException("segment unreadable"));
+        SnapshotExportService failing = new SnapshotExportService(ignoringStreamingFetchSize(dataSource), mapper, failingCold);
+
+        assertThatThrownBy(() -> failing.exportTo(file)).hasMessage("segment unreadable");
+        assertThat(Files.readString(file)).isEqualTo("previous\n");
+        assertThat(dir.resolve("reviews.ndjson.part")).doesNotExist();
+    }
+
+    @Test
+    void millisecondSnapshotsStillImport() throws Exception {
+        // Written before exports kept microseconds
+        Path file = dir.resolve("old.ndjson");
+        Files.writeString(file, "{\"id\":\"g-1\",\"source\":\"google\",\"reviewDate\":\"2024-02-28T08:00:00.250\"," +
+                "\"createdAt\":\"2024-03-01T10:15:30.123\"}\n");
+
+        importer.importFile(file);
+        assertThat(written).hasSize(1);
+        assertThat(written.get(0).reviewDate()).isEqualTo(LocalDateTime.of(2024, 2, 28, 8, 0, 0, 250_000_000));
+        assertThat(written.get(0).createdAt()).isEqualTo(LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_000_000));
+    }
+
+    /** H2 rejects the MySQL streaming hint ({@code setFetchSize(Integer.MIN_VALUE)}); drop it. */
+    private static DataSource ignoringStreamingFetchSize(DataSource ds) {
+        return new DelegatingDataSource(ds) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Connection con = super.getConnection();
+                return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                        (p, m, a) -> {
+                            Object result = invoke(con, m, a);
+                            if (!(result instanceof Statement st)) return result;
+                            return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Statement.class},
+                                    (p2, m2, a2) -> (m2.getName().equals("setFetchSize") && (int) a2[0] < 0)
+                                            ? null : invoke(st, m2, a2));
+                        });
+            }
+        };
+    }
+
+    private static Object invoke(Object target, Method m, Object[] args) throws Throwable {
+        try {
+            return m.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** The stored rows as import records, microseconds included. */
+    private static ReviewInDto[] expected() {
+        return new ReviewInDto[]{
+                new ReviewInDto("g-1", "google", "Ann", 5, "Great", REVIEWED, "food", CREATED),
+                new ReviewInDto("y-1", "yelp", null, null, null, null, null, CREATED.plusSeconds(1))
+        };
+    }
+
+    private void insert(long id, String source, String externalId, String author, Integer rating, String content,
+                        LocalDateTime reviewDate, String tag, LocalDateTime createdAt) {
+        jdbc.update("INSERT INTO reviews (id, source, external_id, author, rating, content, review_date, tag, " +
+                        "created_at, updated_at, change_seq) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)",
+                id, source, externalId, author, rating, content,
+                reviewDate != null ? Timestamp.valueOf(reviewDate) : null, tag,
+                Timestamp.valueOf(createdAt), Timestamp.valueOf(createdAt));
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.reviews.tiering;
+
+import com.example.reviews.config.ImportProperties;
+import com.example.reviews.config.ReadProperties;
+import com.example.reviews.config.TieringProperties;
+import com.example.reviews.repository.BulkReviewRepository;
+import com.example.reviews.service.ImportConnectionLimiter;
+import com.example.reviews.service.ReviewSweepService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The upstream sweep over cold reviews: a real {@link ColdStore} in a temp directory; MySQL is a
+ * mock with no hot rows, whose cold tombstones retire the rows like the delete event would.
+ */
+class ColdSweepTest {
+
+    private static final long MOVED_WITH = 7;   // generation the test segment was written with
+    private static final long RUN = 100;
+
+    @TempDir
+    Path dir;
+
+    ColdStore cold;
+    BulkReviewRepository repo;
+    ImportProperties importProps;
+    ReviewSweepService sweeper;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TieringProperties tiering = new TieringProperties();
+        tiering.setDirectory(dir.toString());
+        ReadProperties read = new ReadProperties();
+        read.getModel().setEnabled(true);
+        cold = new ColdStore(tiering, read);
+        cold.writeSegment(SegmentTest.records(10));   // ids 10..100, source "google"
+
+        repo = mock(BulkReviewRepository.class);
+        when(repo.tombstoneColdRows(any())).thenAnswer(inv -> {
+            List<ColdRecord> records = inv.getArgument(0);
+            return cold.markDeleted(records.stream().map(ColdRecord::id).toList());
+        });
+        ImportConnectionLimiter connections = mock(ImportConnectionLimiter.class);
+        when(connections.call(any())).thenAnswer(inv -> ((Supplier<?>) inv.getArgument(0)).get());
+
+        importProps = new ImportProperties();
+        importProps.getSweep().setMaxDeleteRatio(0.5);
+        importProps.getSweep().setChunkSize(2);
+        importProps.getSweep().setPauseMs(0);
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("coldStore", cold));
+        sweeper = new ReviewSweepService(repo, importProps, connections, beans.getBeanProvider(ColdStore.class));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        cold.close();
+    }
+
+    @Test
+    void coldReviewsTheRunDidntSeeAreTombstoned() throws Exception {
+        // The run re-sent 7 of the 10 unchanged, in whatever case
+        for (long id = 10; id <= 70; id += 10) cold.markSeen(cold.findLive("GOOGLE", "ext-" + id), RUN);
+
+        assertThat(cold.sourceRows("google", RUN)).isEqualTo(new ColdStore.SourceRows(10, 3));
+        assertThat(sweeper.sweep("google", RUN)).isEqualTo(3);
+
+        ArgumentCaptor<List<ColdRecord>> tombstoned = ArgumentCaptor.forClass(List.class);
+        verify(repo, atLeastOnce()).tombstoneColdRows(tombstoned.capture());
+        List<Long> ids = new ArrayList<>();
+        tombstoned.getAllValues().forEach(batch -> batch.forEach(r -> ids.add(r.id())));
+        assertThat(ids).containsExactly(80L, 90L, 100L);
+        assertThat(cold.liveCount()).isEqualTo(7);
+        assertThat(cold.sourceRows("google", RUN)).isEqualTo(new ColdStore.SourceRows(7, 0));
+    }
+
+    @Test
+    void ratioGuardCountsTheColdTier() throws Exception {
+        // 4 hot rows, all seen; 10 cold, 2 seen: 8 of 14 would go
+        when(repo.countBySource(anyString())).thenReturn(4L);
+        when(repo.countStale(anyString(), anyLong())).thenReturn(0L);
+        for (long id = 10; id <= 20; id += 10) cold.markSeen(cold.findLive("google", "ext-" + id), RUN);
+
+        assertThat(sweeper.sweep("google", RUN)).isZero();
+        verify(repo, never()).tombstoneColdRows(any());
+        assertThat(cold.liveCount()).isEqualTo(10);
+    }
+
+    @Test
+    void rowsMovedDuringTheRunCountAsSeen() throws Exception {
+        // Stamped hot by this run, then moved: the segment starts with the run's generation
+        List<ColdRecord> moved = new ArrayList<>();
+        for (ColdRecord r : SegmentTest.records(2)) {
+            moved.add(new ColdRecord(r.id() + 1_000, r.source(), "late-" + r.id(), r.author(), r.rating(), r.content(),
+                    r.reviewDate(), r.tag(), r.createdAt(), r.updatedAt(), RUN));
+        }
+        cold.writeSegment(moved);
+
+        assertThat(cold.sourceRows("google", RUN)).isEqualTo(new ColdStore.SourceRows(12, 10));
+        assertThat(cold.sourceRows("google", MOVED_WITH)).isEqualTo(new ColdStore.SourceRows(12, 0));
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.reviews.tiering;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SegmentTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writtenRowsReadBackThroughEveryIndex() throws IOException {
+        List<ColdRecord> records = records(5);
+        records.set(2, new ColdRecord(30, "yelp", "ext-30", null, null, "x".repeat(70_000), null, null,
+                at(1), at(2), null));
+        Path file = dir.resolve("segment-000001" + Segment.SUFFIX);
+        Segment.write(file, records, 2);
+
+        Segment s = Segment.open(file, 1);
+        assertThat(s.rowCount()).isEqualTo(5);
+        assertThat(s.blockCount()).isEqualTo(3);
+        for (int row = 0; row < records.size(); row++) {
+            ColdRecord r = records.get(row);
+            assertThat(s.rowOf(r.id())).isEqualTo(row);
+            assertThat(s.read(row)).isEqualTo(r);
+            assertThat(s.rowsForKey(ColdRecord.keyHash(r.source().toUpperCase(), r.externalId()))).containsExactly(row);
+            assertThat(s.dataHashAt(row)).isEqualTo(r.dataHash());
+            assertThat(s.sourceAt(row)).isEqualTo(r.source());
+            assertThat(s.indexRow(row)).isEqualTo(r.toRow());
+        }
+        assertThat(s.rowOf(15)).isEqualTo(-1);
+        assertThat(s.rowOf(1_000)).isEqualTo(-1);
+        assertThat(s.rowsForKey(ColdRecord.keyHash("google", "nope"))).isEmpty();
+        assertThat(s.reviewDateMicros(2)).isEqualTo(ColdRecord.NULL_TIME);
+    }
+
+    @Test
+    void deletionsSurviveReopeningAndATornTrailingWrite() throws IOException {
+        Path file = dir.resolve("segment-000001" + Segment.SUFFIX);
+        Segment.write(file, records(4), 64);
+
+        Segment s = Segment.open(file, 1);
+        assertThat(s.markDeleted(new int[]{1, 1})).isEqualTo(1);
+        s.close();
+
+        // A crash halfway through the next append
+        Path del = Segment.deletionsPath(file);
+        Files.write(del, new byte[]{0, 0}, StandardOpenOption.APPEND);
+
+        s = Segment.open(file, 1);
+        assertThat(s.isLive(1)).isFalse();
+        assertThat(s.liveCount()).isEqualTo(3);
+        assertThat(s.markDeleted(new int[]{3})).isEqualTo(1);
+        s.close();
+
+        // The append after the torn bytes must read back as row 3, not as garbage
+        s = Segment.open(file, 1);
+        assertThat(s.isLive(0)).isTrue();
+        assertThat(s.isLive(1)).isFalse();
+        assertThat(s.isLive(2)).isTrue();
+        assertThat(s.isLive(3)).isFalse();
+        assertThat(s.liveCount()).isEqualTo(2);
+        assertThat(Files.size(del)).isEqualTo(8);
+        s.close();
+    }
+
+    @Test
+    void seenGenerationsStartAtTheMoveAndSurviveReopening() throws IOException {
+        Path file = dir.resolve("segment-000001" + Segment.SUFFIX);
+        Segment.write(file, records(3), 2);
+
+        Segment s = Segment.open(file, 1);
+        assertThat(s.seenGeneration(0)).isEqualTo(7L);
+        s.markSeen(1, 9);
+        s.markSeen(2, 5);   // never goes back
+        s.close();
+
+        s = Segment.open(file, 1);
+        assertThat(s.seenGeneration(0)).isEqualTo(7L);
+        assertThat(s.seenGeneration(1)).isEqualTo(9L);
+        assertThat(s.seenGeneration(2)).isEqualTo(7L);
+
+        // A segment from before the sidecar gets one built from its rows
+        Files.delete(Segment.generationsPath(file));
+        assertThat(Segment.open(file, 1).seenGeneration(1)).isEqualTo(7L);
+    }
+
+    static List<ColdRecord> records(int n) {
+        List<ColdRecord> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            long id = (i + 1) * 10L;
+            out.add(new ColdRecord(id, "google", "ext-" + id, "author " + i, 1 + i % 5, "review " + i,
+                    at(-i), (i % 2 == 0) ? "food" : null, at(-100), at(-i), 7L));
+        }
+        return out;
+    }
+
+    static LocalDateTime at(int days) {
+        return LocalDateTime.of(2021, 6, 1, 10, 30).plusDays(days);
+    }
+}
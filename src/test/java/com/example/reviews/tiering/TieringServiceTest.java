@@ -0,0 +1,143 @@
+package com.example.reviews.tiering;
+
+import com.example.reviews.config.ReadProperties;
+import com.example.reviews.config.TieringProperties;
+import com.example.reviews.repository.BulkReviewRepository;
+import com.example.reviews.service.ImportConnectionLimiter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Moves against a real {@link ColdStore} in a temp directory; MySQL is a mock that reports which
+ * hot rows were still unchanged when the move deleted them.
+ */
+class TieringServiceTest {
+
+    @TempDir
+    Path dir;
+
+    TieringProperties props;
+    ColdStore cold;
+    BulkReviewRepository repo;
+    TieringService tiering;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        props = new TieringProperties();
+        props.setDirectory(dir.toString());
+        props.setBlockRows(2);
+        props.setDeleteChunkSize(2);
+        props.setPauseMs(0);
+        props.setInitialDelayMs(3_600_000);   // runs are started by the test
+        cold = coldStore();
+
+        repo = mock(BulkReviewRepository.class);
+        ImportConnectionLimiter connections = mock(ImportConnectionLimiter.class);
+        when(connections.call(any())).thenAnswer(inv -> ((Supplier<?>) inv.getArgument(0)).get());
+        tiering = new TieringService(repo, cold, props, connections);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        tiering.shutdown();
+        cold.close();
+    }
+
+    @Test
+    void movesRowsIntoOneSegmentAndRemovesThemFromMySql() throws Exception {
+        List<ColdRecord> rows = SegmentTest.records(3);
+        candidates(rows);
+        deletesEverything();
+
+        assertThat(tiering.runOnce()).isEqualTo(3);
+        assertThat(segmentFiles()).hasSize(1);
+        assertThat(cold.liveCount()).isEqualTo(3);
+        for (ColdRecord r : rows) assertThat(cold.find(r.id())).isEqualTo(r);
+    }
+
+    @Test
+    void rowChangedDuringTheMoveStaysHotAndLosesItsColdCopy() throws Exception {
+        List<ColdRecord> rows = SegmentTest.records(3);
+        candidates(rows);
+        // Row 20 was updated between the copy and the delete
+        when(repo.deleteMovedChunk(any())).thenAnswer(inv -> {
+            Map<Long, LocalDateTime> copied = inv.getArgument(0);
+            return copied.keySet().stream().filter(id -> id != 20L).toList();
+        });
+
+        assertThat(tiering.runOnce()).isEqualTo(2);
+        assertThat(cold.find(20)).isNull();
+        assertThat(cold.findLive("google", "ext-20")).isNull();
+        assertThat(cold.liveCount()).isEqualTo(2);
+    }
+
+    @Test
+    void interruptedMoveResumesWithoutASecondCopy() throws Exception {
+        List<ColdRecord> rows = SegmentTest.records(3);
+        // The previous run wrote the segment, then stopped before deleting anything
+        cold.writeSegment(rows);
+
+        // Meanwhile row 30 changed in MySQL; rows 10 and 20 are as copied
+        ColdRecord changed = new ColdRecord(30, "google", "ext-30", "someone", 2, "edited",
+                rows.get(2).reviewDate(), null, rows.get(2).createdAt(), SegmentTest.at(5), 8L);
+        List<ColdRecord> now = new ArrayList<>(rows.subList(0, 2));
+        now.add(changed);
+        candidates(now);
+        deletesEverything();
+
+        assertThat(tiering.runOnce()).isEqualTo(3);
+        // Only the changed row is written again, and its old copy is retired
+        assertThat(segmentFiles()).hasSize(2);
+        assertThat(cold.rowCount()).isEqualTo(4);
+        assertThat(cold.liveCount()).isEqualTo(3);
+        assertThat(cold.find(30)).isEqualTo(changed);
+
+        // ...and the same after a restart
+        cold.close();
+        cold = coldStore();
+        assertThat(cold.liveCount()).isEqualTo(3);
+        assertThat(cold.find(30)).isEqualTo(changed);
+        assertThat(cold.find(10)).isEqualTo(rows.get(0));
+    }
+
+    private ColdStore coldStore() throws Exception {
+        ReadProperties read = new ReadProperties();
+        read.getModel().setEnabled(true);
+        return new ColdStore(props, read);
+    }
+
+    private void candidates(List<ColdRecord> rows) {
+        when(repo.findTieringCandidates(anyLong(), any(), anyInt()))
+                .thenReturn(rows)
+                .thenReturn(List.of());
+    }
+
+    private void deletesEverything() {
+        when(repo.deleteMovedChunk(any())).thenAnswer(inv ->
+                new ArrayList<>(((Map<Long, LocalDateTime>) inv.getArgument(0)).keySet()));
+    }
+
+    private List<Path> segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> f.toString().endsWith(Segment.SUFFIX)).toList();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.reviews.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void growsWhileLatencyStaysAtBaselineAndSlotsAreUsed() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 200, 0);
+        for (int i = 0; i < 10; i++) fullWindow(limiter, 5 * MS, true);
+
+        assertThat(limiter.limit()).isGreaterThan(20);
+    }
+
+    @Test
+    void doesNotGrowWhileMostSlotsAreIdle() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 200, 0);
+        for (int i = 0; i < 200; i++) {
+            assertThat(limiter.tryAcquire(0)).isTrue();
+            limiter.release(5 * MS, true);
+        }
+        assertThat(limiter.limit()).isEqualTo(20);
+    }
+
+    @Test
+    void shrinksWhenLatencyRisesAboveBaseline() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 200, 0);
+        fullWindow(limiter, 5 * MS, true);            // baseline
+        for (int i = 0; i < 10; i++) fullWindow(limiter, 50 * MS, true);
+
+        assertThat(limiter.limit()).isLessThan(20).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void failuresCutTheLimit() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 200, 0);
+        fullWindow(limiter, 5 * MS, false);
+
+        assertThat(limiter.limit()).isEqualTo(18);
+    }
+
+    @Test
+    void rejectsAtOnceWhenTheQueueIsFull() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 0);
+        assertThat(limiter.tryAcquire(1_000)).isTrue();
+
+        long started = System.nanoTime();
+        assertThat(limiter.tryAcquire(1_000)).isFalse();
+        assertThat(System.nanoTime() - started).isLessThan(500 * MS);
+    }
+
+    @Test
+    void queuedRequestTimesOut() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 1);
+        assertThat(limiter.tryAcquire(0)).isTrue();
+
+        long started = System.nanoTime();
+        assertThat(limiter.tryAcquire(50)).isFalse();
+        assertThat(System.nanoTime() - started).isGreaterThanOrEqualTo(50 * MS);
+        assertThat(limiter.inFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void queuedRequestGetsTheReleasedSlot() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 1);
+        assertThat(limiter.tryAcquire(0)).isTrue();
+
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiter.tryAcquire(5_000);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+        limiter.release(MS, true);
+
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(limiter.inFlight()).isEqualTo(1);
+    }
+
+    // One measurement window with every slot in use: take all, then release all at the same latency
+    private static void fullWindow(AdaptiveConcurrencyLimiter limiter, long rttNanos, boolean success)
+            throws InterruptedException {
+        int samples = 0;
+        int window = Math.max(10, limiter.limit());
+        while (samples < window) {
+            int n = limiter.limit();
+            for (int i = 0; i < n; i++) assertThat(limiter.tryAcquire(0)).isTrue();
+            for (int i = 0; i < n; i++) limiter.release(rttNanos, success);
+            samples += n;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.reviews.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ContentCodecTest {
+
+    private static final String LONG = "The room was clean and the staff were friendly. ".repeat(20);
+
+    @Test
+    void shortTextStaysRaw() {
+        byte[] stored = ContentCodec.encode("Great place", ContentCodec.DEFAULT_MIN_BYTES);
+        assertThat(stored[0]).isEqualTo(ContentCodec.RAW);
+        assertThat(ContentCodec.decode(stored)).isEqualTo("Great place");
+    }
+
+    @Test
+    void longTextRoundTripsCompressed() {
+        byte[] stored = ContentCodec.encode(LONG, ContentCodec.DEFAULT_MIN_BYTES);
+        assertThat(stored[0]).isEqualTo(ContentCodec.DEFLATE);
+        assertThat(stored.length).isLessThan(LONG.length());
+        assertThat(ContentCodec.decode(stored)).isEqualTo(LONG);
+    }
+
+    @Test
+    void plainColumnWins() {
+        assertThat(ContentCodec.fromColumns("plain", ContentCodec.encode(LONG, 0))).isEqualTo("plain");
+        assertThat(ContentCodec.fromColumns(null, null)).isNull();
+    }
+
+    @Test
+    void truncatedHeaderIsReportedAsCorrupt() {
+        byte[] stored = ContentCodec.encode(LONG, 0);
+        for (int n = 1; n < 5; n++) {
+            byte[] truncated = Arrays.copyOf(stored, n);
+            assertThatThrownBy(() -> ContentCodec.decode(truncated))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageStartingWith("Corrupt compressed content");
+        }
+    }
+
+    @Test
+    void truncatedStreamIsReportedAsCorrupt() {
+        byte[] stored = ContentCodec.encode(LONG, 0);
+        byte[] truncated = Arrays.copyOf(stored, stored.length / 2);
+        assertThatThrownBy(() -> ContentCodec.decode(truncated))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("Corrupt compressed content");
+    }
+
+    @Test
+    void unknownCodecIsRejected() {
+        assertThatThrownBy(() -> ContentCodec.decode(new byte[]{7, 1, 2}))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.reviews.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Measures what compressed content storage buys on <i>our</i> reviews, not on a synthetic corpus.
+ *
+ * Not part of the regular test run (the class name doesn't match surefire's patterns, and it needs
+ * a corpus). Point it at an NDJSON snapshot (see SnapshotExportService, plain or .gz):
+ * <pre>
+ *   mvn test -Dtest=ContentCompressionBenchmark -Dreviews.benchmark.snapshot=reviews.ndjson.gz
+ * </pre>
+ * For the first {@code reviews.benchmark.sample} (default 20000) non-empty bodies it logs:
+ * <ul>
+ *   <li>stored size vs. UTF-8 size (ratio) and how many rows stayed raw (short or incompressible),</li>
+ *   <li>encode throughput (import CPU per MB) and decode throughput (read CPU per MB).</li>
+ * </ul>
+ * Candidates: deflate level 1 (what the storage mode uses) and level 6 (zlib default) at the default
+ * threshold, plus level 1 across a few thresholds. Each is run once to warm up, then timed.
+ */
+@EnabledIfSystemProperty(named = "reviews.benchmark.snapshot", matches = ".+")
+class ContentCompressionBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentCompressionBenchmark.class);
+
+    private static final int TIMED_ROUNDS = 3;
+    private static final int[] THRESHOLDS = {0, 128, 256, 512, 1024};
+
+    @Test
+    void run() throws IOException {
+        Path snapshot = Path.of(System.getProperty("reviews.benchmark.snapshot"));
+        int sample = Integer.getInteger("reviews.benchmark.sample", 20_000);
+
+        List<String> corpus = loadSample(snapshot, sample);
+        if (corpus.isEmpty()) {
+            log.info("Compression benchmark: no review content in {}", snapshot);
+            return;
+        }
+        long rawBytes = 0;
+        for (String s : corpus) rawBytes += s.getBytes(StandardCharsets.UTF_8).length;
+        log.info("Compression benchmark: {} reviews, {} KiB of UTF-8 content (avg {} B)",
+                corpus.size(), rawBytes / 1024, rawBytes / corpus.size());
+
+        for (int t : THRESHOLDS) {
+            measure(corpus, rawBytes, Deflater.BEST_SPEED, t);
+        }
+        measure(corpus, rawBytes, Deflater.DEFAULT_COMPRESSION, ContentCodec.DEFAULT_MIN_BYTES);
+    }
+
+    private static void measure(List<String> corpus, long rawBytes, int level, int threshold) {
+        List<byte[]> encoded = new ArrayList<>(corpus.size());
+        for (String s : corpus) encoded.add(ContentCodec.encode(s, threshold, level));   // warm-up
+        for (byte[] b : encoded) ContentCodec.decode(b);
+
+        long encodeNanos = 0, decodeNanos = 0, stored = 0;
+        int raw = 0;
+        for (int round = 0; round < TIMED_ROUNDS; round++) {
+            encoded.clear();
+            long t0 = System.nanoTime();
+            for (String s : corpus) encoded.add(ContentCodec.encode(s, threshold, level));
+            long t1 = System.nanoTime();
+            for (byte[] b : encoded) ContentCodec.decode(b);
+            long t2 = System.nanoTime();
+            encodeNanos += t1 - t0;
+            decodeNanos += t2 - t1;
+        }
+        for (byte[] b : encoded) {
+            stored += b.length;
+            if (b[0] == ContentCodec.RAW) raw++;
+        }
+
+        double mb = rawBytes * (double) TIMED_ROUNDS / (1024 * 1024);
+        log.info("Compression benchmark: deflate level {}, threshold {} B → ratio {} ({} KiB stored, {} of {} rows raw), "
+                        + "encode {} MB/s ({} µs/review), decode {} MB/s ({} µs/review)",
+                (level == Deflater.DEFAULT_COMPRESSION) ? 6 : level, threshold, ratio(stored, rawBytes), stored / 1024,
+                raw, corpus.size(),
+                Math.round(mb / (encodeNanos / 1e9)), perReview(encodeNanos, corpus.size()),
+                Math.round(mb / (decodeNanos / 1e9)), perReview(decodeNanos, corpus.size()));
+    }
+
+    /** The first {@code n} non-empty {@code content} values of the snapshot. */
+    private static List<String> loadSample(Path snapshot, int n) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        List<String> out = new ArrayList<>(n);
+        try (InputStream file = Files.newInputStream(snapshot);
+             InputStream in = snapshot.toString().endsWith(".gz") ? new GZIPInputStream(file) : file;
+             BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while (out.size() < n && (line = lines.readLine()) != null) {
+                if (line.isBlank()) continue;
+                JsonNode content = mapper.readTree(line).get("content");
+                if (content != null && !content.isNull() && !content.asText().isEmpty()) out.add(content.asText());
+            }
+        }
+        return out;
+    }
+
+    private static String ratio(long stored, long raw) {
+        return String.format("%.2f", raw == 0 ? 1.0 : (double) stored / raw);
+    }
+
+    private static String perReview(long nanos, int reviews) {
+        return String.format("%.1f", nanos / 1e3 / TIMED_ROUNDS / reviews);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.reviews.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 16;
+
+    private final SingleFlight<String, Integer> flights = new SingleFlight<>();
+    private final ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallsForOneKeyRunTheLoaderOnce() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Integer>> results = callAll(() -> {
+            runs.incrementAndGet();
+            release.await();
+            return 42;
+        }, 5_000);
+        awaitJoined(CALLERS - 1);
+        release.countDown();
+
+        for (Future<Integer> f : results) assertThat(f.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+        assertThat(runs.get()).isEqualTo(1);
+        assertThat(flights.executions()).isEqualTo(1);
+        assertThat(flights.inFlight()).isZero();
+
+        // Landed: the next call starts a new flight
+        assertThat(flights.execute("k", () -> 43, 1_000)).isEqualTo(43);
+        assertThat(flights.executions()).isEqualTo(2);
+    }
+
+    @Test
+    void leaderExceptionReachesEveryWaiter() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<Integer>> results = callAll(() -> {
+            release.await();
+            throw new IllegalStateException("query failed");
+        }, 5_000);
+        awaitJoined(CALLERS - 1);
+        release.countDown();
+
+        for (Future<Integer> f : results) {
+            assertThatThrownBy(() -> f.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalStateException.class)
+                    .hasRootCauseMessage("query failed");
+        }
+        assertThat(flights.executions()).isEqualTo(1);
+    }
+
+    @Test
+    void waiterGivesUpAfterItsTimeoutButTheLeaderFinishes() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Integer> leader = pool.submit(() -> flights.execute("k", () -> {
+            started.countDown();
+            release.await();
+            return 1;
+        }, 5_000));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> flights.execute("k", () -> 2, 50)).isInstanceOf(TimeoutException.class);
+
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+    }
+
+    @Test
+    void differentKeysDontShare() throws Exception {
+        assertThat(flights.execute("a", () -> 1, 1_000)).isEqualTo(1);
+        assertThat(flights.execute("b", () -> 2, 1_000)).isEqualTo(2);
+        assertThat(flights.shared()).isZero();
+    }
+
+    private List<Future<Integer>> callAll(Callable<Integer> loader, long timeoutMs) {
+        List<Future<Integer>> out = new ArrayList<>(CALLERS);
+        for (int i = 0; i < CALLERS; i++) out.add(pool.submit(() -> flights.execute("k", loader, timeoutMs)));
+        return out;
+    }
+
+    // Every caller but the leader has joined the flight
+    private void awaitJoined(int waiters) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (flights.shared() < waiters && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        assertThat(flights.shared()).isEqualTo(waiters);
+    }
+}